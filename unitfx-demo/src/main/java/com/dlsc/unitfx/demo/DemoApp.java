@@ -1,14 +1,19 @@
 package com.dlsc.unitfx.demo;
 
+import com.dlsc.unitfx.AngleDialField;
 import com.dlsc.unitfx.QuantityInputField;
+import com.dlsc.unitfx.util.QuantitiesUtil;
 import com.dlsc.unitfx.util.Units;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
+import javax.measure.Unit;
 import javax.measure.quantity.Angle;
 import javax.measure.quantity.Length;
 import javax.measure.quantity.Mass;
@@ -29,6 +34,10 @@ public class DemoApp extends Application {
         angleField.setBaseUnit(Units.getInstance().getUnit(Angle.class));
         angleField.setAutoFixValue(true);
 
+        AngleDialField angleDial = new AngleDialField();
+        angleDial.setSnapToCardinal(true);
+        bindInDegrees(angleDial, angleField);
+
         QuantityInputField<Speed> speedField = new QuantityInputField<>();
         speedField.getAvailableUnits().addAll(Units.getInstance().getUnits(Speed.class));
         speedField.setBaseUnit(Units.getInstance().getUnit(Speed.class));
@@ -52,7 +61,7 @@ public class DemoApp extends Application {
         vbox.setStyle("-fx-padding: 20px;");
 
         vbox.getChildren().add(wrap("Length Field", lengthField));
-        vbox.getChildren().add(wrap("Angle Field", angleField));
+        vbox.getChildren().add(wrap("Angle Field", angleField, angleDial));
         vbox.getChildren().add(wrap("Speed Field", speedField));
         vbox.getChildren().add(wrap("Temperature Field", temperatureField));
         vbox.getChildren().add(wrap("Mass Field", massField));
@@ -63,12 +72,48 @@ public class DemoApp extends Application {
         stage.sizeToScene();
         stage.centerOnScreen();
         stage.show();
+
+        // used by the native image build to check that the application starts up
+        if (Boolean.getBoolean("unitfx.demo.smokeTest")) {
+            Platform.runLater(Platform::exit);
+        }
+    }
+
+    /*
+     * The dial always works in degrees while the field offers every registered angle unit, so the values are converted
+     * between the dial and the current unit of the field instead of being bound directly.
+     */
+    private void bindInDegrees(AngleDialField dial, QuantityInputField<Angle> field) {
+        boolean[] updating = new boolean[1];
+        InvalidationListener fieldListener = obs -> {
+            if (!updating[0]) {
+                updating[0] = true;
+                Double value = field.getValue();
+                Unit<Angle> unit = field.getUnit();
+                dial.setValue(value == null || unit == null ? null : QuantitiesUtil.getDoubleConverter(unit, Units.DEGREE).convert(value));
+                updating[0] = false;
+            }
+        };
+        field.valueProperty().addListener(fieldListener);
+        field.unitProperty().addListener(fieldListener);
+        fieldListener.invalidated(null);
+
+        dial.valueProperty().addListener(obs -> {
+            Double value = dial.getValue();
+            Unit<Angle> unit = field.getUnit();
+            if (!updating[0] && unit != null) {
+                updating[0] = true;
+                field.setValue(value == null ? null : QuantitiesUtil.getDoubleConverter(Units.DEGREE, unit).convert(value));
+                updating[0] = false;
+            }
+        });
     }
 
-    private Node wrap(String title, Node node) {
+    private Node wrap(String title, Node... nodes) {
         Label titleLabel = new Label(title);
         titleLabel.setStyle("-fx-font-size: 16px;");
-        VBox box = new VBox(titleLabel, node);
+        VBox box = new VBox(titleLabel);
+        box.getChildren().addAll(nodes);
         box.setStyle("-fx-background-color: black, white; -fx-background-insets: 0, 1; -fx-padding: 10px; -fx-spacing: 20;");
         return box;
     }
@@ -0,0 +1,80 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.skins.AngleDialFieldSkin;
+import com.dlsc.unitfx.util.Constants;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.control.Control;
+import javafx.scene.control.Skin;
+
+/**
+ * Compass like dial that allows to enter an angle in degrees by dragging the needle around.  The angle follows the
+ * compass convention, which means {@code 0} points to the north and the value grows clockwise.
+ *
+ * <p>
+ *     The dial is meant to be paired with a {@link QuantityInputField} of {@link javax.measure.quantity.Angle angles}.
+ *     Its value can be bound directly only when the unit of the field is fixed to
+ *     {@link com.dlsc.unitfx.util.Units#DEGREE}, otherwise the values must be converted from and to the current unit
+ *     of the field, see the demo application:
+ * </p>
+ * <pre>
+ *     angleField.getAvailableUnits().setAll(List.of(Units.DEGREE));
+ *     dial.valueProperty().bindBidirectional(angleField.valueProperty());
+ * </pre>
+ */
+public class AngleDialField extends Control {
+
+    private static final String USER_AGENT_STYLESHEET = AngleDialField.class.getResource("angle-dial-field.css").toExternalForm();
+
+    /**
+     * Instances a new dial with {@code null} value, which means no needle is shown.
+     */
+    public AngleDialField() {
+        getStyleClass().add("angle-dial-field");
+    }
+
+    @Override
+    protected Skin<?> createDefaultSkin() {
+        return new AngleDialFieldSkin(this);
+    }
+
+    @Override
+    public String getUserAgentStylesheet() {
+        return USER_AGENT_STYLESHEET;
+    }
+
+
+    /**
+     * The angle in degrees pointed by the needle.  Values set by the user are always in the range {@code [0, 360)}.
+     * @return A double object being the value.
+     */
+    public final ObjectProperty<Double> valueProperty() { return value; }
+    private final ObjectProperty<Double> value = new SimpleObjectProperty<>(this, "value");
+    public final Double getValue() { return valueProperty().get(); }
+    public final void setValue(Double value) { valueProperty().set(value); }
+
+
+    /**
+     * Boolean property that tells the dial to snap the angles entered by the user to the cardinal steps, every
+     * {@link Constants#CARDINAL_STEP} degrees.
+     * @return The boolean property.
+     */
+    public final BooleanProperty snapToCardinalProperty() { return snapToCardinal; }
+    private final BooleanProperty snapToCardinal = new SimpleBooleanProperty(this, "snapToCardinal");
+    public final boolean isSnapToCardinal() { return snapToCardinalProperty().get(); }
+    public final void setSnapToCardinal(boolean snapToCardinal) { snapToCardinalProperty().set(snapToCardinal); }
+
+
+    /**
+     * Boolean property used to restrict the edition in the control. If this is set to {@code true} the needle cannot
+     * be dragged.
+     * @return The boolean property.
+     */
+    public final BooleanProperty readOnlyProperty() { return readOnly; }
+    private final BooleanProperty readOnly = new SimpleBooleanProperty(this, "readOnly");
+    public final boolean isReadOnly() { return readOnlyProperty().get(); }
+    public final void setReadOnly(boolean readOnly) { readOnlyProperty().set(readOnly); }
+
+}
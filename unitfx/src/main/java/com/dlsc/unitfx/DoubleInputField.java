@@ -1,27 +1,29 @@
 package com.dlsc.unitfx;
 
-import javafx.util.converter.DoubleStringConverter;
+import com.dlsc.unitfx.util.DecimalFormatter;
 
 /**
  * Concrete implementation of {@link NumberInputField} for collecting {@link Double} type numbers.
  */
 public class DoubleInputField extends NumberInputField<Double> {
 
-    private final DoubleStringConverter converter = new DoubleStringConverter();
+    private final DecimalFormatter formatter = new DecimalFormatter();
+
+    /**
+     * Instances a new field with {@code null} value.
+     */
+    public DoubleInputField() {
+        super(false);
+    }
 
     @Override
     protected Double convertTextToNumber(String text) {
-        try {
-            return converter.fromString(text);
-        }
-        catch(Exception e) {
-            return null;
-        }
+        return formatter.parse(text);
     }
 
     @Override
     protected String convertNumberToText(Double number) {
-        return converter.toString(number);
+        return number == null ? "" : formatter.format(number, getNumberOfDecimals());
     }
 
 }
@@ -9,6 +9,13 @@ public class IntegerInputField extends NumberInputField<Integer> {
 
     private final IntegerStringConverter converter = new IntegerStringConverter();
 
+    /**
+     * Instances a new field with {@code null} value.
+     */
+    public IntegerInputField() {
+        super(true);
+    }
+
     @Override
     protected Integer convertTextToNumber(String text) {
         try {
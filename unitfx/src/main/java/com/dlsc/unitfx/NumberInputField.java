@@ -1,7 +1,5 @@
 package com.dlsc.unitfx;
 
-import com.dlsc.unitfx.util.ControlsUtil;
-import javafx.beans.InvalidationListener;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
@@ -17,6 +15,8 @@ import javafx.util.converter.NumberStringConverter;
 import java.lang.reflect.ParameterizedType;
 import java.text.NumberFormat;
 import java.text.ParsePosition;
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
@@ -28,22 +28,46 @@ import java.util.function.UnaryOperator;
  */
 public abstract class NumberInputField<T extends Number> extends CustomTextField {
 
+    /*
+     * Most of the properties are rarely used, so they are created lazily the first time they are requested.  The
+     * getters return the default value while the property does not exist.
+     */
+    private static final int DEFAULT_NUMBER_OF_INTEGERS = 40;
+    private static final int DEFAULT_NUMBER_OF_DECIMALS = 3;
+
     /**
      * Instances a new number input with with {@code null} {@link #valueProperty() value}, no
-     * {@link #validatorProperty() validator} and allowing negatives.
+     * {@link #validatorProperty() validator} and allowing negatives.  The type of number is resolved from the generic
+     * superclass, subclasses should prefer {@link #NumberInputField(boolean)} which does not require reflection.
      */
     public NumberInputField() {
-        NumberStringFilteredConverter converter = new NumberStringFilteredConverter();
+        initialize(isIntegerTypedField());
+    }
+
+    /**
+     * Instances a new number input with with {@code null} {@link #valueProperty() value}, no
+     * {@link #validatorProperty() validator} and allowing negatives.
+     *
+     * @param integerTyped {@code true} if the field collects integer numbers, {@code false} for decimal numbers.
+     */
+    protected NumberInputField(boolean integerTyped) {
+        initialize(integerTyped);
+    }
+
+    private void initialize(boolean integerTyped) {
+        converter = new NumberStringFilteredConverter(integerTyped);
         setTextFormatter(new TextFormatter<>(converter, null, converter.getFilter()));
 
         listenForValueChanges();
-        listenForTextOrValidationChanges();
-        listenForAllowNegativeChanges();
+        listenForTextChanges();
 
         getStyleClass().add("number-input-field");
-        ControlsUtil.bindBooleanToPseudoclass(this, invalidProperty(), PseudoClass.getPseudoClass("invalid"));
     }
 
+    private static final PseudoClass INVALID_PSEUDO_CLASS = PseudoClass.getPseudoClass("invalid");
+
+    private NumberStringFilteredConverter converter;
+
     /**
      * Converts the text to the input field number type object.
      * @param text The text to be converted.
@@ -60,7 +84,9 @@ public abstract class NumberInputField<T extends Number> extends CustomTextField
     protected abstract String convertNumberToText(T number);
 
     /**
-     * The number value representation of the text written.
+     * The number value representation of the text written.  A value set programmatically is kept as it is: it is
+     * shown with at most {@link #numberOfDecimalsProperty() numberOfDecimals} decimals, but it is not rounded to them.
+     * Only values parsed from typed text are limited to the decimals shown.
      * @return The number value.
      */
     public final ObjectProperty<T> valueProperty() { return value; }
@@ -73,9 +99,22 @@ public abstract class NumberInputField<T extends Number> extends CustomTextField
      * Boolean property that tells the control to allow introducing a negative number.
      * @return The boolean property.
      */
-    public final BooleanProperty allowNegativesProperty() { return allowNegatives; }
-    private final BooleanProperty allowNegatives = new SimpleBooleanProperty(this, "allowNegatives", true);
-    public final boolean isAllowNegatives() { return allowNegativesProperty().get(); }
+    public final BooleanProperty allowNegativesProperty() {
+        if (allowNegatives == null) {
+            allowNegatives = new SimpleBooleanProperty(this, "allowNegatives", true) {
+                @Override
+                protected void invalidated() {
+                    T value = NumberInputField.this.getValue();
+                    if (!get() && value != null && value.doubleValue() < 0) {
+                        setValue(null);
+                    }
+                }
+            };
+        }
+        return allowNegatives;
+    }
+    private BooleanProperty allowNegatives;
+    public final boolean isAllowNegatives() { return allowNegatives == null || allowNegatives.get(); }
     public final void setAllowNegatives(boolean allowNegatives) { allowNegativesProperty().set(allowNegatives); }
 
 
@@ -84,40 +123,140 @@ public abstract class NumberInputField<T extends Number> extends CustomTextField
      * class is added to the field, called ":invalid".  This can be used for styling the field to indicate invalid inputs.
      * @return The property storing the validator predicate.
      */
-    public final ObjectProperty<Predicate<T>> validatorProperty() { return validator; }
-    private final ObjectProperty<Predicate<T>> validator = new SimpleObjectProperty<>(this, "validator");
-    public final Predicate<T> getValidator() { return validatorProperty().get(); }
+    public final ObjectProperty<Predicate<T>> validatorProperty() {
+        if (validator == null) {
+            validator = new SimpleObjectProperty<Predicate<T>>(this, "validator") {
+                @Override
+                protected void invalidated() {
+                    compileRule();
+                }
+            };
+        }
+        return validator;
+    }
+    private ObjectProperty<Predicate<T>> validator;
+    public final Predicate<T> getValidator() { return validator == null ? null : validator.get(); }
     public final void setValidator(Predicate<T> validator) { validatorProperty().set(validator); }
 
 
+    /**
+     * Stores a validator for the value as primitive double, which avoids boxing the number on each keystroke.  It is
+     * applied together with the {@link #validatorProperty() validator}, {@code null} values are not tested.
+     * @return The property storing the validator predicate.
+     */
+    public final ObjectProperty<DoublePredicate> doubleValidatorProperty() {
+        if (doubleValidator == null) {
+            doubleValidator = new SimpleObjectProperty<DoublePredicate>(this, "doubleValidator") {
+                @Override
+                protected void invalidated() {
+                    compileRule();
+                }
+            };
+        }
+        return doubleValidator;
+    }
+    private ObjectProperty<DoublePredicate> doubleValidator;
+    public final DoublePredicate getDoubleValidator() { return doubleValidator == null ? null : doubleValidator.get(); }
+    public final void setDoubleValidator(DoublePredicate doubleValidator) { doubleValidatorProperty().set(doubleValidator); }
+
+
+    /**
+     * Stores a validator for the value as primitive long, intended for integer fields.  It is applied together with
+     * the {@link #validatorProperty() validator}, {@code null} values are not tested.
+     * @return The property storing the validator predicate.
+     */
+    public final ObjectProperty<LongPredicate> longValidatorProperty() {
+        if (longValidator == null) {
+            longValidator = new SimpleObjectProperty<LongPredicate>(this, "longValidator") {
+                @Override
+                protected void invalidated() {
+                    compileRule();
+                }
+            };
+        }
+        return longValidator;
+    }
+    private ObjectProperty<LongPredicate> longValidator;
+    public final LongPredicate getLongValidator() { return longValidator == null ? null : longValidator.get(); }
+    public final void setLongValidator(LongPredicate longValidator) { longValidatorProperty().set(longValidator); }
+
+
     /**
      * Property that indicates whether the {@link #valueProperty() value} is valid after being validated by
      * {@link #validatorProperty() validator}.
      * @return The read only boolean property.
      */
-    public final ReadOnlyBooleanProperty invalidProperty() { return invalid.getReadOnlyProperty(); }
-    private final ReadOnlyBooleanWrapper invalid = new ReadOnlyBooleanWrapper(this, "invalid");
-    public final boolean isInvalid() { return invalid.get(); }
-    private final void setInvalid(boolean invalid) { this.invalid.set(invalid); }
+    public final ReadOnlyBooleanProperty invalidProperty() { return invalidWrapper().getReadOnlyProperty(); }
+    private ReadOnlyBooleanWrapper invalid;
+    private ReadOnlyBooleanWrapper invalidWrapper() {
+        if (invalid == null) {
+            invalid = new ReadOnlyBooleanWrapper(this, "invalid") {
+                @Override
+                protected void invalidated() {
+                    pseudoClassStateChanged(INVALID_PSEUDO_CLASS, get());
+                    if (owner != null) {
+                        owner.setInvalid(get());
+                    }
+                }
+            };
+        }
+        return invalid;
+    }
+    public final boolean isInvalid() { return invalid != null && invalid.get(); }
+    private void setInvalid(boolean invalid) {
+        if (invalid || this.invalid != null) {
+            invalidWrapper().set(invalid);
+        }
+    }
+
+    // the quantity field showing this field as its editor, it follows the invalid state
+    QuantityInputField<?> owner;
 
 
     /**
      * The maximum digits in the integer part of the number.
      * @return The maximum value.
      */
-    public final IntegerProperty numberOfIntegersProperty() { return numberOfIntegers; }
-    private final IntegerProperty numberOfIntegers = new SimpleIntegerProperty(this, "numberOfIntegers", 40);
-    public final int getNumberOfIntegers() { return numberOfIntegersProperty().get(); }
+    public final IntegerProperty numberOfIntegersProperty() {
+        if (numberOfIntegers == null) {
+            numberOfIntegers = new SimpleIntegerProperty(this, "numberOfIntegers", DEFAULT_NUMBER_OF_INTEGERS) {
+                @Override
+                protected void invalidated() {
+                    converter.setMaximumIntegerDigits(get());
+                }
+            };
+        }
+        return numberOfIntegers;
+    }
+    private IntegerProperty numberOfIntegers;
+    public final int getNumberOfIntegers() { return numberOfIntegers == null ? DEFAULT_NUMBER_OF_INTEGERS : numberOfIntegers.get(); }
     public final void setNumberOfIntegers(int numberOfIntegers) { numberOfIntegersProperty().set(numberOfIntegers); }
 
 
     /**
-     * The maximum digits in the decimal part of the number.
+     * The maximum digits in the decimal part of the number.  It limits the text typed and the text shown, a value set
+     * programmatically keeps all its decimals, see {@link #valueProperty()}.  Changing it formats the text again only
+     * when the text shows the value, text being typed is kept.
      * @return The maximum value.
      */
-    public final IntegerProperty numberOfDecimalsProperty() { return numberOfDecimals; }
-    private final IntegerProperty numberOfDecimals = new SimpleIntegerProperty(this, "numberOfDecimals", 3);
-    public final int getNumberOfDecimals() { return numberOfDecimalsProperty().get(); }
+    public final IntegerProperty numberOfDecimalsProperty() {
+        if (numberOfDecimals == null) {
+            numberOfDecimals = new SimpleIntegerProperty(this, "numberOfDecimals", DEFAULT_NUMBER_OF_DECIMALS) {
+                @Override
+                protected void invalidated() {
+                    converter.setMaximumFractionDigits(get());
+                    // text being typed by the user is kept, only text written from the value is formatted again
+                    T value = NumberInputField.this.getValue();
+                    if (value != null && textFromValue) {
+                        updateText(value);
+                    }
+                }
+            };
+        }
+        return numberOfDecimals;
+    }
+    private IntegerProperty numberOfDecimals;
+    public final int getNumberOfDecimals() { return numberOfDecimals == null ? DEFAULT_NUMBER_OF_DECIMALS : numberOfDecimals.get(); }
     public final void setNumberOfDecimals(int numberOfDecimals) { numberOfDecimalsProperty().set(numberOfDecimals); }
 
 
@@ -126,9 +265,19 @@ public abstract class NumberInputField<T extends Number> extends CustomTextField
      * lower than this minimum, the field becomes invalid and the {@link #valueProperty()} is set to {@code null}.
      * @return The minimum value.
      */
-    public final ObjectProperty<T> minimumValueProperty() { return minimumValue; }
-    private final ObjectProperty<T> minimumValue = new SimpleObjectProperty<>(this, "minimumValue");
-    public final T getMinimumValue() { return minimumValueProperty().get(); }
+    public final ObjectProperty<T> minimumValueProperty() {
+        if (minimumValue == null) {
+            minimumValue = new SimpleObjectProperty<T>(this, "minimumValue") {
+                @Override
+                protected void invalidated() {
+                    compileRule();
+                }
+            };
+        }
+        return minimumValue;
+    }
+    private ObjectProperty<T> minimumValue;
+    public final T getMinimumValue() { return minimumValue == null ? null : minimumValue.get(); }
     public final void setMinimumValue(T minimumValue) { minimumValueProperty().set(minimumValue); }
 
 
@@ -137,9 +286,19 @@ public abstract class NumberInputField<T extends Number> extends CustomTextField
      * greater than this minimum, the field becomes invalid and the {@link #valueProperty()} is set to {@code null}.
      * @return The maximum value.
      */
-    public final ObjectProperty<T> maximumValueProperty() { return maximumValue; }
-    private final ObjectProperty<T> maximumValue = new SimpleObjectProperty<>(this, "maximumValue");
-    public final T getMaximumValue() { return maximumValueProperty().get(); }
+    public final ObjectProperty<T> maximumValueProperty() {
+        if (maximumValue == null) {
+            maximumValue = new SimpleObjectProperty<T>(this, "maximumValue") {
+                @Override
+                protected void invalidated() {
+                    compileRule();
+                }
+            };
+        }
+        return maximumValue;
+    }
+    private ObjectProperty<T> maximumValue;
+    public final T getMaximumValue() { return maximumValue == null ? null : maximumValue.get(); }
     public final void setMaximumValue(T maximumValue) { maximumValueProperty().set(maximumValue); }
 
 
@@ -148,12 +307,17 @@ public abstract class NumberInputField<T extends Number> extends CustomTextField
      */
     class NumberStringFilteredConverter extends NumberStringConverter {
 
-        NumberStringFilteredConverter() {
-            super(isIntegerTypedField() ? NumberFormat.getIntegerInstance() : NumberFormat.getNumberInstance());
-            NumberFormat nFormat = getNumberFormat();
-            nFormat.setGroupingUsed(false);
-            numberOfIntegersProperty().addListener(obs -> nFormat.setMaximumIntegerDigits(getNumberOfIntegers()));
-            numberOfDecimalsProperty().addListener(obs -> nFormat.setMaximumFractionDigits(getNumberOfDecimals()));
+        NumberStringFilteredConverter(boolean integerTyped) {
+            super(integerTyped ? NumberFormat.getIntegerInstance() : NumberFormat.getNumberInstance());
+            getNumberFormat().setGroupingUsed(false);
+        }
+
+        void setMaximumIntegerDigits(int digits) {
+            getNumberFormat().setMaximumIntegerDigits(digits);
+        }
+
+        void setMaximumFractionDigits(int digits) {
+            getNumberFormat().setMaximumFractionDigits(digits);
         }
 
         UnaryOperator<TextFormatter.Change> getFilter() {
@@ -194,58 +358,103 @@ public abstract class NumberInputField<T extends Number> extends CustomTextField
     // listeners
 
     private boolean updatingValue;
+    private boolean updatingText;
+
+    // true while the text shows the value as formatted, not as typed
+    private boolean textFromValue;
+
+    // all the validation properties compiled into one check, rebuilt only when any of them changes
+    private NumberValidationRule<T> rule = NumberValidationRule.acceptAll();
+
+    // true while the owner changes the value and the rules together, see suspendValidation()
+    private boolean validationSuspended;
 
     private void listenForValueChanges() {
         valueProperty().addListener((obs, oldV, newV) -> {
             if (!updatingValue) {
-                setText(convertNumberToText(newV));
+                updateText(newV);
+                if (!validationSuspended) {
+                    validateValue(newV);
+                }
             }
         });
     }
 
-    private void listenForTextOrValidationChanges() {
-        InvalidationListener textListener = obs -> {
-            try {
-                updatingValue = true;
-                T number = convertTextToNumber(getText());
-                setInvalid(isInvalidNumber(number));
-                setValue(!isInvalid() ? number : null);
+    private void listenForTextChanges() {
+        textProperty().addListener(obs -> {
+            // text written from the value is not parsed back, the value is validated directly
+            if (!updatingText) {
+                textFromValue = false;
+                validateText();
             }
-            finally {
-                updatingValue = false;
-            }
-        };
+        });
+    }
 
-        textProperty().addListener(textListener);
-        minimumValueProperty().addListener(textListener);
-        maximumValueProperty().addListener(textListener);
-        validatorProperty().addListener(textListener);
+    private void updateText(T value) {
+        try {
+            updatingText = true;
+            setText(convertNumberToText(value));
+            textFromValue = true;
+        }
+        finally {
+            updatingText = false;
+        }
     }
 
-    private void listenForAllowNegativeChanges() {
-        allowNegativesProperty().addListener((obs, oldV, newV) -> {
-            if (!newV && getValue() != null && getValue().doubleValue() < 0) {
+    private void validateValue(T value) {
+        try {
+            updatingValue = true;
+            setInvalid(!rule.test(value));
+            if (isInvalid()) {
+                // like an invalid typed text, the text is kept and validated again when the rules change
+                textFromValue = false;
                 setValue(null);
             }
-        });
+        }
+        finally {
+            updatingValue = false;
+        }
     }
 
-    private boolean isInvalidNumber(T number) {
-        boolean invalid = false;
-
-        if (getValidator() != null) {
-            invalid = !getValidator().test(number);
+    private void validateText() {
+        try {
+            updatingValue = true;
+            T number = convertTextToNumber(getText());
+            setInvalid(!rule.test(number));
+            setValue(!isInvalid() ? number : null);
         }
-
-        if (getMinimumValue() != null && number != null) {
-            invalid |= getMinimumValue().doubleValue() > number.doubleValue();
+        finally {
+            updatingValue = false;
         }
+    }
 
-        if (getMaximumValue() != null && number != null) {
-            invalid |= getMaximumValue().doubleValue() < number.doubleValue();
+    private void compileRule() {
+        rule = NumberValidationRule.compile(getValidator(), getDoubleValidator(), getLongValidator(), getMinimumValue(), getMaximumValue());
+        if (!validationSuspended) {
+            validate();
         }
+    }
 
-        return invalid;
+    /*
+     * Used by the quantity field when the unit changes: the value is converted and the limits follow the new unit, in
+     * between the value would be checked against the limits of the other unit.
+     */
+    void suspendValidation() {
+        validationSuspended = true;
+    }
+
+    void resumeValidation() {
+        validationSuspended = false;
+        validate();
+    }
+
+    private void validate() {
+        if (textFromValue) {
+            validateValue(getValue());
+        }
+        else {
+            validateText();
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -0,0 +1,98 @@
+package com.dlsc.unitfx;
+
+import java.util.function.DoublePredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * The validation rules of a {@link NumberInputField} compiled into a single check.  The rule is rebuilt only when a
+ * rule property changes, so validating a keystroke does not read any property: the bounds are primitive constants
+ * and the primitive validators are chained into one predicate.
+ *
+ * @param <T> The type of number.
+ */
+final class NumberValidationRule<T extends Number> {
+
+    private static final NumberValidationRule<?> ACCEPT_ALL = new NumberValidationRule<>(null, null, null);
+
+    private final Predicate<T> validator;
+    private final DoublePredicate doubleRule;
+    private final LongPredicate longRule;
+
+    private NumberValidationRule(Predicate<T> validator, DoublePredicate doubleRule, LongPredicate longRule) {
+        this.validator = validator;
+        this.doubleRule = doubleRule;
+        this.longRule = longRule;
+    }
+
+    /**
+     * @param <T> The type of number.
+     * @return The rule that accepts every number.
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Number> NumberValidationRule<T> acceptAll() {
+        return (NumberValidationRule<T>) ACCEPT_ALL;
+    }
+
+    /**
+     * Compiles the given rules, any of them can be {@code null}.
+     *
+     * @param validator The validator of the boxed number, it is also called for {@code null} numbers.
+     * @param doubleValidator The validator of the number as double.
+     * @param longValidator The validator of the number as long.
+     * @param minimum The minimum number allowed.
+     * @param maximum The maximum number allowed.
+     * @param <T> The type of number.
+     * @return The compiled rule.
+     */
+    static <T extends Number> NumberValidationRule<T> compile(Predicate<T> validator, DoublePredicate doubleValidator,
+                                                              LongPredicate longValidator, T minimum, T maximum) {
+        DoublePredicate doubleRule = and(compileRange(minimum, maximum), doubleValidator);
+        if (validator == null && doubleRule == null && longValidator == null) {
+            return acceptAll();
+        }
+        return new NumberValidationRule<>(validator, doubleRule, longValidator);
+    }
+
+    private static DoublePredicate compileRange(Number minimum, Number maximum) {
+        if (minimum != null && maximum != null) {
+            double min = minimum.doubleValue();
+            double max = maximum.doubleValue();
+            return value -> !(value < min || value > max);
+        }
+        if (minimum != null) {
+            double min = minimum.doubleValue();
+            return value -> !(value < min);
+        }
+        if (maximum != null) {
+            double max = maximum.doubleValue();
+            return value -> !(value > max);
+        }
+        return null;
+    }
+
+    private static DoublePredicate and(DoublePredicate first, DoublePredicate second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null ? first : first.and(second);
+    }
+
+    /**
+     * Tests the given number.  {@code null} numbers are only checked by the boxed validator.
+     *
+     * @param number The number to be tested.
+     * @return {@code true} if the number is valid.
+     */
+    boolean test(T number) {
+        if (validator != null && !validator.test(number)) {
+            return false;
+        }
+        if (number == null) {
+            return true;
+        }
+        return (doubleRule == null || doubleRule.test(number.doubleValue()))
+                && (longRule == null || longRule.test(number.longValue()));
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.util.QuantityFieldSpec;
+
+import javax.measure.Quantity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Builds the {@link QuantityInputField quantity fields} of large forms on background threads, so screens with
+ * thousands of fields open without freezing the UI.  JavaFX allows creating and modifying nodes on any thread as long
+ * as they are not part of a live scene, so every field is created and {@link QuantityInputField#configure(QuantityFieldSpec)
+ * configured} from its spec in parallel, optionally with its skin, and the finished fields are attached to the scene
+ * in one step on the FX thread:
+ *
+ * <pre>
+ *     new QuantityFormBuilder().build(specs)
+ *             .thenAcceptAsync(fields -&gt; form.getChildren().setAll(fields), Platform::runLater);
+ * </pre>
+ *
+ * <p>
+ *     The specs are split in batches run on the given {@link Executor} ({@link ForkJoinPool#commonPool()} by
+ *     default).  The fields must not be touched until the returned future completes, and the validators of the specs
+ *     must be thread safe.  Skins created in advance save their creation on the FX thread when the fields are first
+ *     shown, styles and layout are still applied there.  Instances are immutable and thread safe.
+ * </p>
+ */
+public final class QuantityFormBuilder {
+
+    private static final int BATCH_SIZE = 32;
+
+    private final Executor executor;
+    private final boolean createSkins;
+
+    /**
+     * Instances a new builder that creates the fields without skins on the common fork join pool.
+     */
+    public QuantityFormBuilder() {
+        this(ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * Instances a new builder.
+     *
+     * @param executor The executor the fields are created on, usually a pool of background threads.
+     * @param createSkins {@code true} to create the skins of the fields as well.
+     */
+    public QuantityFormBuilder(Executor executor, boolean createSkins) {
+        this.executor = Objects.requireNonNull(executor);
+        this.createSkins = createSkins;
+    }
+
+    /**
+     * Builds a field for each of the given specs.
+     *
+     * @param specs The specs of the fields.
+     * @return The future completed with the fields in the order of the specs, on a thread of the executor.
+     */
+    public CompletableFuture<List<QuantityInputField<?>>> build(List<? extends QuantityFieldSpec<?>> specs) {
+        List<QuantityFieldSpec<?>> snapshot = List.copyOf(specs);
+
+        List<CompletableFuture<List<QuantityInputField<?>>>> batches = new ArrayList<>();
+        for (int from = 0; from < snapshot.size(); from += BATCH_SIZE) {
+            List<QuantityFieldSpec<?>> batch = snapshot.subList(from, Math.min(from + BATCH_SIZE, snapshot.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> createFields(batch), executor));
+        }
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<QuantityInputField<?>> fields = new ArrayList<>(snapshot.size());
+            for (CompletableFuture<List<QuantityInputField<?>>> batch : batches) {
+                fields.addAll(batch.join());
+            }
+            return fields;
+        });
+    }
+
+    /**
+     * Builds a single field.
+     *
+     * @param spec The spec of the field.
+     * @param <Q> The quantity type.
+     * @return The future completed with the field, on a thread of the executor.
+     */
+    public <Q extends Quantity<Q>> CompletableFuture<QuantityInputField<Q>> build(QuantityFieldSpec<Q> spec) {
+        Objects.requireNonNull(spec);
+        return CompletableFuture.supplyAsync(() -> createField(spec), executor);
+    }
+
+    private List<QuantityInputField<?>> createFields(List<QuantityFieldSpec<?>> specs) {
+        List<QuantityInputField<?>> fields = new ArrayList<>(specs.size());
+        for (QuantityFieldSpec<?> spec : specs) {
+            fields.add(createField(spec));
+        }
+        return fields;
+    }
+
+    private <Q extends Quantity<Q>> QuantityInputField<Q> createField(QuantityFieldSpec<Q> spec) {
+        QuantityInputField<Q> field = new QuantityInputField<>();
+        field.configure(spec);
+        if (createSkins) {
+            field.setSkin(field.createDefaultSkin());
+        }
+        return field;
+    }
+
+}
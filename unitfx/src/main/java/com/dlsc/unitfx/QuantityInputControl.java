@@ -2,6 +2,7 @@ package com.dlsc.unitfx;
 
 import com.dlsc.unitfx.util.QuantitiesUtil;
 import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
@@ -17,6 +18,7 @@ import javafx.util.StringConverter;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
+import java.util.Objects;
 
 /**
  * Base class for any quantity input control that allows to enter Unit of Measurement quantity based on a JSR-363
@@ -30,12 +32,18 @@ import javax.measure.Unit;
  */
 public abstract class QuantityInputControl<Q extends Quantity<Q>> extends Control {
 
+    /*
+     * Most of the properties are rarely used, so they are created lazily the first time they are requested.  The
+     * getters return the default value while the property does not exist.
+     */
+    static final int DEFAULT_NUMBER_OF_INTEGERS = 40;
+    static final int DEFAULT_NUMBER_OF_DECIMALS = 3;
+
     /**
      * Instances a new input field with no available units, null value and no precision.
      */
     public QuantityInputControl() {
         bindQuantityValueProperty();
-        listenForDefaultUnit();
     }
 
     /**
@@ -72,7 +80,12 @@ public abstract class QuantityInputControl<Q extends Quantity<Q>> extends Contro
     public final ReadOnlyObjectProperty<Quantity<Q>> valueQuantityProperty() { return valueQuantity.getReadOnlyProperty(); }
     private final ReadOnlyObjectWrapper<Quantity<Q>> valueQuantity = new ReadOnlyObjectWrapper<>(this, "quantityValue");
     public final Quantity<Q> getValueQuantity() { return valueQuantityProperty().get(); }
-    void setValueQuantity(Quantity<Q> valueQuantity) { this.valueQuantity.set(valueQuantity); }
+    void setValueQuantity(Quantity<Q> valueQuantity) {
+        // an equal quantity, e.g. after rounding to the precision, would notify the listeners for nothing
+        if (!Objects.equals(getValueQuantity(), valueQuantity)) {
+            this.valueQuantity.set(valueQuantity);
+        }
+    }
 
 
     /**
@@ -94,10 +107,19 @@ public abstract class QuantityInputControl<Q extends Quantity<Q>> extends Contro
      * @return The base unit.
      */
     public final ObjectProperty<Unit<Q>> baseUnitProperty() {
+        if (baseUnit == null) {
+            baseUnit = new SimpleObjectProperty<Unit<Q>>(this, "baseUnit") {
+                @Override
+                protected void invalidated() {
+                    updateDefaultUnit(get());
+                    notifySkin(this);
+                }
+            };
+        }
         return baseUnit;
     }
-    private final ObjectProperty<Unit<Q>> baseUnit = new SimpleObjectProperty<>(this, "baseUnit");
-    public final Unit<Q> getBaseUnit() { return baseUnitProperty().get(); }
+    private ObjectProperty<Unit<Q>> baseUnit;
+    public final Unit<Q> getBaseUnit() { return baseUnit == null ? null : baseUnit.get(); }
     public final void setBaseUnit(Unit<Q> baseUnit) { baseUnitProperty().set(baseUnit); }
 
 
@@ -107,10 +129,18 @@ public abstract class QuantityInputControl<Q extends Quantity<Q>> extends Contro
      * @return The boolean property.
      */
     public final BooleanProperty readOnlyProperty() {
+        if (readOnly == null) {
+            readOnly = new SimpleBooleanProperty(this, "readOnly") {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
         return readOnly;
     }
-    private final BooleanProperty readOnly = new SimpleBooleanProperty(this, "readOnly");
-    public final boolean isReadOnly() { return readOnlyProperty().get(); }
+    private BooleanProperty readOnly;
+    public final boolean isReadOnly() { return readOnly != null && readOnly.get(); }
     public final void setReadOnly(boolean readOnly) { readOnlyProperty().set(readOnly); }
 
 
@@ -118,9 +148,19 @@ public abstract class QuantityInputControl<Q extends Quantity<Q>> extends Contro
      * String converter that allows customization of unit label on the skin.
      * @return The property storing string converter.
      */
-    public final ObjectProperty<StringConverter<Unit<Q>>> unitStringConverterProperty() { return unitStringConverter; }
-    private final ObjectProperty<StringConverter<Unit<Q>>> unitStringConverter = new SimpleObjectProperty<>(this, "unitStringConverter");
-    public final StringConverter<Unit<Q>> getUnitStringConverter() { return unitStringConverterProperty().get(); }
+    public final ObjectProperty<StringConverter<Unit<Q>>> unitStringConverterProperty() {
+        if (unitStringConverter == null) {
+            unitStringConverter = new SimpleObjectProperty<StringConverter<Unit<Q>>>(this, "unitStringConverter") {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
+        return unitStringConverter;
+    }
+    private ObjectProperty<StringConverter<Unit<Q>>> unitStringConverter;
+    public final StringConverter<Unit<Q>> getUnitStringConverter() { return unitStringConverter == null ? null : unitStringConverter.get(); }
     public final void setUnitStringConverter(StringConverter<Unit<Q>> unitStringConverter) { unitStringConverterProperty().set(unitStringConverter); }
 
 
@@ -129,9 +169,19 @@ public abstract class QuantityInputControl<Q extends Quantity<Q>> extends Contro
      * The maximum digits in the integer part of the number.
      * @return The maximum value.
      */
-    public final IntegerProperty numberOfIntegersProperty() { return numberOfIntegers; }
-    private final IntegerProperty numberOfIntegers = new SimpleIntegerProperty(this, "numberOfIntegers", 40);
-    public final int getNumberOfIntegers() { return numberOfIntegersProperty().get(); }
+    public final IntegerProperty numberOfIntegersProperty() {
+        if (numberOfIntegers == null) {
+            numberOfIntegers = new SimpleIntegerProperty(this, "numberOfIntegers", DEFAULT_NUMBER_OF_INTEGERS) {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
+        return numberOfIntegers;
+    }
+    private IntegerProperty numberOfIntegers;
+    public final int getNumberOfIntegers() { return numberOfIntegers == null ? DEFAULT_NUMBER_OF_INTEGERS : numberOfIntegers.get(); }
     public final void setNumberOfIntegers(int numberOfIntegers) { numberOfIntegersProperty().set(numberOfIntegers); }
 
 
@@ -139,26 +189,143 @@ public abstract class QuantityInputControl<Q extends Quantity<Q>> extends Contro
      * The maximum digits in the decimal part of the number.
      * @return The maximum value.
      */
-    public final IntegerProperty numberOfDecimalsProperty() { return numberOfDecimals; }
-    private final IntegerProperty numberOfDecimals = new SimpleIntegerProperty(this, "numberOfDecimals", 3);
-    public final int getNumberOfDecimals() { return numberOfDecimalsProperty().get(); }
+    public final IntegerProperty numberOfDecimalsProperty() {
+        if (numberOfDecimals == null) {
+            numberOfDecimals = new SimpleIntegerProperty(this, "numberOfDecimals", DEFAULT_NUMBER_OF_DECIMALS) {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
+        return numberOfDecimals;
+    }
+    private IntegerProperty numberOfDecimals;
+    public final int getNumberOfDecimals() { return numberOfDecimals == null ? DEFAULT_NUMBER_OF_DECIMALS : numberOfDecimals.get(); }
     public final void setNumberOfDecimals(int numberOfDecimals) { numberOfDecimalsProperty().set(numberOfDecimals); }
 
 
+    /**
+     * Tells the control whether the {@link #valueProperty() value} has to be converted when the
+     * {@link #unitProperty() unit} changes.  By default the value is kept as it is.
+     *
+     * @return {@code true} to convert the value to the new unit.
+     */
+    boolean isConvertValueOnUnitChange() {
+        return false;
+    }
+
+
+    /**
+     * Restores the default state of the control, so it can be reused, see {@link QuantityInputFieldPool}.  Properties
+     * that were never created are left untouched, none of the properties may be bound.
+     */
+    void reset() {
+        UnitPreferences.unfollowAll(this);
+        setValue(null);
+        setUnit(null);
+        getAvailableUnits().clear();
+        if (baseUnit != null) {
+            baseUnit.set(null);
+        }
+        if (readOnly != null) {
+            readOnly.set(false);
+        }
+        if (unitStringConverter != null) {
+            unitStringConverter.set(null);
+        }
+        if (numberOfIntegers != null) {
+            numberOfIntegers.set(DEFAULT_NUMBER_OF_INTEGERS);
+        }
+        if (numberOfDecimals != null) {
+            numberOfDecimals.set(DEFAULT_NUMBER_OF_DECIMALS);
+        }
+    }
+
+
     // listeners
 
+    /*
+     * The value as last entered (by the user or programmatically) together with the unit it was entered in.  Unit
+     * conversions always derive the displayed value from this pair, so switching units back and forth never
+     * accumulates rounding errors.
+     */
+    private double sourceValue;
+    private Unit<Q> sourceUnit;
+    private boolean convertingUnit;
+
+    // told about the changes of the lazy properties, so the skin does not have to create them to listen to them
+    private InvalidationListener skinListener;
+
+    void setSkinListener(InvalidationListener skinListener) {
+        this.skinListener = skinListener;
+    }
+
+    void notifySkin(Observable property) {
+        if (skinListener != null) {
+            skinListener.invalidated(property);
+        }
+    }
+
     private void bindQuantityValueProperty() {
-        InvalidationListener listener = obs -> updateValueQuantity();
-        valueProperty().addListener(listener);
-        unitProperty().addListener(listener);
+        valueProperty().addListener(obs -> {
+            // while converting, the quantity is updated once by the unit listener
+            if (!convertingUnit) {
+                updateSourceValue();
+                updateValueQuantity();
+            }
+        });
+        unitProperty().addListener(obs -> updateUnit());
     }
 
-    private void listenForDefaultUnit() {
-        baseUnitProperty().addListener((obs, oldV, newV) -> updateDefaultUnit(newV));
+    /**
+     * Called once per unit change, converts the value if needed and recalculates the quantity.
+     */
+    void updateUnit() {
+        if (isConvertingValue()) {
+            convertingUnit = true;
+            try {
+                setValue(convertSourceValue(getUnit()));
+            }
+            finally {
+                convertingUnit = false;
+            }
+        }
+        else {
+            updateSourceValue();
+        }
+        updateValueQuantity();
+    }
+
+    /**
+     * @return {@code true} if the value is about to be converted to the new unit, only meaningful during a unit change.
+     */
+    boolean isConvertingValue() {
+        // setting a bound value throws, a bound value is left to its binding and only taken as the new source value
+        return isConvertValueOnUnitChange() && sourceUnit != null && getUnit() != null && !valueProperty().isBound();
+    }
+
+    private void updateSourceValue() {
+        Double value = getValue();
+        Unit<Q> unit = getUnit();
+        if (value != null && unit != null) {
+            sourceValue = value;
+            sourceUnit = unit;
+        }
+        else {
+            sourceUnit = null;
+        }
+    }
+
+    private double convertSourceValue(Unit<Q> unit) {
+        if (sourceUnit.equals(unit)) {
+            return sourceValue;
+        }
+        return QuantitiesUtil.getDoubleConverter(sourceUnit, unit).convert(sourceValue);
     }
 
     void updateValueQuantity() {
-        Quantity<Q> quantity = QuantitiesUtil.createQuantity(getValue(), getUnit());
+        Quantity<Q> quantity = QuantitiesUtil.createDoubleQuantity(getValue(), getUnit());
         setValueQuantity(quantity);
     }
 
@@ -1,8 +1,10 @@
 package com.dlsc.unitfx;
 
+import com.dlsc.unitfx.impl.QuantityInputFieldHelper;
 import com.dlsc.unitfx.skins.QuantityInputFieldSkin;
-import com.dlsc.unitfx.util.ControlsUtil;
 import com.dlsc.unitfx.util.QuantitiesUtil;
+import com.dlsc.unitfx.util.QuantityFieldSpec;
+import com.dlsc.unitfx.util.Units;
 import javafx.beans.InvalidationListener;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
@@ -12,12 +14,15 @@ import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
-import javafx.collections.MapChangeListener;
 import javafx.css.PseudoClass;
 import javafx.scene.control.Skin;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.DoublePredicate;
 import java.util.function.Predicate;
 
 /**
@@ -26,17 +31,32 @@ import java.util.function.Predicate;
  */
 public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputControl<Q> {
 
+    private static final PseudoClass DIRTY_PSEUDO_CLASS = PseudoClass.getPseudoClass("dirty");
+    private static final PseudoClass INVALID_PSEUDO_CLASS = PseudoClass.getPseudoClass("invalid");
+
+    private static final String USER_AGENT_STYLESHEET = QuantityInputField.class.getResource("quantity-input-field.css").toExternalForm();
+
+    static {
+        QuantityInputFieldHelper.setAccessor(new QuantityInputFieldHelper.Accessor() {
+            @Override
+            public void setEditor(QuantityInputField<?> field, DoubleInputField editor) {
+                field.setEditor(editor);
+            }
+
+            @Override
+            public void setSkinListener(QuantityInputField<?> field, InvalidationListener listener) {
+                field.setSkinListener(listener);
+            }
+        });
+    }
+
+    // the editor of the skin, it reports its invalid state directly to the field and validates the unit changes
+    private DoubleInputField editor;
+
     /**
      * Instances a new input field with no available units, null value and no precision.
      */
     public QuantityInputField() {
-        bindQuantityValueProperty();
-        bindPrecisionQuantityProperty();
-        bindValueDirtyProperty();
-        listenForInvalidChanges();
-        listenForAutoFixProperty();
-
-        ControlsUtil.bindBooleanToPseudoclass(this, valueDirtyProperty(), PseudoClass.getPseudoClass("dirty"));
         getStyleClass().add("quantity-input-field");
     }
 
@@ -47,7 +67,7 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
 
     @Override
     public String getUserAgentStylesheet() {
-        return QuantityInputField.class.getResource("quantity-input-field.css").toExternalForm();
+        return USER_AGENT_STYLESHEET;
     }
 
     /**
@@ -63,6 +83,40 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
     }
 
 
+    /**
+     * Applies all the rules of the given spec to this field: available units, unit, base unit, precision, bounds,
+     * negatives, digits and validator.  The available units are the ones registered in {@link Units} for the type of
+     * the spec, preceded by the unit of the spec if it is not registered.
+     *
+     * @param spec The spec to apply.
+     */
+    public final void configure(QuantityFieldSpec<Q> spec) {
+        List<Unit<Q>> units = Units.getInstance().getUnits(spec.getType());
+        if (units.contains(spec.getUnit())) {
+            getAvailableUnits().setAll(units);
+        }
+        else {
+            List<Unit<Q>> availableUnits = new ArrayList<>(units.size() + 1);
+            availableUnits.add(spec.getUnit());
+            availableUnits.addAll(units);
+            getAvailableUnits().setAll(availableUnits);
+        }
+        setBaseUnit(spec.getBaseUnit());
+        setUnit(spec.getUnit());
+
+        Quantity<Q> precision = spec.getPrecision();
+        setPrecisionUnit(precision != null ? precision.getUnit() : null);
+        setPrecision(precision != null ? precision.getValue().doubleValue() : null);
+
+        setMinimumQuantity(spec.getMinimum());
+        setMaximumQuantity(spec.getMaximum());
+        setAllowNegatives(spec.isAllowNegatives());
+        setNumberOfIntegers(spec.getNumberOfIntegers());
+        setNumberOfDecimals(spec.getNumberOfDecimals());
+        setDoubleValueValidator(spec.getValidator());
+    }
+
+
     /**
      * Integer used to truncate the {@link #valueProperty() value} entered by the user and calculate the
      * {@link #valueQuantityProperty() quantity}. Default precision is '1' which means no truncation.
@@ -77,18 +131,26 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
      * @return
      */
     public final ObjectProperty<Double> precisionProperty() {
+        if (precision == null) {
+            precision = new SimpleObjectProperty<Double>(this, "precision") {
+                @Override
+                public void set(Double newValue) {
+                    if (newValue != null && newValue <= 0) {
+                        throw new IllegalArgumentException("Precision must be greater than 0.");
+                    }
+                    super.set(newValue);
+                }
+
+                @Override
+                protected void invalidated() {
+                    updatePrecisionQuantity();
+                }
+            };
+        }
         return precision;
     }
-    private final ObjectProperty<Double> precision = new SimpleObjectProperty<Double>(this, "precision") {
-        @Override
-        public void set(Double newValue) {
-            if (newValue != null && newValue <= 0) {
-                throw new IllegalArgumentException("Precision must be greater than 0.");
-            }
-            super.set(newValue);
-        }
-    };
-    public final Double getPrecision() { return precisionProperty().get(); }
+    private ObjectProperty<Double> precision;
+    public final Double getPrecision() { return precision == null ? null : precision.get(); }
     public final void setPrecision(Double precision) { precisionProperty().set(precision); }
 
 
@@ -100,10 +162,18 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
      * @return The base unit.
      */
     public final ObjectProperty<Unit<Q>> precisionUnitProperty() {
+        if (precisionUnit == null) {
+            precisionUnit = new SimpleObjectProperty<Unit<Q>>(this, "precisionUnit") {
+                @Override
+                protected void invalidated() {
+                    updatePrecisionQuantity();
+                }
+            };
+        }
         return precisionUnit;
     }
-    private final ObjectProperty<Unit<Q>> precisionUnit = new SimpleObjectProperty<>(this, "precisionUnit");
-    public final Unit<Q> getPrecisionUnit() { return precisionUnitProperty().get(); }
+    private ObjectProperty<Unit<Q>> precisionUnit;
+    public final Unit<Q> getPrecisionUnit() { return precisionUnit == null ? null : precisionUnit.get(); }
     public final void setPrecisionUnit(Unit<Q> precisionUnit) { precisionUnitProperty().set(precisionUnit); }
 
 
@@ -113,10 +183,20 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
      * unit change.
      * @return The read only property storing the precision quantity.
      */
-    public final ReadOnlyObjectProperty<Quantity<Q>> precisionQuantityProperty() { return precisionQuantity.getReadOnlyProperty(); }
-    private final ReadOnlyObjectWrapper<Quantity<Q>> precisionQuantity = new ReadOnlyObjectWrapper<>(this, "precisionQuantity");
-    public final Quantity<Q> getPrecisionQuantity() { return precisionQuantityProperty().get(); }
-    private void setPrecisionQuantity(Quantity<Q> precisionQuantity) { this.precisionQuantity.set(precisionQuantity); }
+    public final ReadOnlyObjectProperty<Quantity<Q>> precisionQuantityProperty() { return precisionQuantityWrapper().getReadOnlyProperty(); }
+    private ReadOnlyObjectWrapper<Quantity<Q>> precisionQuantity;
+    private ReadOnlyObjectWrapper<Quantity<Q>> precisionQuantityWrapper() {
+        if (precisionQuantity == null) {
+            precisionQuantity = new ReadOnlyObjectWrapper<>(this, "precisionQuantity");
+        }
+        return precisionQuantity;
+    }
+    public final Quantity<Q> getPrecisionQuantity() { return precisionQuantity == null ? null : precisionQuantity.get(); }
+    private void setPrecisionQuantity(Quantity<Q> precisionQuantity) {
+        if (precisionQuantity != null || this.precisionQuantity != null) {
+            precisionQuantityWrapper().set(precisionQuantity);
+        }
+    }
 
 
     /**
@@ -126,20 +206,46 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
      * @return The boolean property.
      */
     public final ReadOnlyBooleanProperty valueDirtyProperty() {
-        return valueDirty.getReadOnlyProperty();
+        return valueDirtyWrapper().getReadOnlyProperty();
+    }
+    private ReadOnlyBooleanWrapper valueDirty;
+    private ReadOnlyBooleanWrapper valueDirtyWrapper() {
+        if (valueDirty == null) {
+            valueDirty = new ReadOnlyBooleanWrapper(this, "valueDirty") {
+                @Override
+                protected void invalidated() {
+                    pseudoClassStateChanged(DIRTY_PSEUDO_CLASS, get());
+                    notifySkin(this);
+                }
+            };
+        }
+        return valueDirty;
+    }
+    public final boolean isValueDirty() { return valueDirty != null && valueDirty.get(); }
+    private void setValueDirty(boolean valueDirty) {
+        if (valueDirty || this.valueDirty != null) {
+            valueDirtyWrapper().set(valueDirty);
+        }
     }
-    private final ReadOnlyBooleanWrapper valueDirty = new ReadOnlyBooleanWrapper(this, "valueDirty");
-    public final boolean isValueDirty() { return valueDirtyProperty().get(); }
-    private void setValueDirty(boolean valueDirty) { this.valueDirty.set(valueDirty); }
 
 
     /**
      * Boolean property that tells the control to allow introducing a negative quantity.
      * @return The boolean property.
      */
-    public final BooleanProperty allowNegativesProperty() { return allowNegatives; }
-    private final BooleanProperty allowNegatives = new SimpleBooleanProperty(this, "allowNegatives");
-    public final boolean isAllowNegatives() { return allowNegativesProperty().get(); }
+    public final BooleanProperty allowNegativesProperty() {
+        if (allowNegatives == null) {
+            allowNegatives = new SimpleBooleanProperty(this, "allowNegatives") {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
+        return allowNegatives;
+    }
+    private BooleanProperty allowNegatives;
+    public final boolean isAllowNegatives() { return allowNegatives != null && allowNegatives.get(); }
     public final void setAllowNegatives(boolean allowNegatives) { allowNegativesProperty().set(allowNegatives); }
 
 
@@ -148,9 +254,19 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
      * lower than this minimum the field becomes invalid and the {@link #valueProperty()} is set to {@code null}.
      * @return The minimum value.
      */
-    public final ObjectProperty<Double> minimumValueProperty() { return minimumValue; }
-    private final ObjectProperty<Double> minimumValue = new SimpleObjectProperty<>(this, "minimumValue");
-    public final Double getMinimumValue() { return minimumValueProperty().get(); }
+    public final ObjectProperty<Double> minimumValueProperty() {
+        if (minimumValue == null) {
+            minimumValue = new SimpleObjectProperty<Double>(this, "minimumValue") {
+                @Override
+                protected void invalidated() {
+                    updateLimits();
+                }
+            };
+        }
+        return minimumValue;
+    }
+    private ObjectProperty<Double> minimumValue;
+    public final Double getMinimumValue() { return minimumValue == null ? null : minimumValue.get(); }
     public final void setMinimumValue(Double minimumValue) { minimumValueProperty().set(minimumValue); }
 
 
@@ -159,20 +275,145 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
      * greater than this minimum the field becomes invalid and the {@link #valueProperty()} is set to {@code null}.
      * @return The maximum value.
      */
-    public final ObjectProperty<Double> maximumValueProperty() { return maximumValue; }
-    private final ObjectProperty<Double> maximumValue = new SimpleObjectProperty<>(this, "maximumValue");
-    public final Double getMaximumValue() { return maximumValueProperty().get(); }
+    public final ObjectProperty<Double> maximumValueProperty() {
+        if (maximumValue == null) {
+            maximumValue = new SimpleObjectProperty<Double>(this, "maximumValue") {
+                @Override
+                protected void invalidated() {
+                    updateLimits();
+                }
+            };
+        }
+        return maximumValue;
+    }
+    private ObjectProperty<Double> maximumValue;
+    public final Double getMaximumValue() { return maximumValue == null ? null : maximumValue.get(); }
     public final void setMaximumValue(Double maximumValue) { maximumValueProperty().set(maximumValue); }
 
 
     /**
-     * Property that indicates when the value entered violates restrictions of minimum and maximum values.
+     * The minimum quantity that can be entered in this field.  Unlike the {@link #minimumValueProperty() minimum value},
+     * the quantity keeps its meaning when the {@link #unitProperty() unit} changes, it is converted to the current unit
+     * once per change, see {@link #minimumLimitProperty()}.
+     * @return The minimum quantity.
+     */
+    public final ObjectProperty<Quantity<Q>> minimumQuantityProperty() {
+        if (minimumQuantity == null) {
+            minimumQuantity = new SimpleObjectProperty<Quantity<Q>>(this, "minimumQuantity") {
+                @Override
+                protected void invalidated() {
+                    updateLimits();
+                }
+            };
+        }
+        return minimumQuantity;
+    }
+    private ObjectProperty<Quantity<Q>> minimumQuantity;
+    public final Quantity<Q> getMinimumQuantity() { return minimumQuantity == null ? null : minimumQuantity.get(); }
+    public final void setMinimumQuantity(Quantity<Q> minimumQuantity) { minimumQuantityProperty().set(minimumQuantity); }
+
+
+    /**
+     * The maximum quantity that can be entered in this field.  Unlike the {@link #maximumValueProperty() maximum value},
+     * the quantity keeps its meaning when the {@link #unitProperty() unit} changes, it is converted to the current unit
+     * once per change, see {@link #maximumLimitProperty()}.
+     * @return The maximum quantity.
+     */
+    public final ObjectProperty<Quantity<Q>> maximumQuantityProperty() {
+        if (maximumQuantity == null) {
+            maximumQuantity = new SimpleObjectProperty<Quantity<Q>>(this, "maximumQuantity") {
+                @Override
+                protected void invalidated() {
+                    updateLimits();
+                }
+            };
+        }
+        return maximumQuantity;
+    }
+    private ObjectProperty<Quantity<Q>> maximumQuantity;
+    public final Quantity<Q> getMaximumQuantity() { return maximumQuantity == null ? null : maximumQuantity.get(); }
+    public final void setMaximumQuantity(Quantity<Q> maximumQuantity) { maximumQuantityProperty().set(maximumQuantity); }
+
+
+    /**
+     * The effective minimum value in the current {@link #unitProperty() unit}, the most restrictive of the
+     * {@link #minimumValueProperty() minimum value} and the {@link #minimumQuantityProperty() minimum quantity}.  This
+     * value is calculated automatically by the control every time any of them or the unit change.
+     * @return The read only property storing the minimum limit.
+     */
+    public final ReadOnlyObjectProperty<Double> minimumLimitProperty() { return minimumLimitWrapper().getReadOnlyProperty(); }
+    private ReadOnlyObjectWrapper<Double> minimumLimit;
+    private ReadOnlyObjectWrapper<Double> minimumLimitWrapper() {
+        if (minimumLimit == null) {
+            minimumLimit = new ReadOnlyObjectWrapper<Double>(this, "minimumLimit") {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
+        return minimumLimit;
+    }
+    public final Double getMinimumLimit() { return minimumLimit == null ? null : minimumLimit.get(); }
+    private void setMinimumLimit(Double minimumLimit) {
+        // the limit is recalculated with every unit change, an equal limit must not validate the editor again
+        if (!Objects.equals(getMinimumLimit(), minimumLimit)) {
+            minimumLimitWrapper().set(minimumLimit);
+        }
+    }
+
+
+    /**
+     * The effective maximum value in the current {@link #unitProperty() unit}, the most restrictive of the
+     * {@link #maximumValueProperty() maximum value} and the {@link #maximumQuantityProperty() maximum quantity}.  This
+     * value is calculated automatically by the control every time any of them or the unit change.
+     * @return The read only property storing the maximum limit.
+     */
+    public final ReadOnlyObjectProperty<Double> maximumLimitProperty() { return maximumLimitWrapper().getReadOnlyProperty(); }
+    private ReadOnlyObjectWrapper<Double> maximumLimit;
+    private ReadOnlyObjectWrapper<Double> maximumLimitWrapper() {
+        if (maximumLimit == null) {
+            maximumLimit = new ReadOnlyObjectWrapper<Double>(this, "maximumLimit") {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
+        return maximumLimit;
+    }
+    public final Double getMaximumLimit() { return maximumLimit == null ? null : maximumLimit.get(); }
+    private void setMaximumLimit(Double maximumLimit) {
+        if (!Objects.equals(getMaximumLimit(), maximumLimit)) {
+            maximumLimitWrapper().set(maximumLimit);
+        }
+    }
+
+
+    /**
+     * Property that indicates when the value entered violates restrictions of minimum and maximum values.  While the
+     * value is invalid the pseudo class ":invalid" is applied to the field.
      * @return The property that holds the flag.
      */
-    public final ReadOnlyBooleanProperty invalidProperty() { return invalid.getReadOnlyProperty(); }
-    private final ReadOnlyBooleanWrapper invalid = new ReadOnlyBooleanWrapper(this, "invalid");
-    public final boolean isInvalid() { return invalid.get(); }
-    private void setInvalid(boolean invalid) { this.invalid.set(invalid); }
+    public final ReadOnlyBooleanProperty invalidProperty() { return invalidWrapper().getReadOnlyProperty(); }
+    private ReadOnlyBooleanWrapper invalid;
+    private ReadOnlyBooleanWrapper invalidWrapper() {
+        if (invalid == null) {
+            invalid = new ReadOnlyBooleanWrapper(this, "invalid") {
+                @Override
+                protected void invalidated() {
+                    pseudoClassStateChanged(INVALID_PSEUDO_CLASS, get());
+                }
+            };
+        }
+        return invalid;
+    }
+    public final boolean isInvalid() { return invalid != null && invalid.get(); }
+    void setInvalid(boolean invalid) {
+        if (invalid || this.invalid != null) {
+            invalidWrapper().set(invalid);
+        }
+    }
 
 
 
@@ -181,38 +422,149 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
      * class is added to the field, called ":invalid".  This can be used for styling the field to indicate invalid inputs.
      * @return The property storing the validator predicate.
      */
-    public final ObjectProperty<Predicate<Double>> valueValidatorProperty() { return valueValidator; }
-    private final ObjectProperty<Predicate<Double>> valueValidator = new SimpleObjectProperty<>(this, "valueValidator");
-    public final Predicate<Double> getValueValidator() { return valueValidatorProperty().get(); }
+    public final ObjectProperty<Predicate<Double>> valueValidatorProperty() {
+        if (valueValidator == null) {
+            valueValidator = new SimpleObjectProperty<Predicate<Double>>(this, "valueValidator") {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
+        return valueValidator;
+    }
+    private ObjectProperty<Predicate<Double>> valueValidator;
+    public final Predicate<Double> getValueValidator() { return valueValidator == null ? null : valueValidator.get(); }
     public final void setValueValidator(Predicate<Double> valueValidator) { valueValidatorProperty().set(valueValidator); }
 
 
+    /**
+     * Stores a validator for the value as primitive double, which avoids boxing the value on each keystroke.  It is
+     * applied together with the {@link #valueValidatorProperty() value validator}, see
+     * {@link NumberInputField#doubleValidatorProperty()}.
+     * @return The property storing the validator predicate.
+     */
+    public final ObjectProperty<DoublePredicate> doubleValueValidatorProperty() {
+        if (doubleValueValidator == null) {
+            doubleValueValidator = new SimpleObjectProperty<DoublePredicate>(this, "doubleValueValidator") {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
+        return doubleValueValidator;
+    }
+    private ObjectProperty<DoublePredicate> doubleValueValidator;
+    public final DoublePredicate getDoubleValueValidator() { return doubleValueValidator == null ? null : doubleValueValidator.get(); }
+    public final void setDoubleValueValidator(DoublePredicate doubleValueValidator) { doubleValueValidatorProperty().set(doubleValueValidator); }
+
+
     /**
      * Boolean property used to automatically convert the {@link #valueProperty()} when the {@link #unitProperty()} is changed.
      * @return The boolean property.
      */
     public final BooleanProperty autoFixValueProperty() {
+        if (autoFixValue == null) {
+            autoFixValue = new SimpleBooleanProperty(this, "autoFixValue") {
+                @Override
+                protected void invalidated() {
+                    notifySkin(this);
+                }
+            };
+        }
         return autoFixValue;
     }
-    private final BooleanProperty autoFixValue = new SimpleBooleanProperty(this, "autoFixValue");
-    public final boolean isAutoFixValue() { return autoFixValueProperty().get(); }
+    private BooleanProperty autoFixValue;
+    public final boolean isAutoFixValue() { return autoFixValue != null && autoFixValue.get(); }
     public final void setAutoFixValue(boolean autoFixValue) { autoFixValueProperty().set(autoFixValue); }
 
 
-    // listeners
+    @Override
+    void reset() {
+        // no conversion must happen while the unit is cleared
+        if (autoFixValue != null) {
+            autoFixValue.set(false);
+        }
+        // the editor keeps a rejected text, it would be accepted as the value once the validators are cleared
+        if (editor != null) {
+            editor.clear();
+        }
+        super.reset();
+
+        if (precision != null) {
+            precision.set(null);
+        }
+        if (precisionUnit != null) {
+            precisionUnit.set(null);
+        }
+        if (allowNegatives != null) {
+            allowNegatives.set(false);
+        }
+        if (minimumValue != null) {
+            minimumValue.set(null);
+        }
+        if (maximumValue != null) {
+            maximumValue.set(null);
+        }
+        if (minimumQuantity != null) {
+            minimumQuantity.set(null);
+        }
+        if (maximumQuantity != null) {
+            maximumQuantity.set(null);
+        }
+        if (valueValidator != null) {
+            valueValidator.set(null);
+        }
+        if (doubleValueValidator != null) {
+            doubleValueValidator.set(null);
+        }
+        setValueDirty(false);
+        setInvalid(false);
+
+        setId(null);
+        setStyle("");
+        getStyleClass().setAll("quantity-input-field");
+        setDisable(false);
+        setVisible(true);
+        setManaged(true);
+    }
 
-    private void bindQuantityValueProperty() {
-        precisionQuantityProperty().addListener(obs -> updateValueQuantity());
+    @Override
+    boolean isConvertValueOnUnitChange() {
+        return isAutoFixValue();
     }
 
+
+    // listeners
+
     @Override
     void updateValueQuantity() {
-        Quantity<Q> quantity = QuantitiesUtil.createQuantity(getValue(), getUnit());
+        Quantity<Q> quantity = QuantitiesUtil.createDoubleQuantity(getValue(), getUnit());
         Quantity<Q> precision = getPrecisionQuantity();
         if (quantity !=  null && precision != null) {
             quantity = QuantitiesUtil.roundQuantity(quantity, precision);
         }
         setValueQuantity(quantity);
+        updateValueDirty();
+    }
+
+    @Override
+    void updateUnit() {
+        // the limits in the previous unit would reject the converted value, the editor checks it once both changed
+        if (editor == null) {
+            super.updateUnit();
+            updateLimits();
+            return;
+        }
+        editor.suspendValidation();
+        try {
+            super.updateUnit();
+            updateLimits();
+        }
+        finally {
+            editor.resumeValidation();
+        }
     }
 
     @Override
@@ -223,55 +575,52 @@ public class QuantityInputField<Q extends Quantity<Q>> extends QuantityInputCont
         }
     }
 
-    private void bindPrecisionQuantityProperty() {
-        InvalidationListener listener = o -> {
-            Quantity<Q> precisionQ = QuantitiesUtil.createQuantity(getPrecision(), getPrecisionUnit());
-            setPrecisionQuantity(precisionQ);
-        };
-        precisionProperty().addListener(listener);
-        precisionUnitProperty().addListener(listener);
+    private void updatePrecisionQuantity() {
+        Quantity<Q> precisionQ = QuantitiesUtil.createDoubleQuantity(getPrecision(), getPrecisionUnit());
+        setPrecisionQuantity(precisionQ);
+        updateValueQuantity();
     }
 
-    private void bindValueDirtyProperty() {
-        InvalidationListener listener = obs -> {
-            Quantity<Q> valueQuantity = getValueQuantity();
-            Double value = getValue();
-            Unit<Q> unit = getUnit();
+    private void updateLimits() {
+        setMinimumLimit(calculateLimit(getMinimumValue(), getMinimumQuantity(), true));
+        setMaximumLimit(calculateLimit(getMaximumValue(), getMaximumQuantity(), false));
+    }
 
-            if (unit != null) {
-                setValueDirty(
-                        (valueQuantity != null && value == null) ||
-                                (valueQuantity == null && value != null) ||
-                                (value != null && valueQuantity != null && value.compareTo(valueQuantity.getValue().doubleValue()) != 0)
-                );
-            }
-        };
+    private Double calculateLimit(Double value, Quantity<Q> quantity, boolean minimum) {
+        Unit<Q> unit = getUnit();
+        if (quantity == null || unit == null) {
+            return value;
+        }
 
-        valueProperty().addListener(listener);
-        valueQuantityProperty().addListener(listener);
+        double limit = QuantitiesUtil.getDoubleConverter(quantity.getUnit(), unit).convert(quantity.getValue().doubleValue());
+        if (value == null) {
+            return limit;
+        }
+        return minimum ? Math.max(value, limit) : Math.min(value, limit);
     }
 
-    private void listenForInvalidChanges() {
-        getProperties().addListener((MapChangeListener<Object, Object>) change -> {
-            if (change.getKey().equals("invalid")) {
-                Boolean value = (Boolean) change.getValueAdded();
-                setInvalid(Boolean.TRUE.equals(value));
-            }
-        });
+    /*
+     * Called with every recalculation of the quantity, which follows every change of the value or the unit, so the
+     * flag is recalculated once per change instead of once per property.
+     */
+    private void updateValueDirty() {
+        if (getUnit() == null) {
+            return;
+        }
+
+        Quantity<Q> valueQuantity = getValueQuantity();
+        Double value = getValue();
+        setValueDirty(value == null ? valueQuantity != null
+                : valueQuantity == null || value.compareTo(valueQuantity.getValue().doubleValue()) != 0);
     }
 
-    private void listenForAutoFixProperty() {
-        unitProperty().addListener((obs, oldV, newV) -> {
-            if (isAutoFixValue()) {
-                Double value = getValue();
-                if (value != null && oldV != null && newV != null) {
-                    Quantity<Q> quantity = QuantitiesUtil.createQuantity(value, oldV);
-                    Quantity<Q> fixedQuantity = quantity.to(newV);
-                    value = fixedQuantity.getValue().doubleValue();
-                    setValue(value);
-                }
-            }
-        });
+    private void setEditor(DoubleInputField editor) {
+        if (this.editor != null) {
+            this.editor.owner = null;
+        }
+        this.editor = editor;
+        editor.owner = this;
+        setInvalid(editor.isInvalid());
     }
 
 }
@@ -0,0 +1,118 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.util.QuantityFieldSpec;
+
+import javax.measure.Quantity;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Opt-in pool of {@link QuantityInputField quantity fields} for forms that are built and thrown away often, for
+ * example the pages of a wizard.  Released fields keep their skin, so reusing a field only costs resetting and
+ * configuring it, instead of creating the control, its skin and all the internal bindings again.
+ *
+ * <pre>
+ *     QuantityInputField&lt;Length&gt; field = pool.acquire(spec);
+ *     ...
+ *     page.getChildren().clear();
+ *     pool.release(field);
+ * </pre>
+ *
+ * <p>
+ *     Released fields are restored to the defaults of a new field: value, units, precision, bounds, validators,
+ *     dirty and invalid state, id, style and style classes, and they stop following their
+ *     {@link UnitPreferences unit preferences}.  Acquired fields are referenced weakly, so fields that are never
+ *     released do not leak.  Listeners and bindings added by the application are not known by the pool, they must be
+ *     removed before releasing the field.  This class is not thread safe, it must be used from the FX thread.
+ * </p>
+ */
+public final class QuantityInputFieldPool {
+
+    private static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private final Map<Class<?>, Deque<QuantityInputField<?>>> freeFields = new HashMap<>();
+    private final Map<QuantityInputField<?>, Class<?>> acquiredFields = new WeakHashMap<>();
+    private final int maximumSize;
+
+    /**
+     * Instances a new pool keeping up to {@value #DEFAULT_MAXIMUM_SIZE} free fields per quantity type.
+     */
+    public QuantityInputFieldPool() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Instances a new pool.
+     *
+     * @param maximumSize The maximum number of free fields kept per quantity type, released fields beyond this
+     *                    number are discarded.
+     */
+    public QuantityInputFieldPool(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("The maximum size cannot be negative.");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Gets a field in its default state for the given quantity type, reusing a released one if possible.
+     *
+     * @param type The quantity type.
+     * @param <Q> The quantity type.
+     * @return The field.
+     */
+    @SuppressWarnings("unchecked")
+    public <Q extends Quantity<Q>> QuantityInputField<Q> acquire(Class<Q> type) {
+        Deque<QuantityInputField<?>> fields = freeFields.get(type);
+        QuantityInputField<Q> field = fields == null || fields.isEmpty() ? new QuantityInputField<>() : (QuantityInputField<Q>) fields.pop();
+        acquiredFields.put(field, type);
+        return field;
+    }
+
+    /**
+     * Gets a field configured with the given spec, reusing a released one if possible.
+     *
+     * @param spec The spec of the field.
+     * @param <Q> The quantity type.
+     * @return The field.
+     * @see QuantityInputField#configure(QuantityFieldSpec)
+     */
+    public <Q extends Quantity<Q>> QuantityInputField<Q> acquire(QuantityFieldSpec<Q> spec) {
+        QuantityInputField<Q> field = acquire(spec.getType());
+        field.configure(spec);
+        return field;
+    }
+
+    /**
+     * Returns a field to the pool.  The field is reset and must not be used by the caller anymore.
+     *
+     * @param field The field, acquired from this pool and already removed from the scene graph.
+     */
+    public void release(QuantityInputField<?> field) {
+        if (field.getParent() != null) {
+            throw new IllegalArgumentException("The field must be removed from the scene graph before being released.");
+        }
+
+        Class<?> type = acquiredFields.remove(field);
+        if (type == null) {
+            throw new IllegalArgumentException("The field was not acquired from this pool.");
+        }
+
+        Deque<QuantityInputField<?>> fields = freeFields.computeIfAbsent(type, t -> new ArrayDeque<>());
+        if (fields.size() < maximumSize) {
+            field.reset();
+            fields.push(field);
+        }
+    }
+
+    /**
+     * Discards all the free fields.
+     */
+    public void clear() {
+        freeFields.clear();
+    }
+
+}
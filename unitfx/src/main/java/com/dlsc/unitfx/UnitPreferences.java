@@ -0,0 +1,193 @@
+package com.dlsc.unitfx;
+
+import javafx.application.Platform;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps the preferred {@link Unit unit} of each quantity type and applies it to the
+ * {@link QuantityInputControl controls} that follow it, for example to switch a whole application from metric to
+ * imperial units:
+ *
+ * <pre>
+ *     UnitPreferences.getInstance().follow(distanceField, Length.class);
+ *     ...
+ *     UnitPreferences.getInstance().setPreferredUnit(Length.class, Units.FOOT);
+ * </pre>
+ *
+ * <p>
+ *     Changes are not applied immediately, all the changes made during the same pulse are collected and applied to
+ *     all the controls in a single pass before the next pulse.  Every control switches its unit at most once, no
+ *     matter how many preferences changed, and the scene is laid out once for all of them.  Each control still
+ *     handles its own unit change, converting its value with the cached primitive converters if it does so, so the
+ *     cost of a switch grows with the number of controls following the changed types.
+ * </p>
+ *
+ * <p>
+ *     A control follows one quantity type of one preferences instance at a time, following again replaces the previous
+ *     registration.  Controls are referenced weakly, so following the preferences does not keep them in memory, and
+ *     controls returned to a {@link QuantityInputFieldPool pool} stop following automatically.  A control whose
+ *     {@link QuantityInputControl#getAvailableUnits() available units} do not include the preferred unit is left as it
+ *     is.
+ * </p>
+ *
+ * <p>
+ *     This class is not thread safe, it must be used from the FX thread.
+ * </p>
+ */
+public final class UnitPreferences {
+
+    private static final UnitPreferences INSTANCE = new UnitPreferences();
+
+    // key of the preferences a control follows in the properties of the control
+    private static final Object PREFERENCES_KEY = UnitPreferences.class;
+
+    /**
+     * @return The preferences shared by the whole application.
+     */
+    public static UnitPreferences getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<Class<?>, Unit<?>> preferredUnits = new HashMap<>();
+    private final Map<QuantityInputControl<?>, Class<?>> followers = new WeakHashMap<>();
+    private final Map<Class<?>, Unit<?>> pendingUnits = new LinkedHashMap<>();
+    private boolean applyScheduled;
+
+    /**
+     * Instances new preferences, independent from the {@link #getInstance() shared} ones.
+     */
+    public UnitPreferences() {
+        super();
+    }
+
+    /**
+     * @param type The quantity type.
+     * @param <Q> The quantity type.
+     * @return The preferred unit of the given type, {@code null} if there is no preference.
+     */
+    @SuppressWarnings("unchecked")
+    public <Q extends Quantity<Q>> Unit<Q> getPreferredUnit(Class<Q> type) {
+        return (Unit<Q>) preferredUnits.get(type);
+    }
+
+    /**
+     * Changes the preferred unit of the given type.  The controls following the type are updated in the next pulse.
+     *
+     * @param type The quantity type.
+     * @param unit The preferred unit, {@code null} to remove the preference.  Controls keep their unit when the
+     *             preference is removed.
+     * @param <Q> The quantity type.
+     */
+    public <Q extends Quantity<Q>> void setPreferredUnit(Class<Q> type, Unit<Q> unit) {
+        Objects.requireNonNull(type);
+        if (Objects.equals(preferredUnits.get(type), unit)) {
+            return;
+        }
+
+        if (unit == null) {
+            preferredUnits.remove(type);
+            pendingUnits.remove(type);
+            return;
+        }
+
+        preferredUnits.put(type, unit);
+        pendingUnits.put(type, unit);
+        if (!applyScheduled) {
+            applyScheduled = true;
+            Platform.runLater(this::applyPendingUnits);
+        }
+    }
+
+    /**
+     * Makes the given control follow the preferred unit of the given type.  If there is a preference, it is applied
+     * to the control immediately.  A control that already follows a type, of these or other preferences, only
+     * follows the given type afterwards.
+     *
+     * @param control The control.
+     * @param type The quantity type of the control.
+     * @param <Q> The quantity type.
+     */
+    public <Q extends Quantity<Q>> void follow(QuantityInputControl<Q> control, Class<Q> type) {
+        Objects.requireNonNull(control);
+        Objects.requireNonNull(type);
+
+        Object previous = control.getProperties().get(PREFERENCES_KEY);
+        if (previous instanceof UnitPreferences && previous != this) {
+            ((UnitPreferences) previous).unfollow(control);
+        }
+        followers.put(control, type);
+        control.getProperties().put(PREFERENCES_KEY, this);
+
+        Unit<Q> unit = getPreferredUnit(type);
+        if (unit != null) {
+            applyUnit(control, unit);
+        }
+    }
+
+    /**
+     * Stops updating the unit of the given control.
+     *
+     * @param control The control.
+     */
+    public void unfollow(QuantityInputControl<?> control) {
+        if (followers.remove(control) != null) {
+            control.getProperties().remove(PREFERENCES_KEY, this);
+        }
+    }
+
+    /**
+     * @param control The control.
+     * @return {@code true} if the control follows these preferences.
+     */
+    public boolean isFollowing(QuantityInputControl<?> control) {
+        return followers.containsKey(control);
+    }
+
+    /*
+     * Stops the given control from following any preferences, used when a control is reset to the state of a new one.
+     */
+    static void unfollowAll(QuantityInputControl<?> control) {
+        Object preferences = control.getProperties().get(PREFERENCES_KEY);
+        if (preferences instanceof UnitPreferences) {
+            ((UnitPreferences) preferences).unfollow(control);
+        }
+    }
+
+    private void applyPendingUnits() {
+        applyScheduled = false;
+        if (pendingUnits.isEmpty()) {
+            return;
+        }
+
+        // copied first, applying a unit may make listeners follow or unfollow controls
+        List<QuantityInputControl<?>> controls = new ArrayList<>(followers.keySet());
+        for (QuantityInputControl<?> control : controls) {
+            Unit<?> unit = pendingUnits.get(followers.get(control));
+            if (unit != null) {
+                applyUnit(control, unit);
+            }
+        }
+        pendingUnits.clear();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static void applyUnit(QuantityInputControl control, Unit unit) {
+        if (unit.equals(control.getUnit())) {
+            return;
+        }
+        if (!control.getAvailableUnits().isEmpty() && !control.getAvailableUnits().contains(unit)) {
+            return;
+        }
+        control.setUnit(unit);
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.dlsc.unitfx.binding;
+
+import com.dlsc.unitfx.QuantityInputControl;
+import com.dlsc.unitfx.util.DecimalFormatter;
+import com.dlsc.unitfx.util.DoubleConverter;
+import com.dlsc.unitfx.util.QuantitiesUtil;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.DoubleBinding;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.value.ObservableDoubleValue;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of a {@link QuantityExpression} in a concrete unit.  The value is {@link Double#NaN} while any of the inputs
+ * of the expression is undefined.
+ *
+ * @param <Q> The quantity type of the result.
+ */
+public final class QuantityBinding<Q extends Quantity<Q>> extends DoubleBinding {
+
+    private final ObservableDoubleValue source;
+    private final Unit<Q> unit;
+    private final DoubleConverter converter;
+
+    private final Map<QuantityInputControl<Q>, DrivenControl> drivenControls = new LinkedHashMap<>();
+
+    // reading the result validates the binding, so the next change is notified again
+    private final InvalidationListener resultListener = obs -> {
+        double value = get();
+        for (DrivenControl driven : drivenControls.values()) {
+            driven.update(value);
+        }
+    };
+
+    QuantityBinding(ObservableDoubleValue source, Unit<Q> unit, DoubleConverter converter) {
+        this.source = source;
+        this.unit = unit;
+        this.converter = converter;
+        bind(source);
+    }
+
+    @Override
+    protected double computeValue() {
+        return converter.convert(source.get());
+    }
+
+    /**
+     * @return The unit of the value.
+     */
+    public Unit<Q> getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return {@code true} if all the inputs of the expression are defined.
+     */
+    public boolean isDefined() {
+        return !Double.isNaN(get());
+    }
+
+    /**
+     * Shows this result in the given control: the control gets the unit of the result, becomes
+     * {@link QuantityInputControl#readOnlyProperty() read only} and its value follows the result, converted to the unit
+     * of the control if the user switches it.  The value of the control is {@code null} while the result is undefined.
+     * The value property of the control is not bound, so the editor of the control can stay bound to it.
+     *
+     * @param control The control showing the result.
+     * @see #stopDriving(QuantityInputControl)
+     */
+    public void drive(QuantityInputControl<Q> control) {
+        if (drivenControls.containsKey(control)) {
+            return;
+        }
+        if (drivenControls.isEmpty()) {
+            addListener(resultListener);
+        }
+
+        DrivenControl driven = new DrivenControl(control);
+        drivenControls.put(control, driven);
+        control.setUnit(unit);
+        control.setReadOnly(true);
+        control.unitProperty().addListener(driven);
+        driven.update(get());
+    }
+
+    /**
+     * Stops showing this result in the given control, which keeps its last value and gets back its previous read only
+     * state.
+     *
+     * @param control The control driven by this result.
+     */
+    public void stopDriving(QuantityInputControl<Q> control) {
+        DrivenControl driven = drivenControls.remove(control);
+        if (driven == null) {
+            return;
+        }
+        control.unitProperty().removeListener(driven);
+        control.setReadOnly(driven.readOnly);
+        if (drivenControls.isEmpty()) {
+            removeListener(resultListener);
+        }
+    }
+
+    /**
+     * Creates the text of this result with up to the given decimals in the default locale, for labels showing the
+     * result live.  The text is empty while the result is undefined.
+     *
+     * @param decimals The maximum number of decimals.
+     * @return The text binding.
+     */
+    public StringBinding asText(int decimals) {
+        DecimalFormatter formatter = new DecimalFormatter();
+        return Bindings.createStringBinding(() -> isDefined() ? formatter.format(get(), decimals) : "", this);
+    }
+
+    private final class DrivenControl implements InvalidationListener {
+
+        private final QuantityInputControl<Q> control;
+        private final boolean readOnly;
+
+        DrivenControl(QuantityInputControl<Q> control) {
+            this.control = control;
+            this.readOnly = control.isReadOnly();
+        }
+
+        @Override
+        public void invalidated(Observable observable) {
+            update(get());
+        }
+
+        void update(double value) {
+            Unit<Q> controlUnit = control.getUnit();
+            if (Double.isNaN(value) || controlUnit == null) {
+                control.setValue(null);
+            }
+            else {
+                control.setValue(QuantitiesUtil.getDoubleConverter(unit, controlUnit).convert(value));
+            }
+        }
+    }
+
+}
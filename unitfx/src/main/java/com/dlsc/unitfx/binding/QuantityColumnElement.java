@@ -0,0 +1,165 @@
+package com.dlsc.unitfx.binding;
+
+import com.dlsc.unitfx.QuantityInputControl;
+import com.dlsc.unitfx.util.QuantitiesUtil;
+import com.dlsc.unitfx.util.QuantityColumn;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectPropertyBase;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.util.Objects;
+
+/**
+ * Property over a single element of a {@link QuantityColumn}, writing every change straight back to the column.  It
+ * can be returned by the cell value factory of a {@code TableColumn}, so the default commit handler edits the column in
+ * place, or be {@link #attach(QuantityInputControl) attached} to a control:
+ *
+ * <pre>
+ *     QuantityColumnElement&lt;Length&gt; element = new QuantityColumnElement&lt;&gt;(depths, index);
+ *     element.attach(depthField);
+ * </pre>
+ *
+ * <p>
+ *     Only the element being shown or edited is materialized as a quantity, the rest of the column stays in primitive
+ *     off-heap storage.  An element can be moved to another {@link #setIndex(int) index}, so the same element can be
+ *     reused while scrolling.  Changes made directly to the column are not observed, call {@link #refresh()} to read
+ *     the element again.
+ * </p>
+ *
+ * @param <Q> The quantity type.
+ */
+public final class QuantityColumnElement<Q extends Quantity<Q>> extends ObjectPropertyBase<Quantity<Q>> {
+
+    private final QuantityColumn<Q> column;
+    private int index;
+
+    private QuantityInputControl<Q> control;
+    private boolean reading;
+    private boolean updating;
+
+    private final InvalidationListener controlListener = obs -> {
+        updating = true;
+        try {
+            set(control.getValueQuantity());
+        }
+        finally {
+            updating = false;
+        }
+    };
+
+    /**
+     * Instances a new element.
+     *
+     * @param column The column, or a {@link QuantityColumn#view(Unit) view} of it in the unit the quantities are wanted.
+     * @param index The index of the element.
+     */
+    public QuantityColumnElement(QuantityColumn<Q> column, int index) {
+        this.column = Objects.requireNonNull(column);
+        setIndex(index);
+    }
+
+    /**
+     * @return The column of the element.
+     */
+    public QuantityColumn<Q> getColumn() {
+        return column;
+    }
+
+    /**
+     * @return The index of the element.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Moves this property to another element of the column.
+     *
+     * @param index The index of the element.
+     */
+    public void setIndex(int index) {
+        this.index = Objects.checkIndex(index, column.size());
+        refresh();
+    }
+
+    /**
+     * Reads the element from the column again, after the column was changed directly.
+     */
+    public void refresh() {
+        reading = true;
+        try {
+            set(column.getQuantity(index));
+        }
+        finally {
+            reading = false;
+        }
+    }
+
+    /**
+     * Shows the element in the given control and writes the quantity entered in the control back to the column.  The
+     * control gets the unit of the column if it has no unit.  An element is attached to one control at most, so any
+     * previous control is detached.
+     *
+     * @param control The control.
+     */
+    public void attach(QuantityInputControl<Q> control) {
+        detach();
+        this.control = Objects.requireNonNull(control);
+        if (control.getUnit() == null) {
+            control.setUnit(column.getUnit());
+        }
+        updateControl();
+        control.valueQuantityProperty().addListener(controlListener);
+    }
+
+    /**
+     * Stops synchronizing the attached control, if any.
+     */
+    public void detach() {
+        if (control != null) {
+            control.valueQuantityProperty().removeListener(controlListener);
+            control = null;
+        }
+    }
+
+    @Override
+    protected void invalidated() {
+        // reading the value validates the property, so the next change is notified again
+        Quantity<Q> quantity = get();
+        if (!reading) {
+            column.setQuantity(index, quantity);
+        }
+        if (control != null && !updating) {
+            updateControl();
+        }
+    }
+
+    private void updateControl() {
+        updating = true;
+        try {
+            Quantity<Q> quantity = get();
+            Unit<Q> unit = control.getUnit();
+            if (quantity == null) {
+                control.setValue(null);
+            }
+            else {
+                control.setValue(QuantitiesUtil.getDoubleConverter(quantity.getUnit(), unit).convert(quantity.getValue().doubleValue()));
+            }
+        }
+        finally {
+            updating = false;
+        }
+    }
+
+    @Override
+    public Object getBean() {
+        return column;
+    }
+
+    @Override
+    public String getName() {
+        return "element";
+    }
+
+}
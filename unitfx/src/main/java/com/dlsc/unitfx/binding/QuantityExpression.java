@@ -0,0 +1,256 @@
+package com.dlsc.unitfx.binding;
+
+import com.dlsc.unitfx.QuantityInputControl;
+import com.dlsc.unitfx.util.DoubleConverter;
+import com.dlsc.unitfx.util.QuantitiesUtil;
+import com.dlsc.unitfx.util.Units;
+import javafx.beans.binding.DoubleBinding;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Unit checked formula over the values of {@link QuantityInputControl quantity controls}, for example a speed
+ * calculated from a distance field and a time field:
+ *
+ * <pre>
+ *     QuantityBinding&lt;Speed&gt; speed = QuantityExpression.of(distanceField)
+ *             .divide(QuantityExpression.of(timeField))
+ *             .to(Units.KNOT);
+ * </pre>
+ *
+ * <p>
+ *     The dimensions are checked once, when the expression is built, and every node is compiled to primitive double
+ *     operations working in system units.  Input values are converted with cached {@link DoubleConverter converters}
+ *     that are refreshed only when the unit of the control changes.  Every node is a lazy {@link DoubleBinding}, so a
+ *     change in a control only invalidates the nodes that depend on it, and they are recalculated only when read.
+ *     Undefined values (a control without value or unit) are represented as {@link Double#NaN} and propagate through
+ *     the formula.
+ * </p>
+ */
+public final class QuantityExpression {
+
+    private final Unit<?> unit;
+    private final DoubleBinding value;
+
+    private QuantityExpression(Unit<?> unit, DoubleBinding value) {
+        this.unit = unit;
+        this.value = value;
+    }
+
+    /**
+     * Creates an expression from the value of the given control.  The dimension of the control is resolved from its
+     * unit, base unit or available units, in that order.
+     *
+     * @param control The control providing the value.
+     * @param <Q> The quantity type.
+     * @return The expression.
+     * @throws IllegalArgumentException If the control has no unit to resolve the dimension from.
+     */
+    public static <Q extends Quantity<Q>> QuantityExpression of(QuantityInputControl<Q> control) {
+        Unit<Q> unit = control.getUnit();
+        if (unit == null) {
+            unit = control.getBaseUnit();
+        }
+        if (unit == null && !control.getAvailableUnits().isEmpty()) {
+            unit = control.getAvailableUnits().get(0);
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("The dimension of the control cannot be resolved, no unit has been set.");
+        }
+        return of(control, unit.getSystemUnit());
+    }
+
+    /**
+     * Creates an expression from the value of the given control, whose dimension is the one of the quantity type.
+     *
+     * @param control The control providing the value.
+     * @param type The quantity type of the control, it must be registered in {@link Units}.
+     * @param <Q> The quantity type.
+     * @return The expression.
+     */
+    public static <Q extends Quantity<Q>> QuantityExpression of(QuantityInputControl<Q> control, Class<Q> type) {
+        Unit<Q> unit = Units.getInstance().getUnit(type);
+        if (unit == null) {
+            throw new IllegalArgumentException("No units registered for " + type.getSimpleName() + ".");
+        }
+        return of(control, unit.getSystemUnit());
+    }
+
+    private static <Q extends Quantity<Q>> QuantityExpression of(QuantityInputControl<Q> control, Unit<Q> systemUnit) {
+        DoubleBinding value = new DoubleBinding() {
+            private Unit<Q> convertedUnit;
+            private DoubleConverter converter;
+
+            {
+                bind(control.valueProperty(), control.unitProperty());
+            }
+
+            @Override
+            protected double computeValue() {
+                Double value = control.getValue();
+                Unit<Q> unit = control.getUnit();
+                if (value == null || unit == null) {
+                    return Double.NaN;
+                }
+
+                if (unit != convertedUnit) {
+                    converter = QuantitiesUtil.getDoubleConverter(unit, systemUnit);
+                    convertedUnit = unit;
+                }
+                return converter.convert(value);
+            }
+        };
+        return new QuantityExpression(systemUnit, value);
+    }
+
+    /**
+     * Creates a constant expression.
+     *
+     * @param value The constant value.
+     * @param unit The unit of the value.
+     * @param <Q> The quantity type.
+     * @return The expression.
+     */
+    public static <Q extends Quantity<Q>> QuantityExpression constant(double value, Unit<Q> unit) {
+        Unit<Q> systemUnit = unit.getSystemUnit();
+        double systemValue = QuantitiesUtil.getDoubleConverter(unit, systemUnit).convert(value);
+        return new QuantityExpression(systemUnit, new DoubleBinding() {
+            @Override
+            protected double computeValue() {
+                return systemValue;
+            }
+        });
+    }
+
+    /**
+     * @return The system unit the expression is calculated in, it describes the dimension of the expression.
+     */
+    public Unit<?> getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return The current value of the expression in {@link #getUnit() system unit}, {@code NaN} if undefined.
+     */
+    public double getValue() {
+        return value.get();
+    }
+
+    /**
+     * Adds the given expression, which must have the same dimension.
+     *
+     * @param other The expression to be added.
+     * @return The new expression.
+     */
+    public QuantityExpression add(QuantityExpression other) {
+        checkCompatible(other);
+        return combine(other, unit, (a, b) -> a + b);
+    }
+
+    /**
+     * Subtracts the given expression, which must have the same dimension.
+     *
+     * @param other The expression to be subtracted.
+     * @return The new expression.
+     */
+    public QuantityExpression subtract(QuantityExpression other) {
+        checkCompatible(other);
+        return combine(other, unit, (a, b) -> a - b);
+    }
+
+    /**
+     * Multiplies by the given expression.
+     *
+     * @param other The multiplier.
+     * @return The new expression, whose dimension is the product of both dimensions.
+     */
+    public QuantityExpression multiply(QuantityExpression other) {
+        return combine(other, unit.multiply(other.unit), (a, b) -> a * b);
+    }
+
+    /**
+     * Divides by the given expression.
+     *
+     * @param other The divisor.
+     * @return The new expression, whose dimension is the quotient of both dimensions.
+     */
+    public QuantityExpression divide(QuantityExpression other) {
+        return combine(other, unit.divide(other.unit), (a, b) -> a / b);
+    }
+
+    /**
+     * Multiplies by a dimensionless factor.
+     *
+     * @param factor The factor.
+     * @return The new expression.
+     */
+    public QuantityExpression multiply(double factor) {
+        return apply(v -> v * factor);
+    }
+
+    /**
+     * Divides by a dimensionless divisor.
+     *
+     * @param divisor The divisor.
+     * @return The new expression.
+     */
+    public QuantityExpression divide(double divisor) {
+        return apply(v -> v / divisor);
+    }
+
+    /**
+     * Converts the expression to the given unit.
+     *
+     * @param unit The unit of the result.
+     * @param <R> The quantity type of the result.
+     * @return The binding holding the result in the given unit.
+     * @throws IllegalArgumentException If the unit does not have the dimension of the expression.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <R extends Quantity<R>> QuantityBinding<R> to(Unit<R> unit) {
+        if (!this.unit.isCompatible(unit)) {
+            throw new IllegalArgumentException("Unit " + unit + " is not compatible with " + this.unit + ".");
+        }
+        DoubleConverter converter = QuantitiesUtil.getDoubleConverter((Unit) this.unit, (Unit) unit);
+        return new QuantityBinding<>(value, unit, converter);
+    }
+
+    private void checkCompatible(QuantityExpression other) {
+        if (!unit.isCompatible(other.unit)) {
+            throw new IllegalArgumentException("Unit " + other.unit + " is not compatible with " + unit + ".");
+        }
+    }
+
+    private QuantityExpression combine(QuantityExpression other, Unit<?> unit, DoubleBinaryOperator operator) {
+        DoubleBinding a = value;
+        DoubleBinding b = other.value;
+        return new QuantityExpression(unit, new DoubleBinding() {
+            {
+                bind(a, b);
+            }
+
+            @Override
+            protected double computeValue() {
+                return operator.applyAsDouble(a.get(), b.get());
+            }
+        });
+    }
+
+    private QuantityExpression apply(DoubleUnaryOperator operator) {
+        DoubleBinding a = value;
+        return new QuantityExpression(unit, new DoubleBinding() {
+            {
+                bind(a);
+            }
+
+            @Override
+            protected double computeValue() {
+                return operator.applyAsDouble(a.get());
+            }
+        });
+    }
+
+}
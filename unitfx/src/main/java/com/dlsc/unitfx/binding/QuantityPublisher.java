@@ -0,0 +1,241 @@
+package com.dlsc.unitfx.binding;
+
+import com.dlsc.unitfx.QuantityInputControl;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+
+import javax.measure.Quantity;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Publishes the {@link QuantityInputControl#valueQuantityProperty() quantities} of one or more controls to
+ * {@link Flow.Subscriber subscribers} running off the FX thread, for example:
+ *
+ * <pre>
+ *     QuantityPublisher.of(distanceField, durationField).subscribe(new Flow.Subscriber&lt;&gt;() { ... });
+ * </pre>
+ *
+ * <p>
+ *     Subscribers are called on the given {@link Executor} ({@link ForkJoinPool#commonPool()} by default), never on
+ *     the FX thread, and only receive as many quantities as they have requested.  A slow subscriber does not queue
+ *     values: every subscription keeps only the latest undelivered quantity of each control, so the memory used is
+ *     bounded by the number of controls and intermediate edits are skipped.  Each subscription receives first the
+ *     current quantity of each control, if any.  {@code null} quantities (empty or invalid fields) are not published.
+ * </p>
+ *
+ * <p>
+ *     The listeners on the controls are added when subscribing and removed when the subscription is cancelled, always
+ *     on the FX thread.  If the executor rejects a delivery, the subscription is cancelled and the
+ *     {@link RejectedExecutionException} is passed to {@link Flow.Subscriber#onError(Throwable)} on the thread that
+ *     tried to schedule the delivery, still never concurrently with other calls to the subscriber.
+ * </p>
+ *
+ * @param <Q> The quantity type.
+ */
+public final class QuantityPublisher<Q extends Quantity<Q>> implements Flow.Publisher<Quantity<Q>> {
+
+    private final List<ObservableValue<Quantity<Q>>> sources;
+    private final Executor executor;
+
+    private QuantityPublisher(List<ObservableValue<Quantity<Q>>> sources, Executor executor) {
+        this.sources = sources;
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    /**
+     * Creates a publisher of the quantities of the given controls, delivered on the common fork join pool.
+     *
+     * @param controls The controls.
+     * @param <Q> The quantity type.
+     * @return The publisher.
+     */
+    @SafeVarargs
+    public static <Q extends Quantity<Q>> QuantityPublisher<Q> of(QuantityInputControl<Q>... controls) {
+        // copied element by element, so the varargs array never escapes this method
+        List<QuantityInputControl<Q>> list = new ArrayList<>(controls.length);
+        for (QuantityInputControl<Q> control : controls) {
+            list.add(control);
+        }
+        return of(list, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a publisher of the quantities of the given controls.
+     *
+     * @param controls The controls.
+     * @param executor The executor the subscribers are called on.
+     * @param <Q> The quantity type.
+     * @return The publisher.
+     */
+    public static <Q extends Quantity<Q>> QuantityPublisher<Q> of(List<? extends QuantityInputControl<Q>> controls, Executor executor) {
+        if (controls.isEmpty()) {
+            throw new IllegalArgumentException("At least one control is required.");
+        }
+
+        List<ObservableValue<Quantity<Q>>> sources = new ArrayList<>(controls.size());
+        for (QuantityInputControl<Q> control : controls) {
+            sources.add(control.valueQuantityProperty());
+        }
+        return new QuantityPublisher<>(Collections.unmodifiableList(sources), executor);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Quantity<Q>> subscriber) {
+        QuantitySubscription subscription = new QuantitySubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        runOnFxThread(subscription::attach);
+    }
+
+    private static void runOnFxThread(Runnable runnable) {
+        if (Platform.isFxApplicationThread()) {
+            runnable.run();
+        }
+        else {
+            Platform.runLater(runnable);
+        }
+    }
+
+
+    /*
+     * Subscription that keeps one slot per source with the latest undelivered quantity.  The FX thread only writes
+     * the slots and schedules a drain, the drain runs on the executor and is serialized by the work-in-progress
+     * counter, so the subscriber is never called concurrently.
+     */
+    private final class QuantitySubscription implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super Quantity<Q>> subscriber;
+        private final AtomicReferenceArray<Quantity<Q>> latest = new AtomicReferenceArray<>(sources.size());
+        private final List<ChangeListener<Quantity<Q>>> listeners = new ArrayList<>(sources.size());
+
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable error;
+
+        // index of the first source to be checked on the next drain, so all sources are delivered in turn
+        private int next;
+
+        QuantitySubscription(Flow.Subscriber<? super Quantity<Q>> subscriber) {
+            this.subscriber = Objects.requireNonNull(subscriber);
+        }
+
+        void attach() {
+            if (cancelled) {
+                return;
+            }
+
+            for (int i = 0; i < sources.size(); i++) {
+                int index = i;
+                ChangeListener<Quantity<Q>> listener = (obs, oldV, newV) -> offer(index, newV);
+                sources.get(i).addListener(listener);
+                listeners.add(listener);
+                offer(index, sources.get(i).getValue());
+            }
+        }
+
+        void detach() {
+            for (int i = 0; i < listeners.size(); i++) {
+                sources.get(i).removeListener(listeners.get(i));
+            }
+            listeners.clear();
+        }
+
+        private void offer(int index, Quantity<Q> quantity) {
+            if (quantity != null && !cancelled) {
+                latest.set(index, quantity);
+                schedule();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("The number of requested items must be positive: " + n);
+            }
+            else {
+                demand.getAndAccumulate(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                runOnFxThread(this::detach);
+            }
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this);
+                }
+                catch (RejectedExecutionException ex) {
+                    // this thread owns the drain, so the error is delivered by the drain loop, never concurrently
+                    if (error == null) {
+                        error = ex;
+                    }
+                    run();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = wip.addAndGet(-missed);
+            }
+            while (missed != 0);
+        }
+
+        private void drain() {
+            if (cancelled) {
+                return;
+            }
+
+            Throwable error = this.error;
+            if (error != null) {
+                cancel();
+                subscriber.onError(error);
+                return;
+            }
+
+            int count = latest.length();
+            while (demand.get() > 0 && !cancelled) {
+                Quantity<Q> quantity = null;
+                for (int i = 0; i < count && quantity == null; i++) {
+                    int index = next;
+                    next = (next + 1) % count;
+                    quantity = latest.getAndSet(index, null);
+                }
+
+                if (quantity == null) {
+                    return;
+                }
+
+                if (demand.get() != Long.MAX_VALUE) {
+                    demand.decrementAndGet();
+                }
+                subscriber.onNext(quantity);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,279 @@
+package com.dlsc.unitfx.fxml;
+
+import com.dlsc.unitfx.util.QuantitiesUtil;
+import com.dlsc.unitfx.util.Units;
+import javafx.scene.control.Control;
+import javafx.util.Builder;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class of the hand-written FXML builders.  The {@code FXMLLoader} puts the attributes of an element in the
+ * builder as they are written, so the builder stores them and applies them in {@link #build()} with direct setter
+ * calls, converting the strings itself.  Properties not known by the builder are applied by reflection, as the
+ * default builders do.
+ *
+ * @param <T> The type of control built.
+ */
+abstract class ControlBuilder<T extends Control> extends AbstractMap<String, Object> implements Builder<T> {
+
+    private final Map<String, Object> properties = new LinkedHashMap<>();
+
+    ControlBuilder() {
+        properties.put("styleClass", new ArrayList<>());
+        properties.put("stylesheets", new ArrayList<>());
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        return properties.put(key, value);
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return properties.entrySet();
+    }
+
+    @Override
+    public T build() {
+        T control = create();
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            if (!apply(control, entry.getKey(), entry.getValue())) {
+                applyControlProperty(control, entry.getKey(), entry.getValue());
+            }
+        }
+        return control;
+    }
+
+    /**
+     * @return A new control.
+     */
+    abstract T create();
+
+    /**
+     * Applies a property specific to the control built.
+     *
+     * @param control The control being built.
+     * @param name The name of the property.
+     * @param value The value, usually a string.
+     * @return {@code true} if the property is known and was applied.
+     */
+    abstract boolean apply(T control, String name, Object value);
+
+    private void applyControlProperty(T control, String name, Object value) {
+        switch (name) {
+            case "id":
+                control.setId(toString(value));
+                break;
+            case "style":
+                control.setStyle(toString(value));
+                break;
+            case "styleClass":
+                control.getStyleClass().addAll(toStrings(value));
+                break;
+            case "stylesheets":
+                control.getStylesheets().addAll(toStrings(value));
+                break;
+            case "disable":
+                control.setDisable(toBoolean(value));
+                break;
+            case "visible":
+                control.setVisible(toBoolean(value));
+                break;
+            case "managed":
+                control.setManaged(toBoolean(value));
+                break;
+            case "focusTraversable":
+                control.setFocusTraversable(toBoolean(value));
+                break;
+            case "prefWidth":
+                control.setPrefWidth(toDouble(value));
+                break;
+            case "prefHeight":
+                control.setPrefHeight(toDouble(value));
+                break;
+            case "minWidth":
+                control.setMinWidth(toDouble(value));
+                break;
+            case "minHeight":
+                control.setMinHeight(toDouble(value));
+                break;
+            case "maxWidth":
+                control.setMaxWidth(toDouble(value));
+                break;
+            case "maxHeight":
+                control.setMaxHeight(toDouble(value));
+                break;
+            default:
+                applyByReflection(control, name, value);
+        }
+    }
+
+    private static void applyByReflection(Object control, String name, Object value) {
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (Method method : control.getClass().getMethods()) {
+            if (method.getName().equals(setterName) && method.getParameterCount() == 1) {
+                try {
+                    method.invoke(control, coerce(value, method.getParameterTypes()[0]));
+                    return;
+                }
+                catch (IllegalAccessException | InvocationTargetException ex) {
+                    throw new IllegalArgumentException("Cannot set property " + name + " of " + control.getClass().getSimpleName() + ".", ex);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown property " + name + " of " + control.getClass().getSimpleName() + ".");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object coerce(Object value, Class<?> type) {
+        if (!(value instanceof String) || type == String.class || type == Object.class) {
+            return value;
+        }
+
+        String text = ((String) value).trim();
+        if (type == boolean.class || type == Boolean.class) {
+            return Boolean.valueOf(text);
+        }
+        if (type == int.class || type == Integer.class) {
+            return Integer.valueOf(text);
+        }
+        if (type == long.class || type == Long.class) {
+            return Long.valueOf(text);
+        }
+        if (type == double.class || type == Double.class) {
+            return Double.valueOf(text);
+        }
+        if (type == float.class || type == Float.class) {
+            return Float.valueOf(text);
+        }
+        if (type.isEnum()) {
+            return Enum.valueOf((Class<Enum>) type, text.toUpperCase(Locale.ROOT));
+        }
+        throw new IllegalArgumentException("Cannot convert \"" + text + "\" to " + type.getSimpleName() + ".");
+    }
+
+
+    // conversions of the attribute values
+
+    static String toString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    static boolean toBoolean(Object value) {
+        return value instanceof Boolean ? (Boolean) value : Boolean.parseBoolean(toString(value).trim());
+    }
+
+    static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(toString(value).trim());
+    }
+
+    static Double toDouble(Object value) {
+        if (value == null || value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        String text = toString(value).trim();
+        return text.isEmpty() ? null : Double.valueOf(text);
+    }
+
+    static Integer toInteger(Object value) {
+        if (value == null || value instanceof Integer) {
+            return (Integer) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        String text = toString(value).trim();
+        return text.isEmpty() ? null : Integer.valueOf(text);
+    }
+
+    static List<String> toStrings(Object value) {
+        List<String> strings = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                strings.add(toString(item));
+            }
+        }
+        else if (value != null) {
+            for (String item : toString(value).split("[,\\s]+")) {
+                if (!item.isEmpty()) {
+                    strings.add(item);
+                }
+            }
+        }
+        return strings;
+    }
+
+    /**
+     * Converts the given value to a unit, strings are looked up by symbol in {@link Units}.
+     */
+    static Unit<?> toUnit(Object value) {
+        if (value == null || value instanceof Unit) {
+            return (Unit<?>) value;
+        }
+
+        String symbol = toString(value).trim();
+        if (symbol.isEmpty()) {
+            return null;
+        }
+        Unit<?> unit = Units.getInstance().getUnitBySymbol(symbol);
+        if (unit == null) {
+            throw new IllegalArgumentException("Unknown unit symbol: " + symbol);
+        }
+        return unit;
+    }
+
+    /**
+     * Converts the given value to a list of units, strings are split by commas or spaces.
+     */
+    static List<Unit<?>> toUnits(Object value) {
+        List<Unit<?>> units = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                units.add(toUnit(item));
+            }
+        }
+        else {
+            for (String symbol : toStrings(value)) {
+                units.add(toUnit(symbol));
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Converts the given value to a quantity, strings are written as the number followed by the unit symbol, e.g.
+     * {@code "10 km"}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Quantity<?> toQuantity(Object value) {
+        if (value == null || value instanceof Quantity) {
+            return (Quantity<?>) value;
+        }
+
+        String text = toString(value).trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        int separator = text.indexOf(' ');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Quantity without unit: " + text);
+        }
+        return QuantitiesUtil.createQuantity(Double.valueOf(text.substring(0, separator)), (Unit) toUnit(text.substring(separator + 1)));
+    }
+
+}
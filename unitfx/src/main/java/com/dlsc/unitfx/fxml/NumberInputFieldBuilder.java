@@ -0,0 +1,67 @@
+package com.dlsc.unitfx.fxml;
+
+import com.dlsc.unitfx.NumberInputField;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builder of {@link NumberInputField number fields}.
+ *
+ * @param <N> The type of number.
+ * @param <T> The type of field.
+ */
+final class NumberInputFieldBuilder<N extends Number, T extends NumberInputField<N>> extends ControlBuilder<T> {
+
+    private final Supplier<T> factory;
+    private final Function<Object, N> numberConverter;
+
+    NumberInputFieldBuilder(Supplier<T> factory, Function<Object, N> numberConverter) {
+        this.factory = factory;
+        this.numberConverter = numberConverter;
+    }
+
+    @Override
+    T create() {
+        return factory.get();
+    }
+
+    @Override
+    boolean apply(T field, String name, Object value) {
+        switch (name) {
+            case "value":
+                field.setValue(numberConverter.apply(value));
+                return true;
+            case "minimumValue":
+                field.setMinimumValue(numberConverter.apply(value));
+                return true;
+            case "maximumValue":
+                field.setMaximumValue(numberConverter.apply(value));
+                return true;
+            case "allowNegatives":
+                field.setAllowNegatives(toBoolean(value));
+                return true;
+            case "numberOfIntegers":
+                field.setNumberOfIntegers(toInt(value));
+                return true;
+            case "numberOfDecimals":
+                field.setNumberOfDecimals(toInt(value));
+                return true;
+            case "text":
+                field.setText(toString(value));
+                return true;
+            case "promptText":
+                field.setPromptText(toString(value));
+                return true;
+            case "editable":
+                field.setEditable(toBoolean(value));
+                return true;
+            case "prefColumnCount":
+                field.setPrefColumnCount(toInt(value));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+}
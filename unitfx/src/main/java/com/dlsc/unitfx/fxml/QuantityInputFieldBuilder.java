@@ -0,0 +1,96 @@
+package com.dlsc.unitfx.fxml;
+
+import com.dlsc.unitfx.QuantityInputField;
+import com.dlsc.unitfx.util.Units;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builder of {@link QuantityInputField quantity fields}.  Units are written by symbol, e.g. {@code unit="km"}, and
+ * quantities as the number followed by the symbol, e.g. {@code maximumQuantity="10 km"}.  If no available units are
+ * given, the field gets all the units {@link Units registered} for the quantity type of its unit or base unit.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+final class QuantityInputFieldBuilder extends ControlBuilder<QuantityInputField<?>> {
+
+    QuantityInputFieldBuilder() {
+        put("availableUnits", new ArrayList<>());
+    }
+
+    @Override
+    QuantityInputField<?> create() {
+        return new QuantityInputField<>();
+    }
+
+    @Override
+    public QuantityInputField<?> build() {
+        QuantityInputField field = super.build();
+        if (field.getAvailableUnits().isEmpty()) {
+            Unit<?> unit = field.getUnit() != null ? field.getUnit() : field.getBaseUnit();
+            Class type = unit != null ? Units.getInstance().getQuantityType(unit) : null;
+            if (type != null) {
+                field.getAvailableUnits().setAll(Units.getInstance().getUnits(type));
+            }
+        }
+        return field;
+    }
+
+    @Override
+    boolean apply(QuantityInputField<?> control, String name, Object value) {
+        QuantityInputField field = control;
+        switch (name) {
+            case "availableUnits":
+                List<Unit<?>> units = toUnits(value);
+                field.getAvailableUnits().addAll(units);
+                return true;
+            case "value":
+                field.setValue(toDouble(value));
+                return true;
+            case "unit":
+                field.setUnit(toUnit(value));
+                return true;
+            case "baseUnit":
+                field.setBaseUnit(toUnit(value));
+                return true;
+            case "precision":
+                field.setPrecision(toDouble(value));
+                return true;
+            case "precisionUnit":
+                field.setPrecisionUnit(toUnit(value));
+                return true;
+            case "minimumValue":
+                field.setMinimumValue(toDouble(value));
+                return true;
+            case "maximumValue":
+                field.setMaximumValue(toDouble(value));
+                return true;
+            case "minimumQuantity":
+                field.setMinimumQuantity((Quantity) toQuantity(value));
+                return true;
+            case "maximumQuantity":
+                field.setMaximumQuantity((Quantity) toQuantity(value));
+                return true;
+            case "allowNegatives":
+                field.setAllowNegatives(toBoolean(value));
+                return true;
+            case "autoFixValue":
+                field.setAutoFixValue(toBoolean(value));
+                return true;
+            case "readOnly":
+                field.setReadOnly(toBoolean(value));
+                return true;
+            case "numberOfIntegers":
+                field.setNumberOfIntegers(toInt(value));
+                return true;
+            case "numberOfDecimals":
+                field.setNumberOfDecimals(toInt(value));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+}
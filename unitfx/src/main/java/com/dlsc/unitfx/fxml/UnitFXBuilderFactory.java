@@ -0,0 +1,70 @@
+package com.dlsc.unitfx.fxml;
+
+import com.dlsc.unitfx.DoubleInputField;
+import com.dlsc.unitfx.IntegerInputField;
+import com.dlsc.unitfx.QuantityInputField;
+import javafx.fxml.JavaFXBuilderFactory;
+import javafx.util.Builder;
+import javafx.util.BuilderFactory;
+
+/**
+ * Builder factory that creates the UnitFX controls declared in FXML with direct setter calls:
+ *
+ * <pre>
+ *     FXMLLoader loader = new FXMLLoader(url, null, new UnitFXBuilderFactory());
+ * </pre>
+ *
+ * <p>
+ *     The {@code FXMLLoader} sets every attribute of a control through reflection and generic type lookups.  The
+ *     builders of this factory receive the attributes as they are written and apply the properties of the UnitFX
+ *     controls and the common layout and style properties with direct setter calls.  Any other attribute falls back
+ *     to reflection, like with the default builders.  The creation of the controls dominates the loading time, so the
+ *     gain is modest, about 10% for a form of 500 quantity fields.  Units can be written by symbol, see
+ *     {@link com.dlsc.unitfx.util.Units}:
+ * </p>
+ *
+ * <pre>
+ *     &lt;QuantityInputField unit="km" availableUnits="km, nm" maximumQuantity="100 nm" /&gt;
+ * </pre>
+ *
+ * <p>
+ *     Any other type is delegated to the given factory, the {@link JavaFXBuilderFactory} by default.  The factory
+ *     is the only part of UnitFX that needs the {@code javafx.fxml} module, which is an optional dependency:
+ *     applications using it must require {@code javafx.fxml} themselves.
+ * </p>
+ */
+public final class UnitFXBuilderFactory implements BuilderFactory {
+
+    private final BuilderFactory delegate;
+
+    /**
+     * Instances a new factory that delegates to a {@link JavaFXBuilderFactory}.
+     */
+    public UnitFXBuilderFactory() {
+        this(new JavaFXBuilderFactory());
+    }
+
+    /**
+     * Instances a new factory.
+     *
+     * @param delegate The factory used for the types that are not UnitFX controls.
+     */
+    public UnitFXBuilderFactory(BuilderFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Builder<?> getBuilder(Class<?> type) {
+        if (type == QuantityInputField.class) {
+            return new QuantityInputFieldBuilder();
+        }
+        if (type == DoubleInputField.class) {
+            return new NumberInputFieldBuilder<>(DoubleInputField::new, ControlBuilder::toDouble);
+        }
+        if (type == IntegerInputField.class) {
+            return new NumberInputFieldBuilder<>(IntegerInputField::new, ControlBuilder::toInteger);
+        }
+        return delegate.getBuilder(type);
+    }
+
+}
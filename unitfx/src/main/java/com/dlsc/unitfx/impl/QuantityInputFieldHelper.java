@@ -0,0 +1,53 @@
+package com.dlsc.unitfx.impl;
+
+import com.dlsc.unitfx.DoubleInputField;
+import com.dlsc.unitfx.QuantityInputField;
+import javafx.beans.InvalidationListener;
+
+/**
+ * Gives the skins access to the package-private API of {@link QuantityInputField}.  This package is not exported, so
+ * the methods are not part of the public API even though they are public.
+ */
+public final class QuantityInputFieldHelper {
+
+    private static Accessor accessor;
+
+    private QuantityInputFieldHelper() {
+    }
+
+    /**
+     * Called once by {@link QuantityInputField} when the class is initialized.
+     * @param accessor The accessor to the package-private API.
+     */
+    public static void setAccessor(Accessor accessor) {
+        QuantityInputFieldHelper.accessor = accessor;
+    }
+
+    /**
+     * Sets the editor shown by the skin of the field, the field follows its invalid state.
+     * @param field The field.
+     * @param editor The editor created by the skin.
+     */
+    public static void setEditor(QuantityInputField<?> field, DoubleInputField editor) {
+        accessor.setEditor(field, editor);
+    }
+
+    /**
+     * Sets the listener told about the changes of the properties that are created lazily.  The listener receives the
+     * property that changed, the skin tells them apart by their name instead of creating them to compare them.
+     * @param field The field.
+     * @param listener The listener of the skin.
+     */
+    public static void setSkinListener(QuantityInputField<?> field, InvalidationListener listener) {
+        accessor.setSkinListener(field, listener);
+    }
+
+    public interface Accessor {
+
+        void setEditor(QuantityInputField<?> field, DoubleInputField editor);
+
+        void setSkinListener(QuantityInputField<?> field, InvalidationListener listener);
+
+    }
+
+}
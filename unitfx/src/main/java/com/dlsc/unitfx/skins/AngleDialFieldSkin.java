@@ -0,0 +1,290 @@
+package com.dlsc.unitfx.skins;
+
+import com.dlsc.unitfx.AngleDialField;
+import com.dlsc.unitfx.util.Constants;
+import com.dlsc.unitfx.util.ControlsUtil;
+import com.dlsc.unitfx.util.SinCosTable;
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.SkinBase;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Skin of the {@link AngleDialField} that paints the whole dial on a single {@link Canvas}.  The face and the ticks are
+ * painted once per resize, while changes of the value only repaint the region covered by the old and the new needle.
+ * Repaints are coalesced to one per pulse, so dragging the needle does not queue more drawing than can be shown.
+ */
+public class AngleDialFieldSkin extends SkinBase<AngleDialField> {
+
+    private static final double DEFAULT_SIZE = 120;
+    private static final double TICK_STEP = 5;
+    private static final int TICK_COUNT = (int) (Constants.MAX_DEGREE / TICK_STEP);
+    private static final double NEEDLE_WIDTH = 2;
+    private static final double HUB_RADIUS = 3;
+
+    private static final String[] CARDINAL_LABELS = {"N", "E", "S", "W"};
+    private static final double LABEL_SIZE = 8;
+
+    private static final Color FACE_COLOR = Color.WHITE;
+    private static final Color BORDER_COLOR = Color.web("#999999");
+    private static final Color TICK_COLOR = Color.web("#666666");
+    private static final Color NEEDLE_COLOR = Color.ORANGE;
+
+    // unit vectors of every tick, shared by all the dials
+    private static final SinCosTable TICKS = new SinCosTable(TICK_COUNT);
+
+    private final Canvas canvas = new Canvas();
+
+    private final AnimationTimer repaintTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            stop();
+            repaintNeedle();
+        }
+    };
+
+    // reused buffers, so painting does not allocate
+    private final double[] point = new double[2];
+    private final double[] needleBounds = new double[4];
+    private final double[] newNeedleBounds = new double[4];
+    private boolean needleVisible;
+
+    private double centerX;
+    private double centerY;
+    private double radius;
+
+    private double dragStartAngle;
+    private double dragStartValue;
+
+    public AngleDialFieldSkin(AngleDialField control) {
+        super(control);
+
+        canvas.setManaged(false);
+        canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, this::startDrag);
+        canvas.addEventHandler(MouseEvent.MOUSE_DRAGGED, this::drag);
+        getChildren().add(canvas);
+
+        control.valueProperty().addListener((obs, oldV, newV) -> {
+            if (oldV == null || newV == null || ControlsUtil.distance(oldV, newV) != 0) {
+                repaintTimer.start();
+            }
+        });
+    }
+
+    @Override
+    public void dispose() {
+        repaintTimer.stop();
+        super.dispose();
+    }
+
+    @Override
+    protected double computePrefWidth(double height, double topInset, double rightInset, double bottomInset, double leftInset) {
+        return leftInset + DEFAULT_SIZE + rightInset;
+    }
+
+    @Override
+    protected double computePrefHeight(double width, double topInset, double rightInset, double bottomInset, double leftInset) {
+        return topInset + DEFAULT_SIZE + bottomInset;
+    }
+
+    @Override
+    protected void layoutChildren(double contentX, double contentY, double contentWidth, double contentHeight) {
+        canvas.relocate(snapPositionX(contentX), snapPositionY(contentY));
+
+        double width = snapSizeX(contentWidth);
+        double height = snapSizeY(contentHeight);
+        if (width != canvas.getWidth() || height != canvas.getHeight()) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            centerX = width / 2;
+            centerY = height / 2;
+            radius = Math.max(0, Math.min(width, height) / 2 - 1);
+            repaintAll();
+        }
+    }
+
+
+    // painting
+
+    private void repaintAll() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        paintDial(gc, 0, 0, canvas.getWidth(), canvas.getHeight());
+        needleVisible = computeNeedleBounds(needleBounds);
+        if (needleVisible) {
+            paintNeedle(gc);
+        }
+    }
+
+    private void repaintNeedle() {
+        boolean newNeedleVisible = computeNeedleBounds(newNeedleBounds);
+        if (!needleVisible && !newNeedleVisible) {
+            return;
+        }
+
+        double minX;
+        double minY;
+        double maxX;
+        double maxY;
+        if (needleVisible && newNeedleVisible) {
+            minX = Math.min(needleBounds[0], newNeedleBounds[0]);
+            minY = Math.min(needleBounds[1], newNeedleBounds[1]);
+            maxX = Math.max(needleBounds[2], newNeedleBounds[2]);
+            maxY = Math.max(needleBounds[3], newNeedleBounds[3]);
+        }
+        else {
+            double[] bounds = needleVisible ? needleBounds : newNeedleBounds;
+            minX = bounds[0];
+            minY = bounds[1];
+            maxX = bounds[2];
+            maxY = bounds[3];
+        }
+
+        double width = maxX - minX;
+        double height = maxY - minY;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.save();
+        gc.beginPath();
+        gc.rect(minX, minY, width, height);
+        gc.closePath();
+        gc.clip();
+        gc.clearRect(minX, minY, width, height);
+        paintDial(gc, minX, minY, width, height);
+        if (newNeedleVisible) {
+            paintNeedle(gc);
+        }
+        gc.restore();
+
+        System.arraycopy(newNeedleBounds, 0, needleBounds, 0, 4);
+        needleVisible = newNeedleVisible;
+    }
+
+    private void paintDial(GraphicsContext gc, double x, double y, double width, double height) {
+        gc.setFill(FACE_COLOR);
+        gc.fillOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
+        gc.setStroke(BORDER_COLOR);
+        gc.setLineWidth(1);
+        gc.strokeOval(centerX - radius, centerY - radius, radius * 2, radius * 2);
+
+        gc.setStroke(TICK_COLOR);
+        double minorRadius = radius * 0.93;
+        double majorRadius = radius * 0.85;
+        for (int i = 0; i < TICK_COUNT; i++) {
+            boolean major = (i * TICK_STEP) % Constants.CARDINAL_STEP == 0;
+            double innerRadius = major ? majorRadius : minorRadius;
+            double x1 = centerX + TICKS.sinAt(i) * innerRadius;
+            double y1 = centerY - TICKS.cosAt(i) * innerRadius;
+            double x2 = centerX + TICKS.sinAt(i) * radius;
+            double y2 = centerY - TICKS.cosAt(i) * radius;
+            if (intersects(Math.min(x1, x2) - 1, Math.min(y1, y2) - 1, Math.max(x1, x2) + 1, Math.max(y1, y2) + 1, x, y, width, height)) {
+                gc.setLineWidth(major ? 2 : 1);
+                gc.strokeLine(x1, y1, x2, y2);
+            }
+        }
+
+        gc.setFill(TICK_COLOR);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        double labelRadius = radius * 0.68;
+        int labelStep = TICK_COUNT / CARDINAL_LABELS.length;
+        for (int i = 0; i < CARDINAL_LABELS.length; i++) {
+            double labelX = centerX + TICKS.sinAt(i * labelStep) * labelRadius;
+            double labelY = centerY - TICKS.cosAt(i * labelStep) * labelRadius;
+            if (intersects(labelX - LABEL_SIZE, labelY - LABEL_SIZE, labelX + LABEL_SIZE, labelY + LABEL_SIZE, x, y, width, height)) {
+                gc.fillText(CARDINAL_LABELS[i], labelX, labelY);
+            }
+        }
+    }
+
+    private void paintNeedle(GraphicsContext gc) {
+        gc.setStroke(NEEDLE_COLOR);
+        gc.setLineWidth(NEEDLE_WIDTH);
+        gc.strokeLine(centerX, centerY, point[0], point[1]);
+        gc.setFill(NEEDLE_COLOR);
+        gc.fillOval(centerX - HUB_RADIUS, centerY - HUB_RADIUS, HUB_RADIUS * 2, HUB_RADIUS * 2);
+    }
+
+    /*
+     * Calculates the tip of the needle in the point buffer and the bounds (minX, minY, maxX, maxY) covered by the
+     * needle in the given array.  Returns false when there is no needle to paint.
+     */
+    private boolean computeNeedleBounds(double[] bounds) {
+        Double value = getSkinnable().getValue();
+        if (value == null || radius <= 0) {
+            return false;
+        }
+
+        // compass angles start at north and grow clockwise
+        ControlsUtil.calculatePointOnCircle(centerX, centerY, radius * 0.8, 90 - value, point);
+
+        double margin = HUB_RADIUS + NEEDLE_WIDTH;
+        bounds[0] = Math.floor(Math.min(centerX, point[0]) - margin);
+        bounds[1] = Math.floor(Math.min(centerY, point[1]) - margin);
+        bounds[2] = Math.ceil(Math.max(centerX, point[0]) + margin);
+        bounds[3] = Math.ceil(Math.max(centerY, point[1]) + margin);
+        return true;
+    }
+
+    private static boolean intersects(double minX, double minY, double maxX, double maxY, double x, double y, double width, double height) {
+        return maxX >= x && minX <= x + width && maxY >= y && minY <= y + height;
+    }
+
+
+    // dragging
+
+    private void startDrag(MouseEvent evt) {
+        if (!isEditable()) {
+            return;
+        }
+
+        dragStartAngle = angleAt(evt.getX(), evt.getY());
+        Double value = getSkinnable().getValue();
+        if (value == null) {
+            dragStartValue = dragStartAngle;
+            updateValue(dragStartAngle);
+        }
+        else {
+            dragStartValue = value;
+        }
+    }
+
+    private void drag(MouseEvent evt) {
+        if (!isEditable()) {
+            return;
+        }
+
+        double angle = angleAt(evt.getX(), evt.getY());
+        updateValue(dragStartValue - ControlsUtil.rotation(dragStartAngle, angle));
+    }
+
+    private void updateValue(double angle) {
+        if (getSkinnable().isSnapToCardinal()) {
+            angle = Math.round(angle / Constants.CARDINAL_STEP) * Constants.CARDINAL_STEP;
+        }
+        getSkinnable().setValue(normalize(angle));
+    }
+
+    private boolean isEditable() {
+        return !getSkinnable().isReadOnly() && !getSkinnable().isDisabled();
+    }
+
+    private double angleAt(double x, double y) {
+        double dx = x - centerX;
+        double dy = centerY - y;
+        if (dx == 0 && dy == 0) {
+            return dragStartAngle;
+        }
+        return normalize(90 - Math.toDegrees(Math.atan2(dy, dx)));
+    }
+
+    private static double normalize(double angle) {
+        double normalized = angle % Constants.MAX_DEGREE;
+        return normalized < 0 ? normalized + Constants.MAX_DEGREE : normalized;
+    }
+
+}
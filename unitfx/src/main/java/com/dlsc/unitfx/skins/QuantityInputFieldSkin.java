@@ -1,37 +1,52 @@
 package com.dlsc.unitfx.skins;
 
 import com.dlsc.unitfx.DoubleInputField;
+import com.dlsc.unitfx.QuantityInputControl;
 import com.dlsc.unitfx.QuantityInputField;
+import com.dlsc.unitfx.impl.QuantityInputFieldHelper;
 import javafx.beans.InvalidationListener;
-import javafx.beans.binding.Bindings;
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyProperty;
 import javafx.beans.property.SimpleBooleanProperty;
-import javafx.scene.control.ComboBox;
+import javafx.scene.control.Button;
 import javafx.scene.control.ContentDisplay;
 import javafx.scene.control.Label;
 import javafx.scene.control.Labeled;
-import javafx.scene.control.ListCell;
 import javafx.scene.control.SkinBase;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.Region;
+import javafx.scene.text.Text;
+import javafx.util.StringConverter;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
+import java.util.Objects;
 
 public class QuantityInputFieldSkin<Q extends Quantity<Q>> extends SkinBase<QuantityInputField<Q>> {
 
+    private final Region dirtyIcon;
     private final DoubleInputField editor;
-    private final ComboBox<Unit<Q>> switcher;
+    private final Button switcher;
+    private final Label switcherLbl;
     private final Label editorDisabled;
     private final Label switcherDisabled;
+    private final Label unitLbl;
+    private final BooleanProperty unitNotBaseUnit = new SimpleBooleanProperty();
+
+    // width of the widest available unit, -1 until calculated again after the units change
+    private double widestUnitWidth = -1;
+
+    // measures the unit texts of all the fields, only used from the FX thread
+    private static Text measuringText;
 
     public QuantityInputFieldSkin(QuantityInputField<Q> control) {
         super(control);
 
-        Region dirtyIcon = new Region();
+        dirtyIcon = new Region();
         dirtyIcon.getStyleClass().add("dirty-icon");
-        dirtyIcon.visibleProperty().bind(control.valueDirtyProperty());
+        dirtyIcon.setVisible(control.isValueDirty());
         dirtyIcon.managedProperty().bind(dirtyIcon.visibleProperty());
         dirtyIcon.setOnMouseClicked(evt -> control.restoreValueProperty());
 
@@ -39,11 +54,7 @@ public class QuantityInputFieldSkin<Q extends Quantity<Q>> extends SkinBase<Quan
         editor.getStyleClass().add("editor");
         editor.setLeft(dirtyIcon);
         editor.valueProperty().bindBidirectional(control.valueProperty());
-        editor.numberOfIntegersProperty().bind(control.numberOfIntegersProperty());
-        editor.numberOfDecimalsProperty().bind(control.numberOfDecimalsProperty());
-        editor.allowNegativesProperty().bind(control.allowNegativesProperty());
-        editor.minimumValueProperty().bind(control.minimumValueProperty());
-        editor.maximumValueProperty().bind(control.maximumValueProperty());
+        updateEditor();
         editor.addEventHandler(KeyEvent.KEY_PRESSED, evt -> {
             if (evt.getCode() == KeyCode.ENTER) {
                 control.restoreValueProperty();
@@ -54,33 +65,14 @@ public class QuantityInputFieldSkin<Q extends Quantity<Q>> extends SkinBase<Quan
                 control.restoreValueProperty();
             }
         });
-        editor.validatorProperty().bind(control.valueValidatorProperty());
-        editor.invalidProperty().addListener(obs -> control.getProperties().put("invalid", editor.isInvalid()));
-
-        switcher = new ComboBox<>();
-        switcher.getStyleClass().add("unit-switcher");
-        switcher.setItems(control.getAvailableUnits());
-        switcher.valueProperty().bindBidirectional(control.unitProperty());
-        switcher.converterProperty().bind(control.unitStringConverterProperty());
-        switcher.setButtonCell(new UnitListCell());
-        switcher.setCellFactory(lv -> new UnitListCell());
+        QuantityInputFieldHelper.setEditor(control, editor);
 
         editorDisabled = new Label();
         editorDisabled.getStyleClass().add("editor");
         editorDisabled.getStyleClass().add("editor-disabled");
         editorDisabled.textProperty().bind(editor.textProperty());
 
-        BooleanProperty unitNotBaseUnit = new SimpleBooleanProperty();
-        InvalidationListener unitsListener = obs -> {
-            Unit<Q> baseUnit = control.getBaseUnit();
-            Unit<Q> unit = control.getUnit();
-            unitNotBaseUnit.set(unit != null && baseUnit != null && !unit.equals(baseUnit));
-        };
-        control.baseUnitProperty().addListener(unitsListener);
-        control.unitProperty().addListener(unitsListener);
-        unitsListener.invalidated(null);
-        Label unitLbl = new Label();
-        unitLbl.textProperty().bind(Bindings.createStringBinding(() -> convertUnitToString(control.getUnit()), control.unitProperty()));
+        unitLbl = new Label();
         decorateUnitLabel(unitLbl, unitNotBaseUnit);
         switcherDisabled = new Label();
         switcherDisabled.setGraphic(unitLbl);
@@ -88,9 +80,102 @@ public class QuantityInputFieldSkin<Q extends Quantity<Q>> extends SkinBase<Quan
         switcherDisabled.getStyleClass().add("unit-switcher");
         switcherDisabled.getStyleClass().add("unit-switcher-disabled");
 
+        // the units are chosen in the popup shared by all the fields of the window, see UnitChooserPopup
+        switcherLbl = new Label();
+        decorateUnitLabel(switcherLbl, unitNotBaseUnit);
+        switcher = new Button();
+        switcher.setGraphic(switcherLbl);
+        switcher.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+        switcher.getStyleClass().add("unit-switcher");
+        // like a combo box the button opens the popup with space and with the arrow keys, Enter selects in the popup
+        switcher.setOnAction(evt -> UnitChooserPopup.show(control, switcher));
+        switcher.addEventHandler(KeyEvent.KEY_PRESSED, evt -> {
+            KeyCode code = evt.getCode();
+            if (code == KeyCode.DOWN || code == KeyCode.UP || code == KeyCode.KP_DOWN || code == KeyCode.KP_UP
+                    || code == KeyCode.F4) {
+                switcher.fire();
+                evt.consume();
+            }
+        });
+
+        updateUnitText();
+        updateUnitNotBaseUnit();
+        control.unitProperty().addListener(obs -> {
+            updateUnitText();
+            updateUnitNotBaseUnit();
+        });
+        control.getAvailableUnits().addListener((InvalidationListener) obs -> invalidateWidestUnit());
+
         updateChildren();
-        control.readOnlyProperty().addListener(obs -> updateChildren());
-        control.autoFixValueProperty().addListener(obs -> updateChildren());
+        QuantityInputFieldHelper.setSkinListener(control, this::lazyPropertyChanged);
+    }
+
+    /*
+     * Most of the properties of the field are created lazily, the skin reads their getters and is told about their
+     * changes by the field instead of binding to them, which would create them all.
+     */
+    private void lazyPropertyChanged(Observable property) {
+        switch (((ReadOnlyProperty<?>) property).getName()) {
+            case "valueDirty":
+                dirtyIcon.setVisible(getSkinnable().isValueDirty());
+                break;
+            case "readOnly":
+            case "autoFixValue":
+                updateChildren();
+                break;
+            case "baseUnit":
+                updateUnitNotBaseUnit();
+                break;
+            case "unitStringConverter":
+                updateUnitText();
+                invalidateWidestUnit();
+                break;
+            default:
+                updateEditor();
+        }
+    }
+
+    // the setters of the editor are only called for values that differ, so its own lazy properties are not created
+    private void updateEditor() {
+        QuantityInputField<Q> control = getSkinnable();
+        if (editor.getNumberOfIntegers() != control.getNumberOfIntegers()) {
+            editor.setNumberOfIntegers(control.getNumberOfIntegers());
+        }
+        if (editor.getNumberOfDecimals() != control.getNumberOfDecimals()) {
+            editor.setNumberOfDecimals(control.getNumberOfDecimals());
+        }
+        if (editor.isAllowNegatives() != control.isAllowNegatives()) {
+            editor.setAllowNegatives(control.isAllowNegatives());
+        }
+        if (!Objects.equals(editor.getMinimumValue(), control.getMinimumLimit())) {
+            editor.setMinimumValue(control.getMinimumLimit());
+        }
+        if (!Objects.equals(editor.getMaximumValue(), control.getMaximumLimit())) {
+            editor.setMaximumValue(control.getMaximumLimit());
+        }
+        if (editor.getValidator() != control.getValueValidator()) {
+            editor.setValidator(control.getValueValidator());
+        }
+        if (editor.getDoubleValidator() != control.getDoubleValueValidator()) {
+            editor.setDoubleValidator(control.getDoubleValueValidator());
+        }
+    }
+
+    private void updateUnitText() {
+        String text = convertUnitToString(getSkinnable().getUnit());
+        unitLbl.setText(text);
+        switcherLbl.setText(text);
+    }
+
+    private void updateUnitNotBaseUnit() {
+        Unit<Q> baseUnit = getSkinnable().getBaseUnit();
+        Unit<Q> unit = getSkinnable().getUnit();
+        unitNotBaseUnit.set(unit != null && baseUnit != null && !unit.equals(baseUnit));
+    }
+
+    private void invalidateWidestUnit() {
+        widestUnitWidth = -1;
+        getSkinnable().requestLayout();
     }
 
     private void updateChildren() {
@@ -108,9 +193,15 @@ public class QuantityInputFieldSkin<Q extends Quantity<Q>> extends SkinBase<Quan
     }
 
     private String convertUnitToString(Unit<Q> unit) {
+        return convertUnitToString(getSkinnable(), unit);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static String convertUnitToString(QuantityInputControl<?> control, Unit<?> unit) {
         String text = "";
-        if (getSkinnable().getUnitStringConverter() != null) {
-            text = getSkinnable().getUnitStringConverter().toString(unit);
+        StringConverter converter = control.getUnitStringConverter();
+        if (converter != null) {
+            text = converter.toString(unit);
         }
         else if (unit != null) {
             text = unit.toString();
@@ -118,9 +209,33 @@ public class QuantityInputFieldSkin<Q extends Quantity<Q>> extends SkinBase<Quan
         return text;
     }
 
+    /*
+     * The button is as wide as it is with the widest available unit, like a combo box, so the editor does not resize
+     * when the unit changes.
+     */
+    private double computeSwitcherWidth() {
+        double width = switcher.prefWidth(-1);
+        if (widestUnitWidth < 0) {
+            widestUnitWidth = 0;
+            for (Unit<Q> unit : getSkinnable().getAvailableUnits()) {
+                widestUnitWidth = Math.max(widestUnitWidth, measureText(convertUnitToString(unit)));
+            }
+        }
+        return width + Math.max(0, widestUnitWidth - measureText(switcherLbl.getText()));
+    }
+
+    private double measureText(String text) {
+        if (measuringText == null) {
+            measuringText = new Text();
+        }
+        measuringText.setFont(switcherLbl.getFont());
+        measuringText.setText(text);
+        return measuringText.getLayoutBounds().getWidth();
+    }
+
     @Override
     protected void layoutChildren(double contentX, double contentY, double contentWidth, double contentHeight) {
-        final double switcherWidth = snapSize(switcher.prefWidth(-1));
+        final double switcherWidth = snapSize(computeSwitcherWidth());
 
         final double fieldX = snapPosition(contentX);
         final double fieldY = snapPosition(contentY);
@@ -138,39 +253,7 @@ public class QuantityInputFieldSkin<Q extends Quantity<Q>> extends SkinBase<Quan
     }
 
 
-    private class UnitListCell extends ListCell<Unit<Q>> {
-
-        private final Label icon;
-        private final BooleanProperty itemNoBaseUnit = new SimpleBooleanProperty();
-
-        UnitListCell() {
-            icon = decorateUnitLabel(this, itemNoBaseUnit);
-            InvalidationListener listener = obs -> {
-                Unit<Q> baseUnit = getSkinnable().getBaseUnit();
-                Unit<Q> unit = getItem();
-                itemNoBaseUnit.set(unit != null && baseUnit != null && !unit.equals(baseUnit));
-            };
-            getSkinnable().baseUnitProperty().addListener(listener);
-            itemProperty().addListener(listener);
-            getStyleClass().add("unit-cell");
-        }
-
-        @Override
-        protected void updateItem(Unit<Q> item, boolean empty) {
-            super.updateItem(item, empty);
-            if (item != null && !empty) {
-                setText(convertUnitToString(item));
-                setGraphic(icon);
-            }
-            else {
-                setText(null);
-                setGraphic(null);
-            }
-        }
-    }
-
-
-    private static Label decorateUnitLabel(Labeled unitLabel, BooleanProperty iconVisibleProperty) {
+    static Label decorateUnitLabel(Labeled unitLabel, BooleanProperty iconVisibleProperty) {
         Label icon = new Label();
         icon.getStyleClass().add("indicator");
         icon.setPrefWidth(5);
@@ -0,0 +1,179 @@
+package com.dlsc.unitfx.skins;
+
+import com.dlsc.unitfx.QuantityInputField;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Bounds;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseButton;
+import javafx.stage.Popup;
+import javafx.stage.Window;
+
+import javax.measure.Unit;
+
+/**
+ * Unit chooser shared by all the {@link QuantityInputField quantity fields} of a window.  Only one chooser can be open
+ * at a time, so instead of a combo box with its own popup and cells per field, every field shows a light button and
+ * the single popup of its window is attached to the field being edited when the button is pressed.  The popup is
+ * created the first time a field of the window needs it and kept in the {@link Window#getProperties() properties} of
+ * the window, so it goes away with the window.
+ */
+final class UnitChooserPopup {
+
+    private static final Object WINDOW_KEY = UnitChooserPopup.class;
+
+    private static final int MAX_VISIBLE_UNITS = 10;
+    private static final double CELL_SIZE = 24;
+
+    private final Popup popup = new Popup();
+    private final ListView<Unit<?>> listView = new ListView<>();
+
+    // the field the popup is attached to while it is showing
+    private QuantityInputField<?> field;
+
+    // the selection follows the unit of the attached field, also when it is changed by the application
+    private final InvalidationListener unitListener = obs -> selectUnit();
+
+    private UnitChooserPopup(String stylesheet) {
+        listView.getStyleClass().add("unit-chooser");
+        listView.getStylesheets().add(stylesheet);
+        listView.setFixedCellSize(CELL_SIZE);
+        listView.setCellFactory(lv -> new UnitCell());
+        listView.addEventHandler(KeyEvent.KEY_PRESSED, evt -> {
+            if (evt.getCode() == KeyCode.ENTER) {
+                commit();
+            }
+            else if (evt.getCode() == KeyCode.ESCAPE) {
+                popup.hide();
+            }
+        });
+
+        popup.setAutoHide(true);
+        popup.setHideOnEscape(true);
+        popup.getContent().add(listView);
+        popup.setOnHidden(evt -> detach());
+    }
+
+    /**
+     * Shows the chooser of the window of the given field below the given anchor, with the available units of the
+     * field.  Does nothing if the field is not in a window or has no available units, the chooser is only attached to
+     * the field while the window is not showing.
+     *
+     * @param field The field whose unit is chosen.
+     * @param anchor The node the popup is shown below, usually the unit button of the field.
+     */
+    static void show(QuantityInputField<?> field, Node anchor) {
+        Window window = field.getScene() == null ? null : field.getScene().getWindow();
+        if (window == null || field.getAvailableUnits().isEmpty()) {
+            return;
+        }
+
+        UnitChooserPopup chooser = (UnitChooserPopup) window.getProperties()
+                .computeIfAbsent(WINDOW_KEY, key -> new UnitChooserPopup(field.getUserAgentStylesheet()));
+        chooser.attach(field);
+        if (window.isShowing()) {
+            chooser.showBelow(anchor);
+        }
+    }
+
+    /**
+     * @param window The window.
+     * @return The chooser of the window, {@code null} if no field of the window has shown it yet.
+     */
+    static UnitChooserPopup get(Window window) {
+        return (UnitChooserPopup) window.getProperties().get(WINDOW_KEY);
+    }
+
+    QuantityInputField<?> getField() {
+        return field;
+    }
+
+    ListView<Unit<?>> getListView() {
+        return listView;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void attach(QuantityInputField<?> field) {
+        popup.hide();
+        detach();
+        this.field = field;
+
+        listView.setItems((ObservableList) field.getAvailableUnits());
+        selectUnit();
+        field.unitProperty().addListener(unitListener);
+    }
+
+    private void selectUnit() {
+        listView.getSelectionModel().select(field.getUnit());
+        listView.scrollTo(Math.max(0, listView.getSelectionModel().getSelectedIndex()));
+    }
+
+    private void showBelow(Node anchor) {
+        Bounds bounds = anchor.localToScreen(anchor.getBoundsInLocal());
+        int visibleUnits = Math.min(MAX_VISIBLE_UNITS, field.getAvailableUnits().size());
+        listView.setPrefSize(bounds.getWidth(), visibleUnits * CELL_SIZE + listView.snappedTopInset() + listView.snappedBottomInset());
+        popup.show(anchor, bounds.getMinX(), bounds.getMaxY());
+        listView.requestFocus();
+    }
+
+    private void detach() {
+        if (field != null) {
+            field.unitProperty().removeListener(unitListener);
+        }
+        field = null;
+        listView.setItems(FXCollections.emptyObservableList());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void commit() {
+        Unit<?> unit = listView.getSelectionModel().getSelectedItem();
+        if (field != null && unit != null) {
+            ((QuantityInputField) field).setUnit(unit);
+        }
+        popup.hide();
+    }
+
+    /*
+     * Cells are shared by all the fields of the window, they read the base unit and the converter of the field the
+     * popup is attached to when they are updated.
+     */
+    private final class UnitCell extends ListCell<Unit<?>> {
+
+        private final Label icon;
+        private final BooleanProperty itemNoBaseUnit = new SimpleBooleanProperty();
+
+        UnitCell() {
+            icon = QuantityInputFieldSkin.decorateUnitLabel(this, itemNoBaseUnit);
+            getStyleClass().add("unit-cell");
+            setOnMouseClicked(evt -> {
+                if (evt.getButton() == MouseButton.PRIMARY && !isEmpty()) {
+                    commit();
+                }
+            });
+        }
+
+        @Override
+        protected void updateItem(Unit<?> item, boolean empty) {
+            super.updateItem(item, empty);
+            if (item != null && !empty && field != null) {
+                Unit<?> baseUnit = field.getBaseUnit();
+                itemNoBaseUnit.set(baseUnit != null && !item.equals(baseUnit));
+                setText(QuantityInputFieldSkin.convertUnitToString(field, item));
+                setGraphic(icon);
+            }
+            else {
+                setText(null);
+                setGraphic(null);
+            }
+        }
+    }
+
+}
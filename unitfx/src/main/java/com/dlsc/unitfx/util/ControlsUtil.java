@@ -16,7 +16,8 @@ public final class ControlsUtil {
 
     /**
      * Binds a boolean property to a style class in the given node.  Doing this the style class is switched on/off
-     * depending on the boolean property.
+     * depending on the boolean property.  Changing the style classes makes JavaFX reapply the whole CSS of the node, so
+     * for states that change often {@link #bindBooleanToPseudoclass(Node, ObservableValue, PseudoClass)} is preferred.
      *
      * @param node The node which the style class will be applied to.
      * @param booleanProperty The flag to switch on/off.
@@ -24,7 +25,12 @@ public final class ControlsUtil {
      */
     public static void bindBooleanToStyleClass(Node node, ObservableValue<Boolean> booleanProperty, String styleClass) {
         booleanProperty.addListener((obs, oldV, newV) -> {
-            if (Boolean.TRUE.equals(booleanProperty.getValue())) {
+            boolean active = Boolean.TRUE.equals(newV);
+            if (active == Boolean.TRUE.equals(oldV)) {
+                return;
+            }
+
+            if (active) {
                 if (!node.getStyleClass().contains(styleClass)) {
                     node.getStyleClass().add(styleClass);
                 }
@@ -42,7 +48,7 @@ public final class ControlsUtil {
      * @param pseudoClass The style class to be applied.
      */
     public static void bindBooleanToPseudoclass(Node node, ObservableValue<Boolean> booleanProperty, PseudoClass pseudoClass) {
-        booleanProperty.addListener((obs, oldV, newV) -> node.pseudoClassStateChanged(pseudoClass, Boolean.TRUE.equals(booleanProperty.getValue())));
+        booleanProperty.addListener((obs, oldV, newV) -> node.pseudoClassStateChanged(pseudoClass, Boolean.TRUE.equals(newV)));
     }
 
     /**
@@ -68,6 +74,37 @@ public final class ControlsUtil {
         return distance * sign;
     }
 
+    /**
+     * Calculates the distance between the angles in the same position of the given arrays, see
+     * {@link #distance(double, double)}.  The loop has no branches, which allows the JIT to vectorize it.
+     *
+     * @param alphas The initial angles.
+     * @param betas The final angles.
+     * @param result The array where the distances are written, it can be any of the input arrays.
+     * @param length The number of angles to be processed.
+     */
+    public static void distance(double[] alphas, double[] betas, double[] result, int length) {
+        for (int i = 0; i < length; i++) {
+            double phi = Math.abs(betas[i] - alphas[i]) % 360;
+            result[i] = Math.min(phi, 360 - phi);
+        }
+    }
+
+    /**
+     * Calculates the rotation between the angles in the same position of the given arrays, see
+     * {@link #rotation(double, double)}.
+     *
+     * @param alphas The initial angles.
+     * @param betas The final angles.
+     * @param result The array where the rotations are written, it can be any of the input arrays.
+     * @param length The number of angles to be processed.
+     */
+    public static void rotation(double[] alphas, double[] betas, double[] result, int length) {
+        for (int i = 0; i < length; i++) {
+            result[i] = rotation(alphas[i], betas[i]);
+        }
+    }
+
     /**
      * Calculates the x,y position of the given angle in relation with the circle represented by the middle point and radius.
      *
@@ -77,26 +114,78 @@ public final class ControlsUtil {
      * @return The point calculated.
      */
     public static Point2D calculatePointOnCircle(Point2D middle, double radius, double angle) {
-        double newAngle = Math.abs(angle) % Constants.MAX_DEGREE;
-        if (angle < 0) {
-            newAngle = Constants.MAX_DEGREE - newAngle;
-        }
-
-        final double radians = Math.toRadians(newAngle);
+        final double radians = Math.toRadians(normalizeAngle(angle));
+        return new Point2D(middle.getX() + radius * Math.cos(radians), pointY(middle.getY(), radius * Math.sin(radians)));
+    }
 
-        double tempX = radius * Math.cos(radians);
-        double tempY = radius * Math.sin(radians);
+    /**
+     * Allocation free version of {@link #calculatePointOnCircle(Point2D, double, double)}.
+     *
+     * @param middleX The x of the middle of the circle in pixel representation.
+     * @param middleY The y of the middle of the circle in pixel representation.
+     * @param radius The radius of the circle.
+     * @param angle The angle for which the point is going to be calculated.
+     * @param result The array where the point is written, x in the first position and y in the second one.
+     */
+    public static void calculatePointOnCircle(double middleX, double middleY, double radius, double angle, double[] result) {
+        final double radians = Math.toRadians(normalizeAngle(angle));
+        result[0] = middleX + radius * Math.cos(radians);
+        result[1] = pointY(middleY, radius * Math.sin(radians));
+    }
 
-        double x = middle.getX();
-        double y = middle.getY();
+    /**
+     * Calculates the x,y positions of the given angles in relation with the circle represented by the middle point and
+     * radius, see {@link #calculatePointOnCircle(Point2D, double, double)}.
+     *
+     * @param middleX The x of the middle of the circle in pixel representation.
+     * @param middleY The y of the middle of the circle in pixel representation.
+     * @param radius The radius of the circle.
+     * @param angles The angles for which the points are going to be calculated.
+     * @param xs The array where the x positions are written.
+     * @param ys The array where the y positions are written.
+     * @param length The number of angles to be processed.
+     */
+    public static void calculatePointsOnCircle(double middleX, double middleY, double radius, double[] angles, double[] xs, double[] ys, int length) {
+        for (int i = 0; i < length; i++) {
+            final double radians = Math.toRadians(normalizeAngle(angles[i]));
+            xs[i] = middleX + radius * Math.cos(radians);
+            ys[i] = pointY(middleY, radius * Math.sin(radians));
+        }
+    }
 
-        x += tempX;
+    /**
+     * Same as {@link #calculatePointsOnCircle(double, double, double, double[], double[], double[], int)} but the
+     * sine and cosine are taken from the given lookup table, which is much faster at the cost of the error documented in
+     * {@link SinCosTable#getMaxError()}.
+     *
+     * @param middleX The x of the middle of the circle in pixel representation.
+     * @param middleY The y of the middle of the circle in pixel representation.
+     * @param radius The radius of the circle.
+     * @param angles The angles for which the points are going to be calculated.
+     * @param table The lookup table used for the calculation.
+     * @param xs The array where the x positions are written.
+     * @param ys The array where the y positions are written.
+     * @param length The number of angles to be processed.
+     */
+    public static void calculatePointsOnCircle(double middleX, double middleY, double radius, double[] angles, SinCosTable table, double[] xs, double[] ys, int length) {
+        for (int i = 0; i < length; i++) {
+            xs[i] = middleX + radius * table.cos(angles[i]);
+            ys[i] = pointY(middleY, radius * table.sin(angles[i]));
+        }
+    }
 
-        y = switchPixelAndCartesian(y); // to cartesian y
-        y += tempY;
-        y = switchPixelAndCartesian(y); // to pixel y
+    private static double normalizeAngle(double angle) {
+        double newAngle = Math.abs(angle) % Constants.MAX_DEGREE;
+        if (angle < 0) {
+            newAngle = Constants.MAX_DEGREE - newAngle;
+        }
+        return newAngle;
+    }
 
-        return new Point2D(x, y);
+    private static double pointY(double middleY, double offset) {
+        double y = switchPixelAndCartesian(middleY); // to cartesian y
+        y += offset;
+        return switchPixelAndCartesian(y); // to pixel y
     }
 
     private static double switchPixelAndCartesian(double value) {
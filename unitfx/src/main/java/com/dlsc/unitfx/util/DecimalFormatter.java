@@ -0,0 +1,216 @@
+package com.dlsc.unitfx.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formats numbers with a maximum number of decimals, as the number fields show them: no grouping, no exponent, the
+ * decimal separator of the locale and half even rounding, like a {@link java.text.DecimalFormat} configured the same
+ * way.  It is meant for text updated continuously, field values and read-only displays of live values, where going
+ * through the {@link java.text.NumberFormat} machinery on every change is too slow.
+ *
+ * <p>
+ *     The text differs from the one of {@code DecimalFormat} in two ways, both chosen for text the user edits: digits
+ *     are always ASCII and the minus sign is always {@code '-'}, the characters {@link #parse(String)} accepts, and
+ *     zero is never signed.  {@code -0.0} and negative values that round to zero, e.g. {@code -0.4} with no decimals,
+ *     are written as {@code "0"} where {@code DecimalFormat} writes {@code "-0"}.
+ * </p>
+ *
+ * <p>
+ *     Values are formatted with plain long arithmetic into a buffer reused by every call, the exact and much slower
+ *     {@link BigDecimal} path is only taken for values too large for the precision of a double or that lie too close
+ *     to a rounding tie.  Instances are not thread safe, every field or display keeps its own.
+ * </p>
+ */
+public final class DecimalFormatter {
+
+    private static final int MAX_DECIMALS = 15;
+    private static final long[] POWERS_OF_TEN = new long[MAX_DECIMALS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    // scaled values below this magnitude are exact integers in a double and fit in a long
+    private static final double MAX_SCALED_VALUE = 0x1p53;
+
+    // scaled values closer than this, or than a few ulps, to a tie may round differently than the exact value
+    private static final double TIE_TOLERANCE = 1e-6;
+
+    // ties of smaller values on their first significant digit are decided by the shortest representation
+    private static final double SHORTEST_TIE_LIMIT = 1e-3;
+
+    private final char decimalSeparator;
+    private final StringBuilder buffer = new StringBuilder(32);
+
+    /**
+     * Instances a new formatter for the default format locale.
+     */
+    public DecimalFormatter() {
+        this(Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Instances a new formatter.
+     *
+     * @param locale The locale providing the decimal separator.
+     */
+    public DecimalFormatter(Locale locale) {
+        this.decimalSeparator = DecimalFormatSymbols.getInstance(locale).getDecimalSeparator();
+    }
+
+    /**
+     * @return The decimal separator of the locale of this formatter.
+     */
+    public char getDecimalSeparator() {
+        return decimalSeparator;
+    }
+
+    /**
+     * Formats the given value with up to the given decimals, trailing zeros are omitted.
+     *
+     * @param value The value.
+     * @param decimals The maximum number of decimals.
+     * @return The text.
+     */
+    public String format(double value, int decimals) {
+        buffer.setLength(0);
+        return append(buffer, value, 0, decimals).toString();
+    }
+
+    /**
+     * Formats the given value with exactly the given decimals, e.g. for values shown in columns.
+     *
+     * @param value The value.
+     * @param decimals The number of decimals.
+     * @return The text.
+     */
+    public String formatFixed(double value, int decimals) {
+        buffer.setLength(0);
+        return append(buffer, value, decimals, decimals).toString();
+    }
+
+    /**
+     * Appends the given value to the given target, with at least the minimum decimals and at most the maximum ones.
+     * {@code NaN} and infinite values are appended as {@link Double#toString(double)} does.
+     *
+     * @param target The target.
+     * @param value The value.
+     * @param minimumDecimals The minimum number of decimals, padded with zeros.
+     * @param maximumDecimals The maximum number of decimals, no more than 15 are used.
+     * @return The target.
+     */
+    public StringBuilder append(StringBuilder target, double value, int minimumDecimals, int maximumDecimals) {
+        if (minimumDecimals < 0 || minimumDecimals > maximumDecimals) {
+            throw new IllegalArgumentException("Invalid decimals: " + minimumDecimals + " - " + maximumDecimals);
+        }
+        maximumDecimals = Math.min(maximumDecimals, MAX_DECIMALS);
+        minimumDecimals = Math.min(minimumDecimals, MAX_DECIMALS);
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return target.append(value);
+        }
+
+        double scaled = Math.abs(value) * POWERS_OF_TEN[maximumDecimals];
+        if (scaled >= MAX_SCALED_VALUE || Math.abs(scaled - Math.floor(scaled) - 0.5) < Math.max(TIE_TOLERANCE, 4 * Math.ulp(scaled))) {
+            return appendExact(target, value, minimumDecimals, maximumDecimals);
+        }
+
+        long digits = (long) Math.rint(scaled);
+        int decimals = maximumDecimals;
+        while (decimals > minimumDecimals && digits % 10 == 0) {
+            digits /= 10;
+            decimals--;
+        }
+
+        if (value < 0 && digits != 0) {
+            target.append('-');
+        }
+        long integerPart = digits / POWERS_OF_TEN[decimals];
+        target.append(integerPart);
+        if (decimals > 0) {
+            target.append(decimalSeparator);
+            long decimalPart = digits - integerPart * POWERS_OF_TEN[decimals];
+            for (int i = decimals - 1; i > 0 && decimalPart < POWERS_OF_TEN[i]; i--) {
+                target.append('0');
+            }
+            target.append(decimalPart);
+        }
+        return target;
+    }
+
+    /*
+     * Same rounding as DecimalFormat: the shortest representation of the value is rounded, unless it is exactly a tie,
+     * which is decided by the exact binary value.  DecimalFormat decides the ties of values below 10^-3 that round to
+     * zero or to the first significant digit (e.g. 0.0005 with 3 decimals) by the shortest representation instead, so
+     * they round to zero.
+     */
+    private StringBuilder appendExact(StringBuilder target, double value, int minimumDecimals, int maximumDecimals) {
+        BigDecimal shortest = new BigDecimal(Double.toString(value));
+        BigDecimal truncated = shortest.setScale(maximumDecimals, RoundingMode.DOWN);
+        boolean tie = shortest.subtract(truncated).abs().movePointRight(maximumDecimals + 1).compareTo(BigDecimal.valueOf(5)) == 0;
+        boolean exactTie = tie && (truncated.signum() != 0 || Math.abs(value) >= SHORTEST_TIE_LIMIT);
+        BigDecimal decimal = (exactTie ? new BigDecimal(value) : shortest).setScale(maximumDecimals, RoundingMode.HALF_EVEN);
+        if (decimal.signum() == 0) {
+            decimal = BigDecimal.ZERO;
+        }
+        decimal = decimal.stripTrailingZeros();
+        if (decimal.scale() < minimumDecimals) {
+            decimal = decimal.setScale(minimumDecimals, RoundingMode.UNNECESSARY);
+        }
+
+        int start = target.length();
+        target.append(decimal.toPlainString());
+        if (decimalSeparator != '.') {
+            int separator = target.indexOf(".", start);
+            if (separator >= 0) {
+                target.setCharAt(separator, decimalSeparator);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Parses a number written with an optional minus sign, digits and the decimal separator of this formatter, the
+     * text the number fields accept.
+     *
+     * @param text The text.
+     * @return The number, {@code null} if the text is empty or not a number.
+     */
+    public Double parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        text = text.trim();
+
+        int length = text.length();
+        int start = length > 0 && text.charAt(0) == '-' ? 1 : 0;
+        boolean digits = false;
+        int separator = -1;
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            }
+            else if (c == decimalSeparator && separator < 0) {
+                separator = i;
+            }
+            else {
+                return null;
+            }
+        }
+        if (!digits) {
+            return null;
+        }
+
+        if (separator >= 0 && decimalSeparator != '.') {
+            text = text.substring(0, separator) + '.' + text.substring(separator + 1);
+        }
+        return Double.parseDouble(text);
+    }
+
+}
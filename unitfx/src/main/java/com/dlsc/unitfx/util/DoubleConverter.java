@@ -0,0 +1,101 @@
+package com.dlsc.unitfx.util;
+
+import tech.units.indriya.function.AddConverter;
+
+import javax.measure.UnitConverter;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Primitive version of a {@link UnitConverter}.  Indriya converters box every value and operate on {@link Number}
+ * objects, which is too slow for code that converts values continuously.  Most of the conversions between units are
+ * affine ({@code value * scale + offset}), so this class precomputes both factors once and converts with plain double
+ * arithmetic.  Conversions that are not affine (e.g. logarithmic) are delegated to the original converter.
+ *
+ * <p>
+ *     Instances are immutable and thread safe, see {@link QuantitiesUtil#getDoubleConverter(javax.measure.Unit,
+ *     javax.measure.Unit)} for cached instances.
+ * </p>
+ */
+public final class DoubleConverter implements DoubleUnaryOperator {
+
+    /**
+     * Converter that returns the values as they are.
+     */
+    public static final DoubleConverter IDENTITY = new DoubleConverter(1, 0, null);
+
+    private final double scale;
+    private final double offset;
+    private final UnitConverter converter;
+
+    private DoubleConverter(double scale, double offset, UnitConverter converter) {
+        this.scale = scale;
+        this.offset = offset;
+        this.converter = converter;
+    }
+
+    /**
+     * Creates the primitive version of the given converter.
+     *
+     * @param converter The unit converter.
+     * @return The primitive converter.
+     */
+    public static DoubleConverter of(UnitConverter converter) {
+        if (converter.isIdentity()) {
+            return IDENTITY;
+        }
+
+        if (converter.isLinear()) {
+            return new DoubleConverter(converter.convert(1.0), 0, null);
+        }
+
+        for (UnitConverter step : converter.getConversionSteps()) {
+            if (!step.isLinear() && !(step instanceof AddConverter)) {
+                return new DoubleConverter(Double.NaN, Double.NaN, converter);
+            }
+        }
+
+        double offset = converter.convert(0.0);
+        return new DoubleConverter(converter.convert(1.0) - offset, offset, null);
+    }
+
+    /**
+     * Converts the given value.
+     *
+     * @param value The value to be converted.
+     * @return The converted value.
+     */
+    public double convert(double value) {
+        if (converter != null) {
+            return converter.convert(value);
+        }
+        return value * scale + offset;
+    }
+
+    @Override
+    public double applyAsDouble(double value) {
+        return convert(value);
+    }
+
+    /**
+     * @return {@code true} if the conversion is {@code value * scale + offset}, {@code false} if the conversion is
+     * delegated to the unit converter.
+     */
+    public boolean isAffine() {
+        return converter == null;
+    }
+
+    /**
+     * @return The factor that multiplies the values, {@code NaN} if the conversion is not affine.
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * @return The offset added to the values, {@code NaN} if the conversion is not affine.
+     */
+    public double getOffset() {
+        return offset;
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.dlsc.unitfx.util;
+
+import tech.units.indriya.AbstractQuantity;
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.function.Calculus;
+import tech.units.indriya.quantity.Quantities;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.util.Objects;
+
+/**
+ * Lightweight immutable {@link Quantity} backed by a primitive double, used by the controls for the quantities they
+ * calculate on every change.  Conversions to other units use the cached {@link DoubleConverter primitive converters},
+ * the rest of the arithmetic is delegated to Indriya, so the results are the same as with Indriya quantities.
+ *
+ * <p>
+ *     Instances are interoperable with Indriya quantities: they are {@link ComparableQuantity comparable quantities},
+ *     so {@link #compareTo(Quantity)}, {@link #isGreaterThan(Quantity)} and {@link #isEquivalentTo(Quantity)} work
+ *     across units, and {@link #getValue()} returns the number narrowed the same way Indriya does, so
+ *     {@link #equals(Object)} and {@link #hashCode()} are consistent with them in both directions.
+ * </p>
+ *
+ * @param <Q> The quantity type.
+ */
+public final class DoubleQuantity<Q extends Quantity<Q>> extends AbstractQuantity<Q> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final double value;
+
+    // the value as Indriya would expose it, created on demand
+    private transient Number number;
+
+    private DoubleQuantity(double value, Unit<Q> unit) {
+        super(Objects.requireNonNull(unit), Scale.ABSOLUTE);
+        this.value = value;
+    }
+
+    /**
+     * Creates a new quantity.
+     *
+     * @param value The value.
+     * @param unit The unit.
+     * @param <Q> The quantity type.
+     * @return The quantity.
+     */
+    public static <Q extends Quantity<Q>> DoubleQuantity<Q> of(double value, Unit<Q> unit) {
+        return new DoubleQuantity<>(value, unit);
+    }
+
+    /**
+     * @return The value as primitive double, without boxing.
+     */
+    public double doubleValue() {
+        return value;
+    }
+
+    @Override
+    public Number getValue() {
+        Number number = this.number;
+        if (number == null) {
+            // Indriya does not support NaN nor infinities, they are exposed as they are
+            number = Double.isFinite(value) ? Calculus.currentNumberSystem().narrow(value) : Double.valueOf(value);
+            this.number = number;
+        }
+        return number;
+    }
+
+    @Override
+    public ComparableQuantity<Q> to(Unit<Q> unit) {
+        if (getUnit().equals(unit)) {
+            return this;
+        }
+        return new DoubleQuantity<>(QuantitiesUtil.getDoubleConverter(getUnit(), unit).convert(value), unit);
+    }
+
+    @Override
+    public ComparableQuantity<Q> add(Quantity<Q> addend) {
+        return toIndriya().add(addend);
+    }
+
+    @Override
+    public ComparableQuantity<Q> subtract(Quantity<Q> subtrahend) {
+        return toIndriya().subtract(subtrahend);
+    }
+
+    @Override
+    public ComparableQuantity<?> divide(Quantity<?> divisor) {
+        return toIndriya().divide(divisor);
+    }
+
+    @Override
+    public ComparableQuantity<Q> divide(Number divisor) {
+        return toIndriya().divide(divisor);
+    }
+
+    @Override
+    public ComparableQuantity<?> multiply(Quantity<?> multiplier) {
+        return toIndriya().multiply(multiplier);
+    }
+
+    @Override
+    public ComparableQuantity<Q> multiply(Number multiplier) {
+        return toIndriya().multiply(multiplier);
+    }
+
+    @Override
+    public ComparableQuantity<?> inverse() {
+        return toIndriya().inverse();
+    }
+
+    @Override
+    public Quantity<Q> negate() {
+        return toIndriya().negate();
+    }
+
+    private ComparableQuantity<Q> toIndriya() {
+        return Quantities.getQuantity(value, getUnit());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj instanceof DoubleQuantity) {
+            DoubleQuantity<?> that = (DoubleQuantity<?>) obj;
+            return sameValue(value, that.value) && getUnit().equals(that.getUnit());
+        }
+        if (obj instanceof Quantity) {
+            Quantity<?> that = (Quantity<?>) obj;
+            return getUnit().equals(that.getUnit()) && getScale() == that.getScale() && getValue().equals(that.getValue());
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        // 0.0 and -0.0 are both narrowed to the integer 0, NaN to the canonical Double.NaN
+        return Objects.hash(getUnit(), getScale(), getValue());
+    }
+
+    /*
+     * Equal values like Double.equals, so NaN equals itself, except that 0.0 equals -0.0 like for Indriya quantities.
+     */
+    private static boolean sameValue(double a, double b) {
+        return a == b || Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+}
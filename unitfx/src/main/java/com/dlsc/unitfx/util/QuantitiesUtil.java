@@ -4,16 +4,139 @@ import tech.units.indriya.quantity.Quantities;
 
 import javax.measure.Quantity;
 import javax.measure.Unit;
+import javax.measure.UnitConverter;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class that allows to manipulate {@link Quantity quantity} objects.
  */
 public final class QuantitiesUtil {
 
+    /**
+     * Cache of the converters between {@link Units registered units}, first keyed by the source unit and then by the
+     * target unit.  Nested maps are used so a lookup does not need to allocate a composite key.  Registered units are
+     * never removed and at most {@link Units.Registration#MAX_ID} of them exist, so the cache is bounded.
+     */
+    private static final Map<Unit<?>, Map<Unit<?>, UnitConverter>> CONVERTERS = new ConcurrentHashMap<>();
+    private static final Map<Unit<?>, Map<Unit<?>, DoubleConverter>> DOUBLE_CONVERTERS = new ConcurrentHashMap<>();
+
+    /**
+     * Converters involving units built at runtime and not registered, e.g. {@code METRE.multiply(3)}, are kept in a
+     * small cache of the most recently used pairs instead, so such units are not retained forever.
+     */
+    private static final int UNREGISTERED_CACHE_SIZE = 256;
+    private static final Map<Map.Entry<Unit<?>, Unit<?>>, UnitConverter> UNREGISTERED_CONVERTERS = createLruCache();
+    private static final Map<Map.Entry<Unit<?>, Unit<?>>, DoubleConverter> UNREGISTERED_DOUBLE_CONVERTERS = createLruCache();
+
+    private static final double QUOTIENT_TOLERANCE = 1e-9;
+
     private QuantitiesUtil() {
         super();
     }
 
+    /**
+     * Gets the converter between the two given units.  Converters are created once and cached, so repeated calls for
+     * the same pair of units are cheap and thread safe.  Only the most recently used converters of units that are not
+     * {@link Units registered} are kept.
+     *
+     * @param from The source unit.
+     * @param to The target unit.
+     * @param <Q> The quantity type.
+     * @return The cached converter.
+     */
+    public static <Q extends Quantity<Q>> UnitConverter getConverter(Unit<Q> from, Unit<Q> to) {
+        Map<Unit<?>, UnitConverter> converters = CONVERTERS.get(from);
+        UnitConverter converter = converters != null ? converters.get(to) : null;
+        if (converter != null) {
+            return converter;
+        }
+        if (!isRegistered(from, to)) {
+            synchronized (UNREGISTERED_CONVERTERS) {
+                return UNREGISTERED_CONVERTERS.computeIfAbsent(Map.entry(from, to), pair -> from.getConverterTo(to));
+            }
+        }
+        converters = CONVERTERS.computeIfAbsent(from, u -> new ConcurrentHashMap<>());
+        return converters.computeIfAbsent(to, u -> from.getConverterTo(to));
+    }
+
+    /**
+     * Gets the primitive converter between the two given units, see {@link DoubleConverter}.  Converters are created once
+     * and cached, so repeated calls for the same pair of units are cheap and thread safe.  Only the most recently used
+     * converters of units that are not {@link Units registered} are kept.
+     *
+     * @param from The source unit.
+     * @param to The target unit.
+     * @param <Q> The quantity type.
+     * @return The cached converter.
+     */
+    public static <Q extends Quantity<Q>> DoubleConverter getDoubleConverter(Unit<Q> from, Unit<Q> to) {
+        Map<Unit<?>, DoubleConverter> converters = DOUBLE_CONVERTERS.get(from);
+        DoubleConverter converter = converters != null ? converters.get(to) : null;
+        if (converter != null) {
+            return converter;
+        }
+        if (!isRegistered(from, to)) {
+            synchronized (UNREGISTERED_DOUBLE_CONVERTERS) {
+                return UNREGISTERED_DOUBLE_CONVERTERS.computeIfAbsent(Map.entry(from, to),
+                        pair -> DoubleConverter.of(getConverter(from, to)));
+            }
+        }
+        converters = DOUBLE_CONVERTERS.computeIfAbsent(from, u -> new ConcurrentHashMap<>());
+        return converters.computeIfAbsent(to, u -> DoubleConverter.of(getConverter(from, to)));
+    }
+
+    private static boolean isRegistered(Unit<?> from, Unit<?> to) {
+        Units units = Units.getInstance();
+        return units.getUnitId(from) >= 0 && units.getUnitId(to) >= 0;
+    }
+
+    private static <K, V> Map<K, V> createLruCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > UNREGISTERED_CACHE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Converts the given quantity to its system unit and returns the primitive value, the canonical key of the
+     * quantity.  Quantities of the same type always have the same system unit, so the keys of quantities in different
+     * units can be compared directly.  The conversion uses the cached {@link #getDoubleConverter(Unit, Unit) primitive
+     * converters} and does not allocate.  Zero is always returned as {@code 0.0}, never as {@code -0.0}, so equal
+     * quantities have equal keys.
+     *
+     * @param quantity The quantity.
+     * @param <Q> The quantity type.
+     * @return The value in system unit, {@code NaN} if the quantity is {@code null}.
+     */
+    public static <Q extends Quantity<Q>> double toSystemValue(Quantity<Q> quantity) {
+        if (quantity == null) {
+            return Double.NaN;
+        }
+        Unit<Q> unit = quantity.getUnit();
+        // adding 0.0 turns -0.0 into 0.0 and keeps any other value
+        return getDoubleConverter(unit, unit.getSystemUnit()).convert(quantity.getValue().doubleValue()) + 0.0;
+    }
+
+    /**
+     * Calculates the {@link #toSystemValue(Quantity) canonical keys} of all the given quantities in parallel.
+     *
+     * @param quantities The quantities, it must support fast random access.
+     * @param <Q> The quantity type.
+     * @return The values in system unit, in the same order as the quantities.
+     */
+    public static <Q extends Quantity<Q>> double[] toSystemValues(List<? extends Quantity<Q>> quantities) {
+        double[] values = new double[quantities.size()];
+        Arrays.parallelSetAll(values, i -> toSystemValue(quantities.get(i)));
+        return values;
+    }
+
     /**
      * Creates a new quantity instance using the given value and the given unit.
      *
@@ -30,6 +153,22 @@ public final class QuantitiesUtil {
         return valueQuantity;
     }
 
+    /**
+     * Creates a new {@link DoubleQuantity lightweight quantity} using the given value and the given unit.
+     *
+     * @param value The amount to be placed in the quantity instance.
+     * @param unit The unit to represent the quantity.
+     * @param <Q> The type of Quantity to be created.
+     * @return The quantity instance, {@code null} if either the value param or unit param is null.
+     */
+    public static <Q extends Quantity<Q>> Quantity<Q> createDoubleQuantity(Double value, Unit<Q> unit) {
+        Quantity<Q> valueQuantity = null;
+        if (value != null && unit != null) {
+            valueQuantity = DoubleQuantity.of(value, unit);
+        }
+        return valueQuantity;
+    }
+
     /**
      * Truncates the given quantity value to the given precision, meaning that the value is floor rounded always.
      *
@@ -47,15 +186,8 @@ public final class QuantitiesUtil {
      * @return A new quantity instance having the value truncated.
      */
     public static <Q extends Quantity<Q>> Quantity<Q> truncateQuantity(Quantity<Q> value, Quantity<Q> precision) {
-        Quantity<Q> valueInSystemUnit = value.toSystemUnit();
-        Quantity<Q> precisionInSystemUnit = precision.toSystemUnit();
-
-        Quantity<?> divideResult = valueInSystemUnit.divide(precisionInSystemUnit);
-
-        Quantity<Q> truncatedValueInPrecisionUnits = precision.multiply(divideResult.getValue().intValue());
-        Quantity<Q> truncatedValueInValueUnits = truncatedValueInPrecisionUnits.to(value.getUnit());
-
-        return truncatedValueInValueUnits;
+        long multiplier = truncateQuotient(toSystemValue(value) / toSystemValue(precision));
+        return multiplyPrecision(precision, multiplier, value.getUnit());
     }
 
     /**
@@ -76,17 +208,41 @@ public final class QuantitiesUtil {
      * @return
      */
     public static <Q extends Quantity<Q>> Quantity<Q> roundQuantity(Quantity<Q> value, Quantity<Q> precision) {
-        Quantity<Q> valueInSystemUnit = value.toSystemUnit();
-        Quantity<Q> precisionInSystemUnit = precision.toSystemUnit();
+        long multiplier = roundQuotient(toSystemValue(value) / toSystemValue(precision));
+        return multiplyPrecision(precision, multiplier, value.getUnit());
+    }
 
-        Quantity<?> divideResult = valueInSystemUnit.divide(precisionInSystemUnit);
+    /*
+     * Most decimal values have no exact double representation, so quotients that are exact in decimal (e.g. 9.415 m
+     * by 0.005 m) land slightly above or below the integer or the half they should be.  Quotients within a relative
+     * tolerance are snapped to them, which gives the results expected from exact decimal arithmetic.
+     */
+    static long truncateQuotient(double quotient) {
+        return (long) snap(quotient, Math.rint(quotient));
+    }
+
+    static long roundQuotient(double quotient) {
+        return Math.round(snap(quotient, Math.floor(quotient) + 0.5));
+    }
 
-        long multiplier = Math.round(divideResult.getValue().doubleValue());
+    private static double snap(double quotient, double target) {
+        return Math.abs(quotient - target) <= QUOTIENT_TOLERANCE * Math.max(1, Math.abs(quotient)) ? target : quotient;
+    }
 
-        Quantity<Q> truncatedValueInPrecisionUnits = precision.multiply(multiplier);
-        Quantity<Q> truncatedValueInValueUnits = truncatedValueInPrecisionUnits.to(value.getUnit());
+    /*
+     * Multiplies the precision in its own unit and converts the result to the unit of the value with the cached
+     * converters.
+     */
+    private static <Q extends Quantity<Q>> Quantity<Q> multiplyPrecision(Quantity<Q> precision, long multiplier, Unit<Q> unit) {
+        double value = multiplyPrecision(precision.getValue().doubleValue(), multiplier);
+        return DoubleQuantity.of(getDoubleConverter(precision.getUnit(), unit).convert(value), unit);
+    }
 
-        return truncatedValueInValueUnits;
+    /*
+     * The product is calculated in decimal, so 0.1 times 3 is 0.3 and not 0.30000000000000004.
+     */
+    static double multiplyPrecision(double precision, long multiplier) {
+        return BigDecimal.valueOf(precision).multiply(BigDecimal.valueOf(multiplier)).doubleValue();
     }
 
 }
@@ -0,0 +1,410 @@
+package com.dlsc.unitfx.util;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary format for quantities, much smaller and faster than formatting and parsing them as text.  Every
+ * quantity is written as the {@link Units#getUnitId(Unit) stable id} of its unit followed by its value, either as a
+ * fixed-point number, when the value has no more decimals than the codec allows, or as a raw double otherwise:
+ *
+ * <pre>
+ *     header:   'U' 'Q' version decimals
+ *     quantity: varint((unitId &lt;&lt; 1) | fixedPoint) (zigzag varint(value * 10^decimals) | 8 byte double)
+ *     null:     varint(0)
+ * </pre>
+ *
+ * <p>
+ *     Values entered in forms usually have few decimals and a small magnitude, so a codec with 2 decimals writes most
+ *     of them in two to four bytes, and the default codec in five or six bytes instead of nine.  The codec writes
+ *     straight to a {@link ByteBuffer} or an {@link OutputStream} without creating intermediate objects.  Only units
+ *     registered in {@link Units} can be written.  Instances are immutable and thread safe.
+ * </p>
+ */
+public final class QuantityCodec {
+
+    /**
+     * The version of the format written by this codec.
+     */
+    public static final int VERSION = 1;
+
+    private static final int MAGIC_0 = 'U';
+    private static final int MAGIC_1 = 'Q';
+    private static final int MAX_DECIMALS = 9;
+    private static final int DEFAULT_DECIMALS = 6;
+
+    // the largest magnitude at which every integer is exactly representable as double
+    private static final double MAX_FIXED_POINT = 0x1p53;
+
+    private final int decimals;
+    private final double factor;
+
+    /**
+     * Instances a new codec that writes values with up to 6 decimals as fixed-point numbers.
+     */
+    public QuantityCodec() {
+        this(DEFAULT_DECIMALS);
+    }
+
+    /**
+     * Instances a new codec.
+     *
+     * @param decimals The maximum decimals of the values written as fixed-point numbers, between 0 and 9.  Values with
+     *                 more decimals are written as raw doubles, so no precision is lost.
+     */
+    public QuantityCodec(int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimals must be between 0 and " + MAX_DECIMALS + ": " + decimals);
+        }
+        this.decimals = decimals;
+        this.factor = Math.pow(10, decimals);
+    }
+
+    /**
+     * @return The maximum decimals of the values written as fixed-point numbers.
+     */
+    public int getDecimals() {
+        return decimals;
+    }
+
+
+    // byte buffers
+
+    /**
+     * Writes the header that identifies the format, it must precede the quantities.
+     *
+     * @param buffer The target buffer.
+     */
+    public void writeHeader(ByteBuffer buffer) {
+        buffer.put((byte) MAGIC_0).put((byte) MAGIC_1).put((byte) VERSION).put((byte) decimals);
+    }
+
+    /**
+     * Reads a header written by {@link #writeHeader(ByteBuffer)}.
+     *
+     * @param buffer The source buffer.
+     * @return The codec to read the quantities that follow the header.
+     * @throws IllegalArgumentException If the header is not valid or its version is not supported.
+     */
+    public static QuantityCodec readHeader(ByteBuffer buffer) {
+        return createCodec(buffer.get(), buffer.get(), buffer.get(), buffer.get());
+    }
+
+    /**
+     * Writes a quantity.
+     *
+     * @param buffer The target buffer.
+     * @param quantity The quantity, can be {@code null}.
+     */
+    public void write(ByteBuffer buffer, Quantity<?> quantity) {
+        if (quantity == null) {
+            buffer.put((byte) 0);
+        }
+        else {
+            write(buffer, toDouble(quantity), quantity.getUnit());
+        }
+    }
+
+    /**
+     * Writes a quantity given by its value and unit.
+     *
+     * @param buffer The target buffer.
+     * @param value The value.
+     * @param unit The unit, it must be registered in {@link Units}.
+     */
+    public void write(ByteBuffer buffer, double value, Unit<?> unit) {
+        int unitId = getUnitId(unit);
+        long fixedPoint = toFixedPoint(value);
+        if (fixedPoint != Long.MIN_VALUE) {
+            putVarint(buffer, ((long) unitId << 1) | 1);
+            putVarint(buffer, zigzag(fixedPoint));
+        }
+        else {
+            putVarint(buffer, (long) unitId << 1);
+            buffer.putDouble(value);
+        }
+    }
+
+    /**
+     * Reads a quantity.
+     *
+     * @param buffer The source buffer.
+     * @return The quantity, {@code null} if a {@code null} quantity was written.
+     */
+    public Quantity<?> read(ByteBuffer buffer) {
+        long tag = getVarint(buffer);
+        if (tag == 0) {
+            return null;
+        }
+
+        Unit<?> unit = getUnit(tag);
+        double value = (tag & 1) != 0 ? fromFixedPoint(unzigzag(getVarint(buffer))) : buffer.getDouble();
+        return createQuantity(value, unit);
+    }
+
+
+    // streams
+
+    /**
+     * Writes the header that identifies the format, it must precede the quantities.
+     *
+     * @param out The target stream.
+     * @throws IOException If the stream fails.
+     */
+    public void writeHeader(OutputStream out) throws IOException {
+        out.write(MAGIC_0);
+        out.write(MAGIC_1);
+        out.write(VERSION);
+        out.write(decimals);
+    }
+
+    /**
+     * Reads a header written by {@link #writeHeader(OutputStream)}.
+     *
+     * @param in The source stream.
+     * @return The codec to read the quantities that follow the header.
+     * @throws IOException If the stream fails or ends.
+     * @throws IllegalArgumentException If the header is not valid or its version is not supported.
+     */
+    public static QuantityCodec readHeader(InputStream in) throws IOException {
+        return createCodec(readByte(in), readByte(in), readByte(in), readByte(in));
+    }
+
+    /**
+     * Writes a quantity.
+     *
+     * @param out The target stream.
+     * @param quantity The quantity, can be {@code null}.
+     * @throws IOException If the stream fails.
+     */
+    public void write(OutputStream out, Quantity<?> quantity) throws IOException {
+        if (quantity == null) {
+            out.write(0);
+        }
+        else {
+            write(out, toDouble(quantity), quantity.getUnit());
+        }
+    }
+
+    /**
+     * Writes a quantity given by its value and unit.
+     *
+     * @param out The target stream.
+     * @param value The value.
+     * @param unit The unit, it must be registered in {@link Units}.
+     * @throws IOException If the stream fails.
+     */
+    public void write(OutputStream out, double value, Unit<?> unit) throws IOException {
+        int unitId = getUnitId(unit);
+        long fixedPoint = toFixedPoint(value);
+        if (fixedPoint != Long.MIN_VALUE) {
+            writeVarint(out, ((long) unitId << 1) | 1);
+            writeVarint(out, zigzag(fixedPoint));
+        }
+        else {
+            writeVarint(out, (long) unitId << 1);
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                out.write((int) (bits >>> shift));
+            }
+        }
+    }
+
+    /**
+     * Reads a quantity.
+     *
+     * @param in The source stream.
+     * @return The quantity, {@code null} if a {@code null} quantity was written.
+     * @throws IOException If the stream fails or ends.
+     */
+    public Quantity<?> read(InputStream in) throws IOException {
+        long tag = readVarint(in);
+        if (tag == 0) {
+            return null;
+        }
+
+        Unit<?> unit = getUnit(tag);
+        double value;
+        if ((tag & 1) != 0) {
+            value = fromFixedPoint(unzigzag(readVarint(in)));
+        }
+        else {
+            long bits = 0;
+            for (int i = 0; i < 8; i++) {
+                bits = (bits << 8) | readByte(in);
+            }
+            value = Double.longBitsToDouble(bits);
+        }
+        return createQuantity(value, unit);
+    }
+
+
+    // snapshots
+
+    /**
+     * Encodes the given quantities, e.g. the state of a form, with the header and the number of quantities.
+     *
+     * @param quantities The quantities, can contain {@code null} values.
+     * @return The encoded bytes.
+     */
+    public byte[] encode(List<? extends Quantity<?>> quantities) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + quantities.size() * 4);
+        try {
+            writeHeader(out);
+            writeVarint(out, quantities.size());
+            for (Quantity<?> quantity : quantities) {
+                write(out, quantity);
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes quantities encoded with {@link #encode(List)}, by any codec.
+     *
+     * @param bytes The encoded bytes.
+     * @return The quantities.
+     */
+    public static List<Quantity<?>> decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        QuantityCodec codec = readHeader(buffer);
+        int size = (int) getVarint(buffer);
+        List<Quantity<?>> quantities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            quantities.add(codec.read(buffer));
+        }
+        return quantities;
+    }
+
+
+    // encoding
+
+    private static QuantityCodec createCodec(int magic0, int magic1, int version, int decimals) {
+        if (magic0 != MAGIC_0 || magic1 != MAGIC_1) {
+            throw new IllegalArgumentException("Not a quantity stream.");
+        }
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported quantity stream version: " + version);
+        }
+        return new QuantityCodec(decimals);
+    }
+
+    private static int getUnitId(Unit<?> unit) {
+        int unitId = Units.getInstance().getUnitId(unit);
+        if (unitId < 0) {
+            throw new IllegalArgumentException("Unit " + unit + " is not registered in Units.");
+        }
+        return unitId;
+    }
+
+    private static Unit<?> getUnit(long tag) {
+        Unit<?> unit = Units.getInstance().getUnitById((int) (tag >>> 1));
+        if (unit == null) {
+            throw new IllegalArgumentException("Unknown unit id: " + (tag >>> 1));
+        }
+        return unit;
+    }
+
+    /*
+     * The value of a double quantity is taken without narrowing, which would turn -0.0 into 0.
+     */
+    private static double toDouble(Quantity<?> quantity) {
+        if (quantity instanceof DoubleQuantity) {
+            return ((DoubleQuantity<?>) quantity).doubleValue();
+        }
+        return quantity.getValue().doubleValue();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Quantity<?> createQuantity(double value, Unit<?> unit) {
+        return DoubleQuantity.of(value, (Unit) unit);
+    }
+
+    /*
+     * Returns the value as fixed-point number, or Long.MIN_VALUE when the value has more decimals than allowed or is
+     * too large, so it does not survive the round trip.
+     */
+    private long toFixedPoint(double value) {
+        double scaled = value * factor;
+        if (Math.abs(scaled) < MAX_FIXED_POINT && scaled == Math.rint(scaled)) {
+            long fixedPoint = (long) scaled;
+            if (fromFixedPoint(fixedPoint) == value && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(-0.0)) {
+                return fixedPoint;
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+
+    private double fromFixedPoint(long fixedPoint) {
+        return fixedPoint / factor;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte(in);
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint.");
+    }
+
+    private static int readByte(InputStream in) throws IOException {
+        int b = in.read();
+        if (b < 0) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+}
@@ -0,0 +1,283 @@
+package com.dlsc.unitfx.util;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * Fixed size column of quantities stored off-heap as primitive doubles, for data sets far too large to be kept as
+ * {@link Quantity} objects or boxed doubles.  The values are stored in a unit registered in {@link Units}, the
+ * {@link #getStorageUnit() storage unit}, either in {@link #allocate(int, Unit) direct memory} or in a
+ * {@link #map(Path, int, Unit) memory mapped file}.  Missing values are stored as {@link Double#NaN}.
+ *
+ * <pre>
+ *     QuantityColumn&lt;Length&gt; depths = QuantityColumn.map(path, 50_000_000, Units.METRE);
+ *     QuantityColumn&lt;Length&gt; depthsInFeet = depths.view(Units.FOOT);
+ *     double depth = depthsInFeet.get(index);
+ * </pre>
+ *
+ * <p>
+ *     A {@link #view(Unit) view} shares the storage of its column and converts the values from and to its own unit
+ *     with the cached {@link QuantitiesUtil#getDoubleConverter(Unit, Unit) primitive converters}, so reading and
+ *     writing never allocates.  Single elements can be edited in place with the controls through a
+ *     {@link com.dlsc.unitfx.binding.QuantityColumnElement}.
+ * </p>
+ *
+ * <p>
+ *     This class is not thread safe, concurrent readers are fine as long as nobody writes.
+ * </p>
+ *
+ * @param <Q> The quantity type.
+ */
+public final class QuantityColumn<Q extends Quantity<Q>> {
+
+    // mapped files start with 'U' 'C', the version, a zero byte and the id of the storage unit
+    private static final int MAGIC_0 = 'U';
+    private static final int MAGIC_1 = 'C';
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final int MAX_SIZE = (Integer.MAX_VALUE - HEADER_SIZE) / Double.BYTES;
+
+    private final ByteBuffer bytes;
+    private final DoubleBuffer values;
+    private final Unit<Q> storageUnit;
+    private final Unit<Q> unit;
+    private final DoubleConverter fromStorage;
+    private final DoubleConverter toStorage;
+
+    private QuantityColumn(ByteBuffer bytes, DoubleBuffer values, Unit<Q> storageUnit, Unit<Q> unit) {
+        this.bytes = bytes;
+        this.values = values;
+        this.storageUnit = storageUnit;
+        this.unit = Objects.requireNonNull(unit);
+        this.fromStorage = QuantitiesUtil.getDoubleConverter(storageUnit, unit);
+        this.toStorage = QuantitiesUtil.getDoubleConverter(unit, storageUnit);
+    }
+
+    /**
+     * Creates a column in direct memory, all its values are missing.
+     *
+     * @param size The number of values.
+     * @param unit The storage unit, it must be registered in {@link Units}.
+     * @param <Q> The quantity type.
+     * @return The column.
+     */
+    public static <Q extends Quantity<Q>> QuantityColumn<Q> allocate(int size, Unit<Q> unit) {
+        checkUnit(unit);
+        checkSize(size);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        QuantityColumn<Q> column = new QuantityColumn<>(bytes, bytes.asDoubleBuffer(), unit, unit);
+        column.fill(0, size, Double.NaN);
+        return column;
+    }
+
+    /**
+     * Maps a column to the given file, which is created or extended as needed.  The values already in the file are
+     * kept, new values are missing.  Changes are written to the file by the operating system, see {@link #force()}.
+     *
+     * @param file The file.
+     * @param size The number of values.
+     * @param unit The storage unit, it must be registered in {@link Units} and be the unit the file was created with.
+     * @param <Q> The quantity type.
+     * @return The column.
+     * @throws IOException If the file cannot be mapped.
+     * @throws IllegalArgumentException If the file is not a column or was created with another unit.
+     */
+    public static <Q extends Quantity<Q>> QuantityColumn<Q> map(Path file, int size, Unit<Q> unit) throws IOException {
+        int unitId = checkUnit(unit);
+        checkSize(size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long length = channel.size();
+            if (length > 0 && length < HEADER_SIZE) {
+                throw new IllegalArgumentException("Not a quantity column: " + file);
+            }
+
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) size * Double.BYTES);
+            bytes.order(ByteOrder.LITTLE_ENDIAN);
+            if (length == 0) {
+                bytes.put(0, (byte) MAGIC_0).put(1, (byte) MAGIC_1).put(2, (byte) VERSION).put(3, (byte) 0).putInt(4, unitId);
+            }
+            else if (bytes.get(0) != MAGIC_0 || bytes.get(1) != MAGIC_1 || bytes.get(2) != VERSION) {
+                throw new IllegalArgumentException("Not a quantity column: " + file);
+            }
+            else if (bytes.getInt(4) != unitId) {
+                throw new IllegalArgumentException("The column " + file + " is not stored in " + unit + ".");
+            }
+
+            DoubleBuffer values = bytes.position(HEADER_SIZE).slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            QuantityColumn<Q> column = new QuantityColumn<>(bytes, values, unit, unit);
+            int existing = (int) Math.min(size, Math.max(0, length - HEADER_SIZE) / Double.BYTES);
+            column.fill(existing, size, Double.NaN);
+            return column;
+        }
+    }
+
+    private static int checkUnit(Unit<?> unit) {
+        int unitId = Units.getInstance().getUnitId(unit);
+        if (unitId < 0) {
+            throw new IllegalArgumentException("Unit " + unit + " is not registered in Units.");
+        }
+        return unitId;
+    }
+
+    private static void checkSize(int size) {
+        if (size < 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Size must be between 0 and " + MAX_SIZE + ": " + size);
+        }
+    }
+
+    /**
+     * Creates a view of this column in the given unit.  The view shares the values with this column.
+     *
+     * @param unit The unit of the view.
+     * @return The view.
+     */
+    public QuantityColumn<Q> view(Unit<Q> unit) {
+        if (this.unit.equals(unit)) {
+            return this;
+        }
+        return new QuantityColumn<>(bytes, values, storageUnit, unit);
+    }
+
+    /**
+     * @return The number of values.
+     */
+    public int size() {
+        return values.capacity();
+    }
+
+    /**
+     * @return The unit of the values read and written through this column or view.
+     */
+    public Unit<Q> getUnit() {
+        return unit;
+    }
+
+    /**
+     * @return The unit the values are stored in.
+     */
+    public Unit<Q> getStorageUnit() {
+        return storageUnit;
+    }
+
+
+    // access
+
+    /**
+     * @param index The index.
+     * @return The value in the {@link #getUnit() unit} of this column, {@code NaN} if it is missing.
+     */
+    public double get(int index) {
+        return fromStorage.convert(values.get(index));
+    }
+
+    /**
+     * @param index The index.
+     * @param value The value in the {@link #getUnit() unit} of this column, {@code NaN} to clear it.
+     */
+    public void set(int index, double value) {
+        values.put(index, toStorage.convert(value));
+    }
+
+    /**
+     * @param index The index.
+     * @return {@code true} if the value is missing.
+     */
+    public boolean isMissing(int index) {
+        return Double.isNaN(values.get(index));
+    }
+
+    /**
+     * @param index The index.
+     * @return The value as quantity in the {@link #getUnit() unit} of this column, {@code null} if it is missing.
+     */
+    public Quantity<Q> getQuantity(int index) {
+        double value = values.get(index);
+        return Double.isNaN(value) ? null : DoubleQuantity.of(fromStorage.convert(value), unit);
+    }
+
+    /**
+     * @param index The index.
+     * @param quantity The quantity in any unit, {@code null} to clear the value.
+     */
+    public void setQuantity(int index, Quantity<Q> quantity) {
+        if (quantity == null) {
+            values.put(index, Double.NaN);
+        }
+        else {
+            Unit<Q> quantityUnit = quantity.getUnit();
+            values.put(index, QuantitiesUtil.getDoubleConverter(quantityUnit, storageUnit).convert(quantity.getValue().doubleValue()));
+        }
+    }
+
+    /**
+     * Copies consecutive values to the given array.
+     *
+     * @param index The index of the first value.
+     * @param target The array that receives the values in the {@link #getUnit() unit} of this column.
+     * @param offset The position of the first value in the array.
+     * @param length The number of values.
+     */
+    public void get(int index, double[] target, int offset, int length) {
+        // the position of the shared buffer is never moved, so views and concurrent readers do not interfere
+        values.duplicate().position(index).get(target, offset, length);
+        if (fromStorage != DoubleConverter.IDENTITY) {
+            for (int i = offset; i < offset + length; i++) {
+                target[i] = fromStorage.convert(target[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies consecutive values from the given array.
+     *
+     * @param index The index of the first value.
+     * @param source The array with the values in the {@link #getUnit() unit} of this column.
+     * @param offset The position of the first value in the array.
+     * @param length The number of values.
+     */
+    public void set(int index, double[] source, int offset, int length) {
+        if (toStorage == DoubleConverter.IDENTITY) {
+            values.duplicate().position(index).put(source, offset, length);
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            values.put(index + i, toStorage.convert(source[offset + i]));
+        }
+    }
+
+    /**
+     * Sets a range of values to the same value.
+     *
+     * @param from The index of the first value, inclusive.
+     * @param to The index of the last value, exclusive.
+     * @param value The value in the {@link #getUnit() unit} of this column, {@code NaN} to clear the values.
+     */
+    public void fill(int from, int to, double value) {
+        double storageValue = toStorage.convert(value);
+        for (int i = from; i < to; i++) {
+            values.put(i, storageValue);
+        }
+    }
+
+    /**
+     * Writes the changes of a {@link #map(Path, int, Unit) mapped} column to the file, does nothing for columns in
+     * direct memory.
+     */
+    public void force() {
+        if (bytes instanceof MappedByteBuffer) {
+            ((MappedByteBuffer) bytes).force();
+        }
+    }
+
+}
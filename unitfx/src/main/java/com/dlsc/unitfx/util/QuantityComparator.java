@@ -0,0 +1,140 @@
+package com.dlsc.unitfx.util;
+
+import javax.measure.Quantity;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Compares quantities of the same type in any unit by their {@link QuantitiesUtil#toSystemValue(Quantity) canonical
+ * keys}, without allocating.  {@code null} quantities go last.  It can be used directly as the comparator of a
+ * {@code TableColumn}:
+ *
+ * <pre>
+ *     depthColumn.setComparator(QuantityComparator.getInstance());
+ * </pre>
+ *
+ * <p>
+ *     For very large tables it is faster to calculate the keys once with {@link QuantitiesUtil#toSystemValues} and
+ *     sort the rows with {@link #sortedIndices(double[])} in a custom sort policy, so each quantity is converted once
+ *     instead of once per comparison.
+ * </p>
+ *
+ * @param <Q> The quantity type.
+ */
+public final class QuantityComparator<Q extends Quantity<Q>> implements Comparator<Quantity<Q>> {
+
+    private static final QuantityComparator<?> INSTANCE = new QuantityComparator<>();
+
+    // ranges below these sizes are sorted by a single thread, or by insertion sort respectively
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+    private static final int INSERTION_THRESHOLD = 32;
+
+    private QuantityComparator() {
+        super();
+    }
+
+    /**
+     * @param <Q> The quantity type.
+     * @return The comparator.
+     */
+    @SuppressWarnings("unchecked")
+    public static <Q extends Quantity<Q>> QuantityComparator<Q> getInstance() {
+        return (QuantityComparator<Q>) INSTANCE;
+    }
+
+    @Override
+    public int compare(Quantity<Q> q1, Quantity<Q> q2) {
+        return Double.compare(QuantitiesUtil.toSystemValue(q1), QuantitiesUtil.toSystemValue(q2));
+    }
+
+    /**
+     * Sorts the positions of the given keys in parallel, the keys are not modified.  The sort is stable and follows
+     * {@link Double#compare(double, double)}, so {@code NaN} keys ({@code null} quantities) go last.
+     *
+     * @param keys The keys, usually calculated with {@link QuantitiesUtil#toSystemValues}.
+     * @return The positions of the keys in ascending order of the keys.
+     */
+    public static int[] sortedIndices(double[] keys) {
+        int[] indices = new int[keys.length];
+        Arrays.setAll(indices, i -> i);
+        int[] buffer = new int[keys.length];
+        ForkJoinPool.commonPool().invoke(new SortTask(keys, indices, buffer, 0, keys.length));
+        return indices;
+    }
+
+    /*
+     * Merge sort of the indices by their keys, the halves of large ranges are sorted in parallel.
+     */
+    private static final class SortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final double[] keys;
+        private final int[] indices;
+        private final int[] buffer;
+        private final int from;
+        private final int to;
+
+        SortTask(double[] keys, int[] indices, int[] buffer, int from, int to) {
+            this.keys = keys;
+            this.indices = indices;
+            this.buffer = buffer;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                sort(keys, indices, buffer, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new SortTask(keys, indices, buffer, from, middle), new SortTask(keys, indices, buffer, middle, to));
+            merge(keys, indices, buffer, from, middle, to);
+        }
+    }
+
+    private static void sort(double[] keys, int[] indices, int[] buffer, int from, int to) {
+        if (to - from <= INSERTION_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int index = indices[i];
+                double key = keys[index];
+                int j = i - 1;
+                while (j >= from && Double.compare(keys[indices[j]], key) > 0) {
+                    indices[j + 1] = indices[j];
+                    j--;
+                }
+                indices[j + 1] = index;
+            }
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        sort(keys, indices, buffer, from, middle);
+        sort(keys, indices, buffer, middle, to);
+        merge(keys, indices, buffer, from, middle, to);
+    }
+
+    private static void merge(double[] keys, int[] indices, int[] buffer, int from, int middle, int to) {
+        if (Double.compare(keys[indices[middle - 1]], keys[indices[middle]]) <= 0) {
+            return;
+        }
+
+        System.arraycopy(indices, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && Double.compare(keys[buffer[left]], keys[buffer[right]]) <= 0)) {
+                indices[i] = buffer[left++];
+            }
+            else {
+                indices[i] = buffer[right++];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,270 @@
+package com.dlsc.unitfx.util;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.util.Objects;
+import java.util.function.DoublePredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable description of the rules enforced by a {@link com.dlsc.unitfx.QuantityInputField quantity field}: unit,
+ * precision, bounds, negatives, digits and validator.  A field can be configured from a spec, see
+ * {@link com.dlsc.unitfx.QuantityInputField#configure(QuantityFieldSpec)}, and the same spec can check values outside
+ * of the UI, from any thread and without JavaFX, for example when importing records in a server.
+ *
+ * <pre>
+ *     QuantityFieldSpec&lt;Length&gt; spec = QuantityFieldSpec.of(Length.class, Units.METRE)
+ *             .withMaximum(Quantities.getQuantity(10, Units.KILOMETRE))
+ *             .withPrecision(Quantities.getQuantity(10, Units.CENTIMETRE));
+ * </pre>
+ *
+ * <p>
+ *     All the values handled by a spec are expressed in its {@link #getUnit() unit}.  The quantities of the spec are
+ *     converted to primitive values once, when the spec is created, so checking a value only costs a few double
+ *     operations.  The bulk methods spread the work across the cores of the machine.
+ * </p>
+ *
+ * @param <Q> The quantity type.
+ */
+public final class QuantityFieldSpec<Q extends Quantity<Q>> {
+
+    // the largest magnitude at which a double still has a fraction part
+    private static final double MAX_FRACTION_MAGNITUDE = 0x1p52;
+
+    private final Class<Q> type;
+    private final Unit<Q> unit;
+    private final Unit<Q> baseUnit;
+    private final Quantity<Q> precision;
+    private final Quantity<Q> minimum;
+    private final Quantity<Q> maximum;
+    private final boolean allowNegatives;
+    private final int numberOfIntegers;
+    private final int numberOfDecimals;
+    private final DoublePredicate validator;
+
+    // rules compiled to primitives in the unit of the spec
+    private final double minimumLimit;
+    private final double maximumLimit;
+    private final double integerLimit;
+    private final double decimalScale;
+    private final double precisionValue;
+    private final DoubleConverter toPrecisionSystemUnit;
+    private final double precisionInSystemUnit;
+    private final DoubleConverter fromPrecisionUnit;
+
+    private QuantityFieldSpec(Class<Q> type, Unit<Q> unit, Unit<Q> baseUnit, Quantity<Q> precision, Quantity<Q> minimum,
+                              Quantity<Q> maximum, boolean allowNegatives, int numberOfIntegers, int numberOfDecimals,
+                              DoublePredicate validator) {
+        if (numberOfIntegers <= 0 || numberOfDecimals < 0) {
+            throw new IllegalArgumentException("Invalid number of digits: " + numberOfIntegers + "." + numberOfDecimals);
+        }
+        if (precision != null && precision.getValue().doubleValue() <= 0) {
+            throw new IllegalArgumentException("Precision must be greater than 0.");
+        }
+
+        this.type = Objects.requireNonNull(type);
+        this.unit = Objects.requireNonNull(unit);
+        this.baseUnit = baseUnit;
+        this.precision = precision;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.allowNegatives = allowNegatives;
+        this.numberOfIntegers = numberOfIntegers;
+        this.numberOfDecimals = numberOfDecimals;
+        this.validator = validator;
+
+        minimumLimit = minimum != null ? toUnit(minimum) : Double.NEGATIVE_INFINITY;
+        maximumLimit = maximum != null ? toUnit(maximum) : Double.POSITIVE_INFINITY;
+        integerLimit = Math.pow(10, numberOfIntegers);
+        decimalScale = Math.pow(10, numberOfDecimals);
+
+        // same rounding as QuantitiesUtil.roundQuantity, the multiplier is calculated in system units
+        if (precision != null) {
+            Unit<Q> precisionUnit = precision.getUnit();
+            precisionValue = precision.getValue().doubleValue();
+            toPrecisionSystemUnit = QuantitiesUtil.getDoubleConverter(unit, unit.getSystemUnit());
+            precisionInSystemUnit = QuantitiesUtil.getDoubleConverter(precisionUnit, precisionUnit.getSystemUnit()).convert(precisionValue);
+            fromPrecisionUnit = QuantitiesUtil.getDoubleConverter(precisionUnit, unit);
+        }
+        else {
+            precisionValue = Double.NaN;
+            toPrecisionSystemUnit = null;
+            precisionInSystemUnit = Double.NaN;
+            fromPrecisionUnit = null;
+        }
+    }
+
+    /**
+     * Creates a spec with the defaults of a {@link com.dlsc.unitfx.QuantityInputField}: no precision, no bounds, no
+     * negatives and no validator.
+     *
+     * @param type The quantity type.
+     * @param unit The unit of the values.
+     * @param <Q> The quantity type.
+     * @return The spec.
+     */
+    public static <Q extends Quantity<Q>> QuantityFieldSpec<Q> of(Class<Q> type, Unit<Q> unit) {
+        return new QuantityFieldSpec<>(type, unit, null, null, null, null, false, 40, 3, null);
+    }
+
+    private double toUnit(Quantity<Q> quantity) {
+        return QuantitiesUtil.getDoubleConverter(quantity.getUnit(), unit).convert(quantity.getValue().doubleValue());
+    }
+
+    /**
+     * @param unit The unit of the values.
+     * @return A copy of this spec with the given unit.
+     */
+    public QuantityFieldSpec<Q> withUnit(Unit<Q> unit) {
+        return new QuantityFieldSpec<>(type, unit, baseUnit, precision, minimum, maximum, allowNegatives, numberOfIntegers, numberOfDecimals, validator);
+    }
+
+    /**
+     * @param baseUnit The base unit of the field.
+     * @return A copy of this spec with the given base unit.
+     */
+    public QuantityFieldSpec<Q> withBaseUnit(Unit<Q> baseUnit) {
+        return new QuantityFieldSpec<>(type, unit, baseUnit, precision, minimum, maximum, allowNegatives, numberOfIntegers, numberOfDecimals, validator);
+    }
+
+    /**
+     * @param precision The precision the values are rounded to, {@code null} for no rounding.
+     * @return A copy of this spec with the given precision.
+     */
+    public QuantityFieldSpec<Q> withPrecision(Quantity<Q> precision) {
+        return new QuantityFieldSpec<>(type, unit, baseUnit, precision, minimum, maximum, allowNegatives, numberOfIntegers, numberOfDecimals, validator);
+    }
+
+    /**
+     * @param minimum The minimum quantity allowed, {@code null} for no minimum.
+     * @return A copy of this spec with the given minimum.
+     */
+    public QuantityFieldSpec<Q> withMinimum(Quantity<Q> minimum) {
+        return new QuantityFieldSpec<>(type, unit, baseUnit, precision, minimum, maximum, allowNegatives, numberOfIntegers, numberOfDecimals, validator);
+    }
+
+    /**
+     * @param maximum The maximum quantity allowed, {@code null} for no maximum.
+     * @return A copy of this spec with the given maximum.
+     */
+    public QuantityFieldSpec<Q> withMaximum(Quantity<Q> maximum) {
+        return new QuantityFieldSpec<>(type, unit, baseUnit, precision, minimum, maximum, allowNegatives, numberOfIntegers, numberOfDecimals, validator);
+    }
+
+    /**
+     * @param allowNegatives {@code true} to allow negative values.
+     * @return A copy of this spec with the given flag.
+     */
+    public QuantityFieldSpec<Q> withAllowNegatives(boolean allowNegatives) {
+        return new QuantityFieldSpec<>(type, unit, baseUnit, precision, minimum, maximum, allowNegatives, numberOfIntegers, numberOfDecimals, validator);
+    }
+
+    /**
+     * @param numberOfIntegers The maximum digits in the integer part of the values.
+     * @param numberOfDecimals The maximum digits in the decimal part of the values.
+     * @return A copy of this spec with the given digits.
+     */
+    public QuantityFieldSpec<Q> withDigits(int numberOfIntegers, int numberOfDecimals) {
+        return new QuantityFieldSpec<>(type, unit, baseUnit, precision, minimum, maximum, allowNegatives, numberOfIntegers, numberOfDecimals, validator);
+    }
+
+    /**
+     * @param validator The validator of the values, {@code null} for no validator.  It must be thread safe.
+     * @return A copy of this spec with the given validator.
+     */
+    public QuantityFieldSpec<Q> withValidator(DoublePredicate validator) {
+        return new QuantityFieldSpec<>(type, unit, baseUnit, precision, minimum, maximum, allowNegatives, numberOfIntegers, numberOfDecimals, validator);
+    }
+
+    public Class<Q> getType() { return type; }
+
+    public Unit<Q> getUnit() { return unit; }
+
+    public Unit<Q> getBaseUnit() { return baseUnit; }
+
+    public Quantity<Q> getPrecision() { return precision; }
+
+    public Quantity<Q> getMinimum() { return minimum; }
+
+    public Quantity<Q> getMaximum() { return maximum; }
+
+    public boolean isAllowNegatives() { return allowNegatives; }
+
+    public int getNumberOfIntegers() { return numberOfIntegers; }
+
+    public int getNumberOfDecimals() { return numberOfDecimals; }
+
+    public DoublePredicate getValidator() { return validator; }
+
+
+    /**
+     * Checks the given value against the sign, the bounds, the integer digits and the validator of this spec.
+     *
+     * @param value The value in the unit of the spec.
+     * @return {@code true} if the field would accept the value.
+     */
+    public boolean isValid(double value) {
+        if (Double.isNaN(value) || (!allowNegatives && value < 0)) {
+            return false;
+        }
+        if (value < minimumLimit || value > maximumLimit || Math.abs(value) >= integerLimit) {
+            return false;
+        }
+        return validator == null || validator.test(value);
+    }
+
+    /**
+     * Rounds the given value to the precision of this spec, like the field does to calculate its quantity, and then
+     * to the number of decimals.
+     *
+     * @param value The value in the unit of the spec.
+     * @return The normalized value in the unit of the spec.
+     */
+    public double normalize(double value) {
+        if (fromPrecisionUnit != null) {
+            long multiplier = QuantitiesUtil.roundQuotient(toPrecisionSystemUnit.convert(value) / precisionInSystemUnit);
+            value = fromPrecisionUnit.convert(QuantitiesUtil.multiplyPrecision(precisionValue, multiplier));
+        }
+
+        double scaled = value * decimalScale;
+        if (Math.abs(scaled) < MAX_FRACTION_MAGNITUDE) {
+            value = Math.rint(scaled) / decimalScale;
+        }
+        return value;
+    }
+
+    /**
+     * Checks all the given values in parallel, see {@link #isValid(double)}.
+     *
+     * @param values The values in the unit of the spec.
+     * @param valid The array that receives the result of each value, at least as long as the values.
+     * @return The number of valid values.
+     */
+    public int validate(double[] values, boolean[] valid) {
+        if (valid.length < values.length) {
+            throw new IllegalArgumentException("The result array is shorter than the values.");
+        }
+
+        return IntStream.range(0, values.length).parallel().map(i -> {
+            boolean result = isValid(values[i]);
+            valid[i] = result;
+            return result ? 1 : 0;
+        }).sum();
+    }
+
+    /**
+     * Normalizes all the given values in parallel, see {@link #normalize(double)}.
+     *
+     * @param values The values in the unit of the spec.
+     * @param normalized The array that receives the normalized values, at least as long as the values.  It can be the
+     *                   same array as the values.
+     */
+    public void normalize(double[] values, double[] normalized) {
+        if (normalized.length < values.length) {
+            throw new IllegalArgumentException("The result array is shorter than the values.");
+        }
+
+        IntStream.range(0, values.length).parallel().forEach(i -> normalized[i] = normalize(values[i]));
+    }
+
+}
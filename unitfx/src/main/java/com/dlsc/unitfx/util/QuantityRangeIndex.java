@@ -0,0 +1,280 @@
+package com.dlsc.unitfx.util;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Index of quantities of one type that answers range queries in any unit, for example "depth between 30 ft and 15 m".
+ * Every quantity is stored with an id chosen by the caller, usually the position of the row holding it.
+ *
+ * <pre>
+ *     QuantityRangeIndex&lt;Length&gt; index = new QuantityRangeIndex&lt;&gt;(Length.class);
+ *     index.add(row, depth);
+ *     int[] rows = index.find(minDepthField.getValueQuantity(), maxDepthField.getValueQuantity());
+ * </pre>
+ *
+ * <p>
+ *     The values are kept as {@link QuantitiesUtil#toSystemValue(Quantity) canonical keys} in a sorted primitive
+ *     array, so a query converts its two bounds and performs two binary searches, {@code O(log n)}, before reading the
+ *     ids.  Inserting a single quantity is a binary search plus an array copy, bulk inserts are sorted in parallel.
+ *     {@code null} quantities are not indexed.
+ * </p>
+ *
+ * <p>
+ *     This class is not thread safe.
+ * </p>
+ *
+ * @param <Q> The quantity type.
+ */
+public final class QuantityRangeIndex<Q extends Quantity<Q>> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Unit<Q> systemUnit;
+
+    private double[] keys = new double[DEFAULT_CAPACITY];
+    private int[] ids = new int[DEFAULT_CAPACITY];
+    private int size;
+
+    /**
+     * Instances an empty index for the given quantity type.
+     *
+     * @param type The quantity type, it must be registered in {@link Units}.
+     */
+    public QuantityRangeIndex(Class<Q> type) {
+        Unit<Q> unit = Units.getInstance().getUnit(type);
+        if (unit == null) {
+            throw new IllegalArgumentException("No units registered for " + type.getSimpleName() + ".");
+        }
+        systemUnit = unit.getSystemUnit();
+    }
+
+    /**
+     * @return The unit the values are stored in.
+     */
+    public Unit<Q> getSystemUnit() {
+        return systemUnit;
+    }
+
+    /**
+     * @return The number of quantities indexed.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the quantities.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Adds a quantity to the index.
+     *
+     * @param id The id of the quantity.
+     * @param quantity The quantity, ignored if {@code null}.
+     */
+    public void add(int id, Quantity<Q> quantity) {
+        if (quantity != null) {
+            insert(id, toKey(quantity));
+        }
+    }
+
+    /**
+     * Adds a quantity to the index.
+     *
+     * @param id The id of the quantity.
+     * @param value The value of the quantity.
+     * @param unit The unit of the value.
+     */
+    public void add(int id, double value, Unit<Q> unit) {
+        insert(id, key(QuantitiesUtil.getDoubleConverter(unit, systemUnit).convert(value)));
+    }
+
+    /**
+     * Adds many quantities expressed in the same unit at once, faster than adding them one by one.
+     *
+     * @param ids The ids of the quantities.
+     * @param values The values of the quantities.
+     * @param unit The unit of the values.
+     */
+    public void addAll(int[] ids, double[] values, Unit<Q> unit) {
+        if (ids.length != values.length) {
+            throw new IllegalArgumentException("The number of ids and values differ.");
+        }
+
+        DoubleConverter converter = QuantitiesUtil.getDoubleConverter(unit, systemUnit);
+        double[] newKeys = new double[size + values.length];
+        int[] newIds = new int[newKeys.length];
+        System.arraycopy(keys, 0, newKeys, 0, size);
+        System.arraycopy(this.ids, 0, newIds, 0, size);
+        int count = size;
+        for (int i = 0; i < values.length; i++) {
+            double key = key(converter.convert(values[i]));
+            if (!Double.isNaN(key)) {
+                newKeys[count] = key;
+                newIds[count] = ids[i];
+                count++;
+            }
+        }
+
+        int[] order = QuantityComparator.sortedIndices(Arrays.copyOf(newKeys, count));
+        keys = new double[Math.max(DEFAULT_CAPACITY, count)];
+        this.ids = new int[keys.length];
+        for (int i = 0; i < count; i++) {
+            keys[i] = newKeys[order[i]];
+            this.ids[i] = newIds[order[i]];
+        }
+        size = count;
+    }
+
+    /**
+     * Removes a quantity from the index.
+     *
+     * @param id The id of the quantity.
+     * @param quantity The quantity the id was added with.
+     * @return {@code true} if the quantity was found and removed.
+     */
+    public boolean remove(int id, Quantity<Q> quantity) {
+        if (quantity == null) {
+            return false;
+        }
+
+        double key = toKey(quantity);
+        for (int i = lowerBound(key); i < size && Double.compare(keys[i], key) == 0; i++) {
+            if (ids[i] == id) {
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the quantities within the given bounds, both included.
+     *
+     * @param minimum The lower bound, {@code null} for no lower bound.
+     * @param maximum The upper bound, {@code null} for no upper bound.
+     * @return The number of quantities in the range.
+     */
+    public int count(Quantity<Q> minimum, Quantity<Q> maximum) {
+        double low = toKey(minimum);
+        double high = toKey(maximum);
+        return upperIndex(low, high) - lowerIndex(low, high);
+    }
+
+    /**
+     * Finds the quantities within the given bounds, both included.  The bounds can be given in any order.
+     *
+     * @param minimum The lower bound, {@code null} for no lower bound.
+     * @param maximum The upper bound, {@code null} for no upper bound.
+     * @return The ids of the quantities in the range, in ascending order of the quantities.
+     */
+    public int[] find(Quantity<Q> minimum, Quantity<Q> maximum) {
+        double low = toKey(minimum);
+        double high = toKey(maximum);
+        return Arrays.copyOfRange(ids, lowerIndex(low, high), upperIndex(low, high));
+    }
+
+    /**
+     * Calls the given action with the id of each quantity within the given bounds, both included.
+     *
+     * @param minimum The lower bound, {@code null} for no lower bound.
+     * @param maximum The upper bound, {@code null} for no upper bound.
+     * @param action The action receiving the ids, in ascending order of the quantities.
+     */
+    public void forEach(Quantity<Q> minimum, Quantity<Q> maximum, IntConsumer action) {
+        double low = toKey(minimum);
+        double high = toKey(maximum);
+        int to = upperIndex(low, high);
+        for (int i = lowerIndex(low, high); i < to; i++) {
+            action.accept(ids[i]);
+        }
+    }
+
+    private void insert(int id, double key) {
+        if (Double.isNaN(key)) {
+            return;
+        }
+
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+
+        // after the equal keys, so quantities with the same value keep the insertion order
+        int position = upperBound(key);
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        keys[position] = key;
+        ids[position] = id;
+        size++;
+    }
+
+    private double toKey(Quantity<Q> quantity) {
+        if (quantity == null) {
+            return Double.NaN;
+        }
+        return key(QuantitiesUtil.getDoubleConverter(quantity.getUnit(), systemUnit).convert(quantity.getValue().doubleValue()));
+    }
+
+    /*
+     * Stores and searches -0.0 as 0.0, the searches follow Double.compare which orders -0.0 below 0.0.
+     */
+    private static double key(double value) {
+        return value + 0.0;
+    }
+
+    private int lowerIndex(double low, double high) {
+        if (Double.isNaN(low)) {
+            return 0;
+        }
+        return lowerBound(Double.isNaN(high) ? low : Math.min(low, high));
+    }
+
+    private int upperIndex(double low, double high) {
+        if (Double.isNaN(high)) {
+            return size;
+        }
+        return upperBound(Double.isNaN(low) ? high : Math.max(low, high));
+    }
+
+    // first position whose key is not lower than the given key
+    private int lowerBound(double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Double.compare(keys[middle], key) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // first position whose key is greater than the given key
+    private int upperBound(double key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Double.compare(keys[middle], key) <= 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.dlsc.unitfx.util;
+
+/**
+ * Lookup table of sines and cosines for a fixed angular resolution, meant for drawing code that works with a known set
+ * of angles, like the ticks of a dial.  The table is immutable, so one instance can be shared by many controls and
+ * threads.
+ *
+ * <p>
+ *     The table stores {@code resolution} entries spread over a full circle, so the step between entries is
+ *     {@code 360 / resolution} degrees.  Angles that are multiples of the step are looked up exactly (the values are
+ *     calculated with {@link Math#sin(double)} and {@link Math#cos(double)}).  Any other angle is rounded to the
+ *     nearest entry, so the absolute error is at most {@code 2 * sin(PI / (2 * resolution))}, roughly
+ *     {@code PI / resolution}. For example:
+ * </p>
+ * <ul>
+ *     <li>Resolution 72 (5 degrees step): error &lt;= 0.0437</li>
+ *     <li>Resolution 360 (1 degree step): error &lt;= 0.00873</li>
+ *     <li>Resolution 3600 (0.1 degrees step): error &lt;= 0.000873</li>
+ * </ul>
+ */
+public final class SinCosTable {
+
+    private final int resolution;
+    private final double step;
+    private final double inverseStep;
+    private final double[] sin;
+    private final double[] cos;
+
+    /**
+     * Creates a new table.
+     *
+     * @param resolution The number of entries in a full circle.
+     */
+    public SinCosTable(int resolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("Resolution must be greater than 0.");
+        }
+
+        this.resolution = resolution;
+        this.step = Constants.MAX_DEGREE / resolution;
+        this.inverseStep = resolution / Constants.MAX_DEGREE;
+        this.sin = new double[resolution];
+        this.cos = new double[resolution];
+
+        for (int i = 0; i < resolution; i++) {
+            double radians = Math.toRadians(i * step);
+            sin[i] = Math.sin(radians);
+            cos[i] = Math.cos(radians);
+        }
+    }
+
+    /**
+     * @return The number of entries in a full circle.
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * @return The angle in degrees between two entries.
+     */
+    public double getStep() {
+        return step;
+    }
+
+    /**
+     * @return The maximum absolute error of {@link #sin(double)} and {@link #cos(double)} for arbitrary angles.
+     */
+    public double getMaxError() {
+        return 2 * Math.sin(Math.PI / (2 * resolution));
+    }
+
+    /**
+     * Gets the exact sine of the angle {@code index * step}.
+     *
+     * @param index The index of the entry, it can be negative or greater than the resolution.
+     * @return The sine.
+     */
+    public double sinAt(int index) {
+        return sin[Math.floorMod(index, resolution)];
+    }
+
+    /**
+     * Gets the exact cosine of the angle {@code index * step}.
+     *
+     * @param index The index of the entry, it can be negative or greater than the resolution.
+     * @return The cosine.
+     */
+    public double cosAt(int index) {
+        return cos[Math.floorMod(index, resolution)];
+    }
+
+    /**
+     * Gets the sine of the given angle rounded to the nearest entry of the table.
+     *
+     * @param degrees The angle in degrees.
+     * @return The sine.
+     */
+    public double sin(double degrees) {
+        return sin[indexOf(degrees)];
+    }
+
+    /**
+     * Gets the cosine of the given angle rounded to the nearest entry of the table.
+     *
+     * @param degrees The angle in degrees.
+     * @return The cosine.
+     */
+    public double cos(double degrees) {
+        return cos[indexOf(degrees)];
+    }
+
+    private int indexOf(double degrees) {
+        return (int) Math.floorMod(Math.round(degrees * inverseStep), (long) resolution);
+    }
+
+}
@@ -0,0 +1,294 @@
+package com.dlsc.unitfx.util;
+
+import tech.units.indriya.function.AddConverter;
+import tech.units.indriya.function.MultiplyConverter;
+import tech.units.indriya.function.RationalNumber;
+import tech.units.indriya.unit.TransformedUnit;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.UnitConverter;
+import javax.measure.quantity.Acceleration;
+import javax.measure.quantity.AmountOfSubstance;
+import javax.measure.quantity.Angle;
+import javax.measure.quantity.Area;
+import javax.measure.quantity.CatalyticActivity;
+import javax.measure.quantity.Dimensionless;
+import javax.measure.quantity.ElectricCapacitance;
+import javax.measure.quantity.ElectricCharge;
+import javax.measure.quantity.ElectricConductance;
+import javax.measure.quantity.ElectricCurrent;
+import javax.measure.quantity.ElectricInductance;
+import javax.measure.quantity.ElectricPotential;
+import javax.measure.quantity.ElectricResistance;
+import javax.measure.quantity.Energy;
+import javax.measure.quantity.Force;
+import javax.measure.quantity.Frequency;
+import javax.measure.quantity.Illuminance;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.LuminousFlux;
+import javax.measure.quantity.LuminousIntensity;
+import javax.measure.quantity.MagneticFlux;
+import javax.measure.quantity.MagneticFluxDensity;
+import javax.measure.quantity.Mass;
+import javax.measure.quantity.Power;
+import javax.measure.quantity.Pressure;
+import javax.measure.quantity.RadiationDoseAbsorbed;
+import javax.measure.quantity.RadiationDoseEffective;
+import javax.measure.quantity.Radioactivity;
+import javax.measure.quantity.SolidAngle;
+import javax.measure.quantity.Speed;
+import javax.measure.quantity.Temperature;
+import javax.measure.quantity.Time;
+import javax.measure.quantity.Volume;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit definitions loaded from a compact text file, so the units of a deployment can be changed without rebuilding.
+ * Every line defines a unit derived from a base unit, blank lines and text after {@code #} are ignored:
+ *
+ * <pre>
+ *     # id  type         symbol  base  factor    [offset]   [default]
+ *     17    Length       mi      m     1609.344
+ *     18    Length       ftUS    m     1200/3937
+ *     19    Temperature  degF    K     5/9       45967/180
+ *     20    Speed        mph     km/h  1.609344  0          default
+ * </pre>
+ *
+ * <ul>
+ *     <li>The id is the {@link Units#getUnitId(Unit) stable id} of the unit, from 1 to
+ *     {@link Units.Registration#MAX_ID}, it must not be used by another unit.</li>
+ *     <li>The type is the simple name of a quantity of {@code javax.measure.quantity} or the fully qualified name of
+ *     any other quantity interface.</li>
+ *     <li>The base is the symbol of a unit of the same type, registered in {@link Units} or defined in an earlier line
+ *     of the catalog.</li>
+ *     <li>A value in the unit is converted to the base unit as {@code value * factor + offset}, factor and offset are
+ *     written as decimal or rational numbers and kept exact.</li>
+ *     <li>{@code default} makes the unit the {@link Units#getUnit(Class) unit} of its type.</li>
+ * </ul>
+ *
+ * <p>
+ *     Parsing only builds the units, nothing is converted until a unit is used and the primitive converters are then
+ *     created and cached on demand by {@link QuantitiesUtil#getDoubleConverter(Unit, Unit)}.  All the units of a catalog
+ *     are {@link Units#registerAll(java.util.Collection) registered} at once, or none of them if the catalog is not
+ *     valid.
+ * </p>
+ */
+public final class UnitCatalog {
+
+    private static final Map<String, Class<?>> QUANTITY_TYPES = new HashMap<>();
+
+    static {
+        for (Class<?> type : List.of(Acceleration.class, AmountOfSubstance.class, Angle.class, Area.class,
+                CatalyticActivity.class, Dimensionless.class, ElectricCapacitance.class, ElectricCharge.class,
+                ElectricConductance.class, ElectricCurrent.class, ElectricInductance.class, ElectricPotential.class,
+                ElectricResistance.class, Energy.class, Force.class, Frequency.class, Illuminance.class, Length.class,
+                LuminousFlux.class, LuminousIntensity.class, MagneticFlux.class, MagneticFluxDensity.class, Mass.class,
+                Power.class, Pressure.class, RadiationDoseAbsorbed.class, RadiationDoseEffective.class,
+                Radioactivity.class, SolidAngle.class, Speed.class, Temperature.class, Time.class, Volume.class)) {
+            QUANTITY_TYPES.put(type.getSimpleName(), type);
+        }
+    }
+
+    private static final String DEFAULT_FLAG = "default";
+
+    private final List<Units.Registration<?>> registrations;
+
+    private UnitCatalog(List<Units.Registration<?>> registrations) {
+        this.registrations = Collections.unmodifiableList(registrations);
+    }
+
+    /**
+     * Loads a catalog from the given UTF-8 file.
+     *
+     * @param file The file.
+     * @return The catalog.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If a line of the file is not valid.
+     */
+    public static UnitCatalog load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Parses a catalog.
+     *
+     * @param reader The reader of the catalog text, it is not closed.
+     * @return The catalog.
+     * @throws IOException If the reader fails.
+     * @throws IllegalArgumentException If a line of the catalog is not valid.
+     */
+    public static UnitCatalog parse(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        Map<String, Units.Registration<?>> symbolToRegistration = new HashMap<>();
+        Set<Integer> ids = new HashSet<>();
+        List<Units.Registration<?>> registrations = new ArrayList<>();
+        List<String> tokens = new ArrayList<>(7);
+
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            tokenize(line, tokens);
+            if (tokens.isEmpty()) {
+                continue;
+            }
+            try {
+                Units.Registration<?> registration = parseRegistration(tokens, symbolToRegistration);
+                if (!ids.add(registration.getId())) {
+                    throw new IllegalArgumentException("Unit id " + registration.getId() + " is already defined.");
+                }
+                if (symbolToRegistration.putIfAbsent(registration.getSymbol(), registration) != null) {
+                    throw new IllegalArgumentException("Unit symbol " + registration.getSymbol() + " is already defined.");
+                }
+                registrations.add(registration);
+            }
+            catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Invalid unit at line " + lineNumber + ": " + ex.getMessage(), ex);
+            }
+        }
+        return new UnitCatalog(registrations);
+    }
+
+    private static void tokenize(String line, List<String> tokens) {
+        tokens.clear();
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            if (c == '#') {
+                return;
+            }
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(line.charAt(i)) && line.charAt(i) != '#') {
+                i++;
+            }
+            tokens.add(line.substring(start, i));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Units.Registration<?> parseRegistration(List<String> tokens, Map<String, Units.Registration<?>> symbolToRegistration) {
+        int count = tokens.size();
+        boolean baseUnit = DEFAULT_FLAG.equals(tokens.get(count - 1));
+        if (baseUnit) {
+            count--;
+        }
+        if (count < 5 || count > 6) {
+            throw new IllegalArgumentException("Expected id, type, symbol, base, factor and optional offset and flag.");
+        }
+
+        int id = parseId(tokens.get(0));
+        Class<?> type = parseType(tokens.get(1));
+        String symbol = tokens.get(2);
+
+        String baseSymbol = tokens.get(3);
+        Units.Registration<?> baseRegistration = symbolToRegistration.get(baseSymbol);
+        Unit<?> base = baseRegistration != null ? baseRegistration.getUnit() : Units.getInstance().getUnitBySymbol(baseSymbol);
+        if (base == null) {
+            throw new IllegalArgumentException("Unknown base unit " + baseSymbol);
+        }
+        Class<?> baseType = baseRegistration != null ? baseRegistration.getType() : Units.getInstance().getQuantityType(base);
+        if (baseType != type) {
+            throw new IllegalArgumentException("Base unit " + baseSymbol + " is not a " + type.getSimpleName() + " unit.");
+        }
+
+        UnitConverter converter = MultiplyConverter.ofRational(parseRational(tokens.get(4)));
+        if (count == 6) {
+            RationalNumber offset = parseRational(tokens.get(5));
+            if (offset.signum() != 0) {
+                converter = new AddConverter(offset).concatenate(converter);
+            }
+        }
+
+        Unit unit = new TransformedUnit(symbol, base, converter);
+        return Units.Registration.of(id, (Class) type, unit, symbol, baseUnit);
+    }
+
+    private static int parseId(String text) {
+        int id;
+        try {
+            id = Integer.parseInt(text);
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid id " + text);
+        }
+        if (id <= 0 || id > Units.Registration.MAX_ID) {
+            throw new IllegalArgumentException("Unit ids must be between 1 and " + Units.Registration.MAX_ID + ": " + text);
+        }
+        return id;
+    }
+
+    private static Class<?> parseType(String name) {
+        Class<?> type = QUANTITY_TYPES.get(name);
+        if (type != null) {
+            return type;
+        }
+        if (name.indexOf('.') > 0) {
+            try {
+                type = Class.forName(name);
+                if (Quantity.class.isAssignableFrom(type)) {
+                    return type;
+                }
+            }
+            catch (ClassNotFoundException ex) {
+                // reported below
+            }
+        }
+        throw new IllegalArgumentException("Unknown quantity type " + name);
+    }
+
+    private static RationalNumber parseRational(String text) {
+        try {
+            int slash = text.indexOf('/');
+            if (slash < 0) {
+                return RationalNumber.of(new BigDecimal(text));
+            }
+            BigInteger denominator = new BigInteger(text.substring(slash + 1));
+            if (denominator.signum() == 0) {
+                throw new IllegalArgumentException("Division by zero in " + text);
+            }
+            return RationalNumber.of(new BigInteger(text.substring(0, slash)), denominator);
+        }
+        catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid number " + text);
+        }
+    }
+
+    /**
+     * @return The units of the catalog, in the order they were defined.
+     */
+    public List<Units.Registration<?>> getRegistrations() {
+        return registrations;
+    }
+
+    /**
+     * Registers all the units of the catalog in {@link Units}, either all or none of them.
+     *
+     * @throws IllegalArgumentException If an id or a symbol of the catalog is already in use.
+     */
+    public void register() {
+        Units.getInstance().registerAll(registrations);
+    }
+
+}
@@ -8,6 +8,7 @@ import tech.units.indriya.function.MultiplyConverter;
 import tech.units.indriya.unit.AlternateUnit;
 import tech.units.indriya.unit.TransformedUnit;
 
+import javax.measure.Dimension;
 import javax.measure.MetricPrefix;
 import javax.measure.Quantity;
 import javax.measure.Unit;
@@ -17,11 +18,16 @@ import javax.measure.quantity.Mass;
 import javax.measure.quantity.Speed;
 import javax.measure.quantity.Temperature;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Customized system of units that incorporates all available units in all dimensions supported by
@@ -36,52 +42,51 @@ public final class Units extends AbstractSystemOfUnits {
         return INSTANCE;
     }
 
+    /*
+     * The first argument of every unit is its stable id, see getUnitId.  Ids are persisted by the QuantityCodec, so
+     * they must never be changed or reused, new units take the next free id.
+     */
+
     // Mass units
-    public static final Unit<Mass> GRAM = addUnit(Mass.class, tech.units.indriya.unit.Units.GRAM, null, true);
-    public static final Unit<Mass> MILLIGRAM = addUnit(Mass.class, MetricPrefix.MILLI(GRAM), null, false);
-    public static final Unit<Mass> KILOGRAM = addUnit(Mass.class, MetricPrefix.KILO(GRAM), null, false);
+    public static final Unit<Mass> GRAM = addUnit(1, Mass.class, tech.units.indriya.unit.Units.GRAM, null, true);
+    public static final Unit<Mass> MILLIGRAM = addUnit(2, Mass.class, MetricPrefix.MILLI(GRAM), null, false);
+    public static final Unit<Mass> KILOGRAM = addUnit(3, Mass.class, MetricPrefix.KILO(GRAM), null, false);
 
 
     // Length Units
-    public static final Unit<Length> METRE = addUnit(Length.class, tech.units.indriya.unit.Units.METRE, null, true);
-    public static final Unit<Length> CENTIMETRE = addUnit(Length.class, MetricPrefix.CENTI(METRE), null, false);
-    public static final Unit<Length> MILLIMETRE = addUnit(Length.class, MetricPrefix.MILLI(METRE), null, false);
-    public static final Unit<Length> KILOMETRE = addUnit(Length.class, MetricPrefix.KILO(METRE), null, false);
-    public static final Unit<Length> FOOT = addUnit(Length.class, new TransformedUnit<>("ft", METRE, MultiplyConverter.ofRational(3048, 10000)), "ft", false);
-    public static final Unit<Length> INCH = addUnit(Length.class, new TransformedUnit<>("in", FOOT, MultiplyConverter.ofRational(1, 12)), "in", false);
-    public static final Unit<Length> NAUTICAL_MILE = addUnit(Length.class, new TransformedUnit<>("nm", METRE, MultiplyConverter.of(1852)), "nm", false);
+    public static final Unit<Length> METRE = addUnit(4, Length.class, tech.units.indriya.unit.Units.METRE, null, true);
+    public static final Unit<Length> CENTIMETRE = addUnit(5, Length.class, MetricPrefix.CENTI(METRE), null, false);
+    public static final Unit<Length> MILLIMETRE = addUnit(6, Length.class, MetricPrefix.MILLI(METRE), null, false);
+    public static final Unit<Length> KILOMETRE = addUnit(7, Length.class, MetricPrefix.KILO(METRE), null, false);
+    public static final Unit<Length> FOOT = addUnit(8, Length.class, new TransformedUnit<>("ft", METRE, MultiplyConverter.ofRational(3048, 10000)), "ft", false);
+    public static final Unit<Length> INCH = addUnit(9, Length.class, new TransformedUnit<>("in", FOOT, MultiplyConverter.ofRational(1, 12)), "in", false);
+    public static final Unit<Length> NAUTICAL_MILE = addUnit(10, Length.class, new TransformedUnit<>("nm", METRE, MultiplyConverter.of(1852)), "nm", false);
 
 
     // Temperature
-    public static final Unit<Temperature> CELSIUS = addUnit(Temperature.class, tech.units.indriya.unit.Units.CELSIUS, null, true);
-    public static final Unit<Temperature> KELVIN = addUnit(Temperature.class, tech.units.indriya.unit.Units.KELVIN, null, false);
+    public static final Unit<Temperature> CELSIUS = addUnit(11, Temperature.class, tech.units.indriya.unit.Units.CELSIUS, null, true);
+    public static final Unit<Temperature> KELVIN = addUnit(12, Temperature.class, tech.units.indriya.unit.Units.KELVIN, null, false);
 
 
     // Angle
-    public static final Unit<Angle> DEGREE = addUnit(Angle.class, new AlternateUnit<>(AbstractUnit.ONE, "d"), null, true);
+    public static final Unit<Angle> DEGREE = addUnit(13, Angle.class, new AlternateUnit<>(AbstractUnit.ONE, "d"), null, true);
 
 
     // Speed
-    public static final Unit<Speed> METRE_PER_SECOND = addUnit(Speed.class, tech.units.indriya.unit.Units.METRE_PER_SECOND, null, false);
-    public static final Unit<Speed> KILOMETRE_PER_HOUR = addUnit(Speed.class, tech.units.indriya.unit.Units.KILOMETRE_PER_HOUR, null, true);
-    public static final Unit<Speed> KNOT = addUnit(Speed.class, NAUTICAL_MILE.divide(tech.units.indriya.unit.Units.HOUR).asType(Speed.class), "kt", false);
-
+    public static final Unit<Speed> METRE_PER_SECOND = addUnit(14, Speed.class, tech.units.indriya.unit.Units.METRE_PER_SECOND, null, false);
+    public static final Unit<Speed> KILOMETRE_PER_HOUR = addUnit(15, Speed.class, tech.units.indriya.unit.Units.KILOMETRE_PER_HOUR, null, true);
+    public static final Unit<Speed> KNOT = addUnit(16, Speed.class, NAUTICAL_MILE.divide(tech.units.indriya.unit.Units.HOUR).asType(Speed.class), "kt", false);
 
-    private static <Q extends Quantity<Q>> Unit<Q> addUnit(Class<Q> type, Unit<Q> unit, String symbol, boolean baseUnit) {
-        List<Unit<?>> units = INSTANCE.quantityToUnits.computeIfAbsent(type, t -> new ArrayList<>());
-        units.add(unit);
-        if (baseUnit) {
-            INSTANCE.quantityToUnit.put(type, unit);
-        }
-
-        if (symbol == null) {
-            return Helper.addUnit(INSTANCE.units, unit, unit.toString());
-        }
 
-        return Helper.addUnit(INSTANCE.units, unit, symbol, symbol, UnitStyle.SYMBOL_AND_LABEL);
+    private static <Q extends Quantity<Q>> Unit<Q> addUnit(int id, Class<Q> type, Unit<Q> unit, String symbol, boolean baseUnit) {
+        return INSTANCE.register(Registration.of(id, type, unit, symbol, baseUnit));
     }
 
-    private final Map<Class<? extends Quantity<?>>, List<Unit<?>>> quantityToUnits = new HashMap<>();
+    /*
+     * All the registrations are kept in an immutable snapshot, so readers on any thread never lock nor allocate.
+     * Registering units copies the snapshot and publishes the new one at once.
+     */
+    private volatile Registry registry = new Registry();
 
     private Units() {
         super();
@@ -99,14 +104,279 @@ public final class Units extends AbstractSystemOfUnits {
      * @param <Q> The quantity type.
      * @return The list of registered units in this system of units.
      */
-    @SuppressWarnings("unchecked")
+    @SuppressWarnings({"unchecked", "rawtypes"})
     public <Q extends Quantity<Q>> List<Unit<Q>> getUnits(Class<Q> type) {
-        @SuppressWarnings("rawtypes")
-        List units = Collections.unmodifiableList(Optional
-                .ofNullable(quantityToUnits.get(type))
-                .orElse(Collections.emptyList())
-        );
+        List units = registry.quantityToUnits.getOrDefault(type, Collections.emptyList());
         return units;
     }
 
+    @Override
+    public Set<Unit<?>> getUnits() {
+        return registry.units;
+    }
+
+    @Override
+    public Set<? extends Unit<?>> getUnits(Dimension dimension) {
+        return registry.dimensionToUnits.getOrDefault(dimension, Collections.emptySet());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <Q extends Quantity<Q>> Unit<Q> getUnit(Class<Q> type) {
+        return (Unit<Q>) registry.quantityToUnit.get(type);
+    }
+
+    /**
+     * Allows to get a registered unit by its symbol, e.g. {@code "km"} or {@code "ft"}.  Unlike
+     * {@link #getUnit(String)}, the lookup does not iterate over all the units.
+     *
+     * @param symbol The symbol of the unit.
+     * @return The unit, {@code null} if no unit is registered with the given symbol.
+     */
+    public Unit<?> getUnitBySymbol(String symbol) {
+        return registry.symbolToUnit.get(symbol);
+    }
+
+    /**
+     * Allows to get the quantity type a unit was registered for.
+     *
+     * @param unit The registered unit.
+     * @return The quantity type class, {@code null} if the unit is not registered.
+     */
+    public Class<? extends Quantity<?>> getQuantityType(Unit<?> unit) {
+        return registry.unitToQuantity.get(unit);
+    }
+
+    /**
+     * Allows to get the stable id of a registered unit.  Ids are assigned explicitly when the units are registered and
+     * never change, so they can be persisted, see {@link QuantityCodec}.
+     *
+     * @param unit The registered unit.
+     * @return The id of the unit, {@code -1} if the unit is not registered.
+     */
+    public int getUnitId(Unit<?> unit) {
+        Integer id = registry.unitToId.get(unit);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Allows to get a registered unit by its stable id, see {@link #getUnitId(Unit)}.
+     *
+     * @param id The id of the unit.
+     * @return The unit, {@code null} if no unit is registered with the given id.
+     */
+    public Unit<?> getUnitById(int id) {
+        Unit<?>[] idToUnit = registry.idToUnit;
+        return id >= 0 && id < idToUnit.length ? idToUnit[id] : null;
+    }
+
+
+    // registration
+
+    /**
+     * Registers an additional unit at runtime.  Registering is safe while other threads read the registry, they see
+     * either none or all of the changes.
+     *
+     * @param registration The unit to register.
+     * @param <Q> The quantity type.
+     * @return The registered unit.
+     * @throws IllegalArgumentException If the id, the unit or the symbol are already registered.
+     */
+    public <Q extends Quantity<Q>> Unit<Q> register(Registration<Q> registration) {
+        registerAll(Collections.singletonList(registration));
+        return registration.unit;
+    }
+
+    /**
+     * Registers several units at runtime at once, e.g. a whole catalog, copying the registry only once.  Either all
+     * the units are registered or none.
+     *
+     * @param registrations The units to register.
+     * @throws IllegalArgumentException If any id, unit or symbol is already registered or repeated.
+     */
+    public synchronized void registerAll(Collection<? extends Registration<?>> registrations) {
+        Registry registry = new Registry(this.registry);
+        for (Registration<?> registration : registrations) {
+            registry.add(registration);
+        }
+        registry.seal();
+
+        // the names are global to the unit formats, so they are only given once the whole batch is accepted
+        for (Registration<?> registration : registrations) {
+            name(registration);
+        }
+        this.registry = registry;
+    }
+
+    /*
+     * Names the unit for the unit formats, the set of the helper is not used.
+     */
+    private static void name(Registration<?> registration) {
+        Unit<?> unit = registration.unit;
+        if (registration.symbol == null) {
+            Helper.addUnit(new HashSet<>(), unit, unit.toString());
+        }
+        else {
+            Helper.addUnit(new HashSet<>(), unit, registration.symbol, registration.symbol, UnitStyle.SYMBOL_AND_LABEL);
+        }
+    }
+
+    /**
+     * Description of a unit to be registered.
+     *
+     * @param <Q> The quantity type.
+     */
+    public static final class Registration<Q extends Quantity<Q>> {
+
+        /**
+         * The greatest id a unit can be registered with.  Units are looked up by id in a table, and ids up to this
+         * limit are written in two bytes by the {@link QuantityCodec}.
+         */
+        public static final int MAX_ID = 4095;
+
+        private final int id;
+        private final Class<Q> type;
+        private final Unit<Q> unit;
+        private final String symbol;
+        private final boolean baseUnit;
+
+        private Registration(int id, Class<Q> type, Unit<Q> unit, String symbol, boolean baseUnit) {
+            if (id <= 0 || id > MAX_ID) {
+                throw new IllegalArgumentException("Unit ids must be between 1 and " + MAX_ID + ": " + id);
+            }
+            this.id = id;
+            this.type = Objects.requireNonNull(type);
+            this.unit = Objects.requireNonNull(unit);
+            this.symbol = symbol;
+            this.baseUnit = baseUnit;
+        }
+
+        /**
+         * Describes a unit to be registered.
+         *
+         * @param id The stable id of the unit, from 1 to {@link #MAX_ID}, see {@link Units#getUnitId(Unit)}.
+         * @param type The quantity type.
+         * @param unit The unit.
+         * @param symbol The symbol of the unit, {@code null} to use the one of the unit.
+         * @param baseUnit {@code true} if the unit becomes the {@link Units#getUnit(Class) unit} of its type.
+         * @param <Q> The quantity type.
+         * @return The registration.
+         * @throws IllegalArgumentException If the id is out of range.
+         */
+        public static <Q extends Quantity<Q>> Registration<Q> of(int id, Class<Q> type, Unit<Q> unit, String symbol, boolean baseUnit) {
+            return new Registration<>(id, type, unit, symbol, baseUnit);
+        }
+
+        /**
+         * @return The stable id of the unit.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return The quantity type.
+         */
+        public Class<Q> getType() {
+            return type;
+        }
+
+        /**
+         * @return The unit.
+         */
+        public Unit<Q> getUnit() {
+            return unit;
+        }
+
+        /**
+         * @return The symbol of the unit, {@code null} to use the one of the unit.
+         */
+        public String getSymbol() {
+            return symbol;
+        }
+
+        /**
+         * @return {@code true} if the unit becomes the unit of its type.
+         */
+        public boolean isBaseUnit() {
+            return baseUnit;
+        }
+    }
+
+    /*
+     * Snapshot of the registrations, mutable only while it is being built under the lock of registerAll.
+     */
+    private static final class Registry {
+
+        private Map<Class<?>, List<Unit<?>>> quantityToUnits;
+        private Map<Class<?>, Unit<?>> quantityToUnit;
+        private Map<String, Unit<?>> symbolToUnit;
+        private Map<Unit<?>, Integer> unitToId;
+        private Map<Unit<?>, Class<? extends Quantity<?>>> unitToQuantity;
+        private Map<Dimension, Set<Unit<?>>> dimensionToUnits;
+        private Set<Unit<?>> units;
+        private Unit<?>[] idToUnit;
+
+        Registry() {
+            quantityToUnits = Collections.emptyMap();
+            quantityToUnit = Collections.emptyMap();
+            symbolToUnit = Collections.emptyMap();
+            unitToId = Collections.emptyMap();
+            unitToQuantity = Collections.emptyMap();
+            dimensionToUnits = Collections.emptyMap();
+            units = Collections.emptySet();
+            idToUnit = new Unit<?>[0];
+        }
+
+        Registry(Registry registry) {
+            quantityToUnits = new HashMap<>();
+            registry.quantityToUnits.forEach((type, units) -> quantityToUnits.put(type, new ArrayList<>(units)));
+            quantityToUnit = new HashMap<>(registry.quantityToUnit);
+            symbolToUnit = new HashMap<>(registry.symbolToUnit);
+            unitToId = new HashMap<>(registry.unitToId);
+            unitToQuantity = new HashMap<>(registry.unitToQuantity);
+            dimensionToUnits = new HashMap<>();
+            registry.dimensionToUnits.forEach((dimension, units) -> dimensionToUnits.put(dimension, new LinkedHashSet<>(units)));
+            units = new LinkedHashSet<>(registry.units);
+            idToUnit = registry.idToUnit.clone();
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void add(Registration<?> registration) {
+            int id = registration.id;
+            Unit<?> unit = registration.unit;
+            String symbol = registration.symbol != null ? registration.symbol : unit.toString();
+            if (id < idToUnit.length && idToUnit[id] != null) {
+                throw new IllegalArgumentException("Unit id " + id + " is already in use.");
+            }
+            if (unitToId.containsKey(unit)) {
+                throw new IllegalArgumentException("Unit " + unit + " is already registered.");
+            }
+            if (symbolToUnit.containsKey(symbol)) {
+                throw new IllegalArgumentException("Unit symbol " + symbol + " is already in use.");
+            }
+
+            if (id >= idToUnit.length) {
+                // ids are at most MAX_ID, so the table stays small
+                idToUnit = Arrays.copyOf(idToUnit, Math.min(Math.max(id + 1, idToUnit.length * 2), Registration.MAX_ID + 1));
+            }
+            idToUnit[id] = unit;
+            unitToId.put(unit, id);
+            quantityToUnits.computeIfAbsent(registration.type, t -> new ArrayList<>()).add(unit);
+            symbolToUnit.put(symbol, unit);
+            unitToQuantity.put(unit, (Class) registration.type);
+            dimensionToUnits.computeIfAbsent(unit.getDimension(), d -> new LinkedHashSet<>()).add(unit);
+            units.add(unit);
+            if (registration.baseUnit) {
+                quantityToUnit.put(registration.type, unit);
+            }
+        }
+
+        void seal() {
+            quantityToUnits.replaceAll((type, units) -> Collections.unmodifiableList(units));
+            dimensionToUnits.replaceAll((dimension, units) -> Collections.unmodifiableSet(units));
+            units = Collections.unmodifiableSet(units);
+        }
+    }
+
 }
@@ -1,9 +1,12 @@
 module com.dlsc.unitfx {
     requires transitive javafx.controls;
+    requires static javafx.fxml;
     requires tech.units.indriya;
     requires tech.uom.lib.common;
 
     exports com.dlsc.unitfx;
+    exports com.dlsc.unitfx.binding;
+    exports com.dlsc.unitfx.fxml;
     exports com.dlsc.unitfx.skins;
     exports com.dlsc.unitfx.util;
 
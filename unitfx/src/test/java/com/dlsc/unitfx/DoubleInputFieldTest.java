@@ -0,0 +1,50 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.util.DecimalFormatter;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DoubleInputFieldTest {
+
+    private static final char SEPARATOR = new DecimalFormatter().getDecimalSeparator();
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void textFromTheValueFollowsTheDecimals() {
+        DoubleInputField field = new DoubleInputField();
+        field.setNumberOfDecimals(4);
+        field.setValue(1.23456);
+        assertEquals(text("1.2346"), field.getText());
+
+        field.setNumberOfDecimals(2);
+        assertEquals(text("1.23"), field.getText());
+        assertEquals(1.23456, field.getValue(), 0);
+    }
+
+    @Test
+    public void typedTextIsKeptWhenTheDecimalsChange() {
+        DoubleInputField field = new DoubleInputField();
+        field.setNumberOfDecimals(4);
+        field.setText(text("1.2345"));
+        assertEquals(1.2345, field.getValue(), 0);
+
+        field.setNumberOfDecimals(1);
+        assertEquals(text("1.2345"), field.getText());
+        assertEquals(1.2345, field.getValue(), 0);
+
+        // once the value is set again the text follows it
+        field.setValue(2.25);
+        assertEquals(text("2.2"), field.getText());
+    }
+
+    private static String text(String number) {
+        return number.replace('.', SEPARATOR);
+    }
+
+}
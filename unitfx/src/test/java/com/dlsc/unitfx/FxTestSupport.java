@@ -0,0 +1,112 @@
+package com.dlsc.unitfx;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the JavaFX toolkit once for all the tests and runs code on the FX thread.  Controls can only be created once
+ * the toolkit is running, but they can be created and used on the test thread as long as they are not in a live scene.
+ */
+public final class FxTestSupport {
+
+    private static boolean started;
+
+    private FxTestSupport() {
+        super();
+    }
+
+    /**
+     * Starts the toolkit, does nothing if it is already running.
+     */
+    public static synchronized void startToolkit() {
+        if (started) {
+            return;
+        }
+
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Platform.startup(latch::countDown);
+        }
+        catch (IllegalStateException ex) {
+            // already started by another test
+            latch.countDown();
+        }
+        Platform.setImplicitExit(false);
+        await(latch);
+        started = true;
+    }
+
+    /**
+     * Runs the given code on the FX thread and waits for it.
+     *
+     * @param callable The code.
+     * @param <T> The type of the result.
+     * @return The result of the code.
+     * @throws Exception If the code fails.
+     */
+    public static <T> T callOnFxThread(Callable<T> callable) throws Exception {
+        startToolkit();
+        if (Platform.isFxApplicationThread()) {
+            return callable.call();
+        }
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                future.complete(callable.call());
+            }
+            catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        try {
+            return future.get(30, TimeUnit.SECONDS);
+        }
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw new AssertionError(ex.getCause());
+        }
+    }
+
+    /**
+     * Runs the given code on the FX thread and waits for it.
+     *
+     * @param runnable The code.
+     * @throws Exception If the code fails.
+     */
+    public static void runOnFxThread(Runnable runnable) throws Exception {
+        callOnFxThread(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Waits until all the events already posted to the FX thread have been processed.
+     *
+     * @throws Exception If waiting fails.
+     */
+    public static void waitForFxEvents() throws Exception {
+        runOnFxThread(() -> { });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("The JavaFX toolkit did not start.");
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.util.QuantitiesUtil;
+import com.dlsc.unitfx.util.QuantityFieldSpec;
+import com.dlsc.unitfx.util.Units;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Mass;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class QuantityFormBuilderTest {
+
+    // several batches, the last one partial
+    private static final int FIELDS = 100;
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void buildsFieldsWithoutSkinsOffTheFxThread() throws Exception {
+        List<QuantityFieldSpec<?>> specs = createSpecs();
+
+        List<QuantityInputField<?>> fields = new QuantityFormBuilder().build(specs).get(30, TimeUnit.SECONDS);
+
+        assertFields(specs, fields);
+        for (QuantityInputField<?> field : fields) {
+            assertNull(field.getSkin());
+        }
+        VBox form = attach(fields);
+
+        // the skins are created on the FX thread once the fields are in a scene
+        FxTestSupport.runOnFxThread(() -> {
+            for (QuantityInputField<?> field : fields) {
+                field.setSkin(field.createDefaultSkin());
+            }
+        });
+        assertEditors(fields);
+        assertEquals(fields, form.getChildren());
+    }
+
+    @Test
+    public void buildsFieldsWithSkinsOffTheFxThread() throws Exception {
+        List<QuantityFieldSpec<?>> specs = createSpecs();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            QuantityFormBuilder builder = new QuantityFormBuilder(command -> pool.execute(() -> {
+                threads.add(Thread.currentThread());
+                command.run();
+            }), true);
+
+            List<QuantityInputField<?>> fields = builder.build(specs).get(30, TimeUnit.SECONDS);
+
+            Thread fxThread = FxTestSupport.callOnFxThread(Thread::currentThread);
+            assertFalse(threads.isEmpty());
+            assertFalse(threads.contains(fxThread));
+            assertFields(specs, fields);
+            List<Object> skins = new ArrayList<>();
+            for (QuantityInputField<?> field : fields) {
+                assertNotNull(field.getSkin());
+                skins.add(field.getSkin());
+            }
+            assertEditors(fields);
+
+            attach(fields);
+            for (int i = 0; i < fields.size(); i++) {
+                assertSame(skins.get(i), fields.get(i).getSkin());
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void buildsSingleFields() throws Exception {
+        QuantityFieldSpec<Mass> spec = QuantityFieldSpec.of(Mass.class, Units.KILOGRAM).withDigits(4, 3);
+
+        QuantityInputField<Mass> field = new QuantityFormBuilder().build(spec).get(30, TimeUnit.SECONDS);
+
+        assertSame(Units.KILOGRAM, field.getUnit());
+        assertEquals(3, field.getNumberOfDecimals());
+        assertEquals(4, field.getNumberOfIntegers());
+    }
+
+    private static List<QuantityFieldSpec<?>> createSpecs() {
+        List<QuantityFieldSpec<?>> specs = new ArrayList<>(FIELDS);
+        for (int i = 0; i < FIELDS; i++) {
+            if (i % 2 == 0) {
+                specs.add(QuantityFieldSpec.of(Length.class, i % 4 == 0 ? Units.METRE : Units.KILOMETRE)
+                        .withMaximum(QuantitiesUtil.createQuantity(1000.0 + i, Units.KILOMETRE))
+                        .withDigits(6, i % 5));
+            }
+            else {
+                specs.add(QuantityFieldSpec.of(Mass.class, Units.GRAM).withDigits(6, i % 5));
+            }
+        }
+        return specs;
+    }
+
+    private static void assertFields(List<QuantityFieldSpec<?>> specs, List<QuantityInputField<?>> fields) {
+        assertEquals(specs.size(), fields.size());
+        for (int i = 0; i < specs.size(); i++) {
+            QuantityFieldSpec<?> spec = specs.get(i);
+            QuantityInputField<?> field = fields.get(i);
+            assertSame("field " + i, spec.getUnit(), field.getUnit());
+            assertEquals("field " + i, Units.getInstance().getUnits(spec.getType()), field.getAvailableUnits());
+            assertEquals("field " + i, spec.getNumberOfDecimals(), field.getNumberOfDecimals());
+            assertEquals("field " + i, spec.getMaximum(), field.getMaximumQuantity());
+        }
+    }
+
+    private static void assertEditors(List<QuantityInputField<?>> fields) {
+        for (QuantityInputField<?> field : fields) {
+            Node editor = field.lookup(".editor");
+            assertNotNull(editor);
+            assertEquals(field.getNumberOfDecimals(), ((DoubleInputField) editor).getNumberOfDecimals());
+        }
+    }
+
+    /*
+     * Attaches the fields to a scene in one step on the FX thread, as the forms do.
+     */
+    private static VBox attach(List<QuantityInputField<?>> fields) throws Exception {
+        VBox form = FxTestSupport.callOnFxThread(() -> {
+            VBox box = new VBox();
+            box.getChildren().setAll(fields);
+            new Scene(box);
+            return box;
+        });
+        assertEquals(fields, form.getChildren());
+        for (QuantityInputField<?> field : fields) {
+            assertSame(form.getScene(), field.getScene());
+        }
+        return form;
+    }
+
+}
@@ -0,0 +1,168 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.skins.QuantityInputFieldSkin;
+import com.dlsc.unitfx.util.DecimalFormatter;
+import com.dlsc.unitfx.util.QuantitiesUtil;
+import com.dlsc.unitfx.util.Units;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.MapChangeListener;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.quantity.Length;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Counts the events sent for every user action, each action should recalculate the state of the field once.
+ */
+public class QuantityInputFieldEventsTest {
+
+    private static final char SEPARATOR = new DecimalFormatter().getDecimalSeparator();
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void valueChangeNotifiesOnce() {
+        QuantityInputField<Length> field = createField();
+        Counters counters = new Counters(field);
+
+        field.setValue(12.0);
+        counters.assertCounts(1, 0, 1, 0, 0);
+
+        field.setValue(12.5);
+        counters.assertCounts(2, 0, 2, 0, 0);
+        assertEquals(QuantitiesUtil.createQuantity(12.5, Units.KILOMETRE), field.getValueQuantity());
+    }
+
+    @Test
+    public void unitSwitchNotifiesOnce() {
+        QuantityInputField<Length> field = createField();
+        field.setValue(12.0);
+        Counters counters = new Counters(field);
+
+        field.setUnit(Units.METRE);
+
+        // each limit is set once in the new unit
+        counters.assertCounts(1, 1, 1, 1, 0);
+        assertEquals(12000, field.getValue(), 0);
+        assertEquals(QuantitiesUtil.createQuantity(12000.0, Units.METRE), field.getValueQuantity());
+    }
+
+    @Test
+    public void keystrokeNotifiesOnce() {
+        QuantityInputField<Length> field = createField();
+        field.setSkin(new QuantityInputFieldSkin<>(field));
+        DoubleInputField editor = (DoubleInputField) field.lookup(".editor");
+        Counters counters = new Counters(field);
+        AtomicInteger text = count(editor.textProperty());
+
+        editor.appendText("1");
+        counters.assertCounts(1, 0, 1, 0, 0);
+        editor.appendText("2");
+        counters.assertCounts(2, 0, 2, 0, 0);
+
+        // a trailing separator does not change the value
+        editor.appendText(String.valueOf(SEPARATOR));
+        counters.assertCounts(2, 0, 2, 0, 0);
+        editor.appendText("5");
+        counters.assertCounts(3, 0, 3, 0, 0);
+        assertEquals(4, text.get());
+    }
+
+    @Test
+    public void unitSwitchWithSkinWritesTheTextOnce() {
+        QuantityInputField<Length> field = createField();
+        field.setSkin(new QuantityInputFieldSkin<>(field));
+        DoubleInputField editor = (DoubleInputField) field.lookup(".editor");
+        field.setValue(12.5);
+        Counters counters = new Counters(field);
+        AtomicInteger text = count(editor.textProperty());
+
+        field.setUnit(Units.METRE);
+
+        counters.assertCounts(1, 1, 1, 1, 0);
+        assertEquals(1, text.get());
+        assertEquals("12500", editor.getText());
+        assertEquals(12500, editor.getValue(), 0);
+    }
+
+    @Test
+    public void unitSwitchValidatesInTheNewUnitOnce() {
+        QuantityInputField<Length> field = createField();
+        field.setAutoFixValue(false);
+        field.setUnit(Units.METRE);
+        field.setSkin(new QuantityInputFieldSkin<>(field));
+        DoubleInputField editor = (DoubleInputField) field.lookup(".editor");
+        field.setValue(500.0);
+        AtomicInteger invalid = count(editor.invalidProperty());
+
+        // the value is kept, and it is greater than the maximum in the new unit
+        field.setUnit(Units.KILOMETRE);
+
+        assertEquals(1, invalid.get());
+        assertTrue(field.isInvalid());
+        assertNull(field.getValue());
+    }
+
+    private static QuantityInputField<Length> createField() {
+        QuantityInputField<Length> field = new QuantityInputField<>();
+        field.getAvailableUnits().setAll(Units.KILOMETRE, Units.METRE);
+        field.setUnit(Units.KILOMETRE);
+        field.setAutoFixValue(true);
+        field.setNumberOfDecimals(2);
+        field.setMinimumQuantity(QuantitiesUtil.createQuantity(1.0, Units.METRE));
+        field.setMaximumQuantity(QuantitiesUtil.createQuantity(100.0, Units.KILOMETRE));
+        return field;
+    }
+
+    private static AtomicInteger count(ObservableValue<?> observable) {
+        AtomicInteger count = new AtomicInteger();
+        observable.addListener((obs, oldValue, newValue) -> count.incrementAndGet());
+        return count;
+    }
+
+    private static final class Counters {
+
+        private final AtomicInteger value;
+        private final AtomicInteger unit;
+        private final AtomicInteger quantity;
+        private final AtomicInteger minimumLimit;
+        private final AtomicInteger maximumLimit;
+        private final AtomicInteger valueDirty;
+        private final AtomicInteger invalid;
+        private final AtomicInteger properties = new AtomicInteger();
+
+        Counters(QuantityInputField<Length> field) {
+            value = count(field.valueProperty());
+            unit = count(field.unitProperty());
+            quantity = count(field.valueQuantityProperty());
+            minimumLimit = count(field.minimumLimitProperty());
+            maximumLimit = count(field.maximumLimitProperty());
+            valueDirty = count(field.valueDirtyProperty());
+            invalid = count(field.invalidProperty());
+            field.getProperties().addListener((MapChangeListener<Object, Object>) change -> properties.incrementAndGet());
+        }
+
+        void assertCounts(int value, int unit, int quantity, int limits, int invalid) {
+            assertEquals("value", value, this.value.get());
+            assertEquals("unit", unit, this.unit.get());
+            assertEquals("quantity", quantity, this.quantity.get());
+            assertEquals("minimum limit", limits, minimumLimit.get());
+            assertEquals("maximum limit", limits, maximumLimit.get());
+            assertEquals("invalid", invalid, this.invalid.get());
+            // the state is not reported through the properties of the field
+            assertEquals("properties", 0, properties.get());
+            // the value always follows the quantity, so the field is never dirty
+            assertEquals("dirty", 0, valueDirty.get());
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.skins.QuantityInputFieldSkin;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import javax.measure.quantity.Length;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Reports the retained size of a {@link QuantityInputField} with JOL, with and without skin.  The skinned fields are
+ * not shown, the toolkit used by the tests cannot lay out text.
+ */
+public class QuantityInputFieldFootprintTest {
+
+    private static final int FIELD_COUNT = 1000;
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void lazyPropertiesReduceTheFootprint() {
+        QuantityInputField<?>[] fields = createFields();
+        long untouched = bytesPerField(fields);
+
+        for (QuantityInputField<?> field : fields) {
+            touchRarelyUsedProperties(field);
+        }
+        long touched = bytesPerField(fields);
+
+        System.out.println("QuantityInputField footprint: " + untouched + " bytes per field, " + touched
+                + " bytes with all the rarely used properties created");
+        assertTrue(untouched + " >= " + touched, untouched < touched);
+    }
+
+    @Test
+    public void skinDoesNotCreateTheLazyProperties() {
+        long unskinnedSaving = -bytesPerField(createFields());
+        QuantityInputField<?>[] fields = createFields();
+        for (QuantityInputField<?> field : fields) {
+            touchRarelyUsedProperties(field);
+        }
+        unskinnedSaving += bytesPerField(fields);
+
+        fields = createFields();
+        for (QuantityInputField<?> field : fields) {
+            field.setSkin(new QuantityInputFieldSkin<>(field));
+        }
+        long untouched = bytesPerField(fields);
+        for (QuantityInputField<?> field : fields) {
+            touchRarelyUsedProperties(field);
+        }
+        long touched = bytesPerField(fields);
+
+        System.out.println("Skinned QuantityInputField footprint: " + untouched + " bytes per field, " + touched
+                + " bytes with all the rarely used properties created");
+        // the skin creates none of the properties, so creating them costs as much as without skin
+        assertEquals(unskinnedSaving, touched - untouched);
+    }
+
+    private static QuantityInputField<?>[] createFields() {
+        QuantityInputField<?>[] fields = new QuantityInputField<?>[FIELD_COUNT];
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            fields[i] = new QuantityInputField<Length>();
+        }
+        return fields;
+    }
+
+    // objects shared by all the fields, like the default style class lists, are spread across the fields
+    private static long bytesPerField(QuantityInputField<?>[] fields) {
+        GraphLayout layout = GraphLayout.parseInstance((Object) fields);
+        return (layout.totalSize() - GraphLayout.parseInstance((Object) new Object[FIELD_COUNT]).totalSize()) / FIELD_COUNT;
+    }
+
+    private static void touchRarelyUsedProperties(QuantityInputField<?> field) {
+        field.baseUnitProperty();
+        field.readOnlyProperty();
+        field.unitStringConverterProperty();
+        field.numberOfIntegersProperty();
+        field.numberOfDecimalsProperty();
+        field.precisionProperty();
+        field.precisionUnitProperty();
+        field.precisionQuantityProperty();
+        field.valueDirtyProperty();
+        field.allowNegativesProperty();
+        field.minimumValueProperty();
+        field.maximumValueProperty();
+        field.minimumQuantityProperty();
+        field.maximumQuantityProperty();
+        field.minimumLimitProperty();
+        field.maximumLimitProperty();
+        field.invalidProperty();
+        field.valueValidatorProperty();
+        field.doubleValueValidatorProperty();
+        field.autoFixValueProperty();
+    }
+
+}
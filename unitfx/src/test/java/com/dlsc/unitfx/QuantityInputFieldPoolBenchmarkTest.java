@@ -0,0 +1,128 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.skins.QuantityInputFieldSkin;
+import com.dlsc.unitfx.util.QuantitiesUtil;
+import com.dlsc.unitfx.util.QuantityFieldSpec;
+import com.dlsc.unitfx.util.Units;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.layout.VBox;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Mass;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Measures the time to switch between the pages of a form, building a page of quantity fields and discarding the
+ * previous one, with new fields and with fields from a {@link QuantityInputFieldPool}.  The skins are set directly,
+ * the toolkit used by the tests does not run the CSS pass that would create them.  The times are printed and only the
+ * results are checked, timings are not reliable enough for assertions.
+ */
+public class QuantityInputFieldPoolBenchmarkTest {
+
+    private static final int FIELDS = 200;
+    private static final int WARM_UP = 30;
+    private static final int RUNS = 50;
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void pageSwitchTimes() {
+        List<QuantityFieldSpec<?>> specs = createSpecs();
+        Scene scene = new Scene(new Group());
+        QuantityInputFieldPool pool = new QuantityInputFieldPool(FIELDS);
+
+        for (int i = 0; i < WARM_UP; i++) {
+            switchPage(scene, specs, null);
+            switchPage(scene, specs, pool);
+        }
+
+        long created = 0;
+        long pooled = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            switchPage(scene, specs, null);
+            created += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            switchPage(scene, specs, pool);
+            pooled += System.nanoTime() - start;
+        }
+
+        System.out.printf("Page switch with %d quantity fields: %.2f ms with new fields, %.2f ms with QuantityInputFieldPool%n",
+                FIELDS, created / 1e6 / RUNS, pooled / 1e6 / RUNS);
+    }
+
+    /*
+     * Discards the page shown by the scene, releasing its fields to the pool that built it if any, and shows a new
+     * page with a field per spec.
+     */
+    private static void switchPage(Scene scene, List<QuantityFieldSpec<?>> specs, QuantityInputFieldPool pool) {
+        VBox previous = scene.getRoot() instanceof VBox ? (VBox) scene.getRoot() : null;
+        if (previous != null) {
+            List<Node> fields = new ArrayList<>(previous.getChildren());
+            previous.getChildren().clear();
+            QuantityInputFieldPool previousPool = (QuantityInputFieldPool) previous.getUserData();
+            if (previousPool != null) {
+                for (Node field : fields) {
+                    previousPool.release((QuantityInputField<?>) field);
+                }
+            }
+        }
+
+        VBox page = new VBox();
+        page.setUserData(pool);
+        for (QuantityFieldSpec<?> spec : specs) {
+            page.getChildren().add(createField(spec, pool));
+        }
+        scene.setRoot(page);
+
+        assertEquals(FIELDS, page.getChildren().size());
+        QuantityInputField<?> last = (QuantityInputField<?>) page.getChildren().get(FIELDS - 1);
+        assertEquals(specs.get(FIELDS - 1).getUnit(), last.getUnit());
+        assertNull(last.getValue());
+    }
+
+    private static <Q extends Quantity<Q>> QuantityInputField<Q> createField(QuantityFieldSpec<Q> spec, QuantityInputFieldPool pool) {
+        QuantityInputField<Q> field;
+        if (pool != null) {
+            field = pool.acquire(spec);
+        }
+        else {
+            field = new QuantityInputField<>();
+            field.configure(spec);
+        }
+        if (field.getSkin() == null) {
+            field.setSkin(new QuantityInputFieldSkin<>(field));
+        }
+        return field;
+    }
+
+    private static List<QuantityFieldSpec<?>> createSpecs() {
+        List<QuantityFieldSpec<?>> specs = new ArrayList<>();
+        for (int i = 0; i < FIELDS; i++) {
+            if (i % 2 == 0) {
+                specs.add(QuantityFieldSpec.of(Length.class, i % 4 == 0 ? Units.METRE : Units.KILOMETRE)
+                        .withMinimum(QuantitiesUtil.createQuantity(0.0, Units.METRE))
+                        .withMaximum(QuantitiesUtil.createQuantity(100.0, Units.KILOMETRE))
+                        .withDigits(6, 2));
+            }
+            else {
+                specs.add(QuantityFieldSpec.of(Mass.class, Units.KILOGRAM).withDigits(4, 1));
+            }
+        }
+        return specs;
+    }
+
+}
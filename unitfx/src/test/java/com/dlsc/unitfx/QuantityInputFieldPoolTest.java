@@ -0,0 +1,136 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.skins.QuantityInputFieldSkin;
+import com.dlsc.unitfx.util.QuantitiesUtil;
+import com.dlsc.unitfx.util.QuantityFieldSpec;
+import com.dlsc.unitfx.util.Units;
+import javafx.scene.control.Skin;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.quantity.Length;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class QuantityInputFieldPoolTest {
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void releasedFieldsAreRestoredToTheDefaults() {
+        QuantityInputFieldPool pool = new QuantityInputFieldPool();
+        QuantityInputField<Length> field = pool.acquire(QuantityFieldSpec.of(Length.class, Units.METRE)
+                .withPrecision(QuantitiesUtil.createQuantity(1.0, Units.METRE))
+                .withMinimum(QuantitiesUtil.createQuantity(0.0, Units.METRE))
+                .withMaximum(QuantitiesUtil.createQuantity(10.0, Units.KILOMETRE))
+                .withAllowNegatives(true)
+                .withDigits(5, 1)
+                .withValidator(value -> value != 13));
+        Skin<?> skin = new QuantityInputFieldSkin<>(field);
+        field.setSkin(skin);
+        DoubleInputField editor = (DoubleInputField) field.lookup(".editor");
+
+        field.setValue(3.7);
+        assertTrue(field.isValueDirty());
+        editor.setText("13");
+        assertTrue(field.isInvalid());
+
+        field.setValueValidator(value -> true);
+        field.setAutoFixValue(true);
+        field.setReadOnly(true);
+        field.setId("distance");
+        field.setStyle("-fx-font-size: 20");
+        field.getStyleClass().add("route");
+        field.setDisable(true);
+        field.setVisible(false);
+        field.setManaged(false);
+        UnitPreferences preferences = new UnitPreferences();
+        preferences.follow(field, Length.class);
+
+        pool.release(field);
+        QuantityInputField<Length> reused = pool.acquire(Length.class);
+
+        assertSame(field, reused);
+        assertSame(skin, reused.getSkin());
+        assertDefaults(new QuantityInputField<>(), reused);
+        assertFalse(preferences.isFollowing(reused));
+
+        // the flags follow the editor again
+        reused.setMaximumValue(1.0);
+        editor.setText("2");
+        assertTrue(reused.isInvalid());
+    }
+
+    @Test
+    public void releasedFieldsCanBeConfiguredAgain() {
+        QuantityInputFieldPool pool = new QuantityInputFieldPool();
+        QuantityInputField<Length> field = pool.acquire(QuantityFieldSpec.of(Length.class, Units.KILOMETRE).withDigits(3, 0));
+        field.setValue(2.0);
+        pool.release(field);
+
+        QuantityInputField<Length> reused = pool.acquire(QuantityFieldSpec.of(Length.class, Units.FOOT));
+        assertSame(field, reused);
+        assertSame(Units.FOOT, reused.getUnit());
+        assertEquals(QuantityFieldSpec.of(Length.class, Units.FOOT).getNumberOfDecimals(), reused.getNumberOfDecimals());
+        assertNull(reused.getValue());
+
+        reused.setValue(2.0);
+        assertEquals(QuantitiesUtil.createQuantity(2.0, Units.FOOT), reused.getValueQuantity());
+    }
+
+    @Test
+    public void poolsKeepUpToTheMaximumSize() {
+        QuantityInputFieldPool pool = new QuantityInputFieldPool(1);
+        QuantityInputField<Length> first = pool.acquire(Length.class);
+        QuantityInputField<Length> second = pool.acquire(Length.class);
+        pool.release(first);
+        pool.release(second);
+
+        assertSame(first, pool.acquire(Length.class));
+        QuantityInputField<Length> created = pool.acquire(Length.class);
+        assertFalse(created == first || created == second);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void fieldsOfOtherPoolsAreRejected() {
+        new QuantityInputFieldPool().release(new QuantityInputField<>());
+    }
+
+    private static void assertDefaults(QuantityInputField<?> expected, QuantityInputField<?> actual) {
+        assertEquals(expected.getValue(), actual.getValue());
+        assertEquals(expected.getValueQuantity(), actual.getValueQuantity());
+        assertEquals(expected.getUnit(), actual.getUnit());
+        assertEquals(expected.getBaseUnit(), actual.getBaseUnit());
+        assertEquals(expected.getAvailableUnits(), actual.getAvailableUnits());
+        assertEquals(expected.getPrecision(), actual.getPrecision());
+        assertEquals(expected.getPrecisionUnit(), actual.getPrecisionUnit());
+        assertEquals(expected.getMinimumValue(), actual.getMinimumValue());
+        assertEquals(expected.getMaximumValue(), actual.getMaximumValue());
+        assertEquals(expected.getMinimumQuantity(), actual.getMinimumQuantity());
+        assertEquals(expected.getMaximumQuantity(), actual.getMaximumQuantity());
+        assertEquals(expected.getValueValidator(), actual.getValueValidator());
+        assertEquals(expected.getDoubleValueValidator(), actual.getDoubleValueValidator());
+        assertEquals(expected.isAllowNegatives(), actual.isAllowNegatives());
+        assertEquals(expected.isAutoFixValue(), actual.isAutoFixValue());
+        assertEquals(expected.isReadOnly(), actual.isReadOnly());
+        assertEquals(expected.getNumberOfIntegers(), actual.getNumberOfIntegers());
+        assertEquals(expected.getNumberOfDecimals(), actual.getNumberOfDecimals());
+        assertEquals(expected.isValueDirty(), actual.isValueDirty());
+        assertEquals(expected.isInvalid(), actual.isInvalid());
+        assertEquals(expected.getPseudoClassStates(), actual.getPseudoClassStates());
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getStyle(), actual.getStyle());
+        assertEquals(expected.getStyleClass(), actual.getStyleClass());
+        assertEquals(expected.isDisable(), actual.isDisable());
+        assertEquals(expected.isVisible(), actual.isVisible());
+        assertEquals(expected.isManaged(), actual.isManaged());
+    }
+
+}
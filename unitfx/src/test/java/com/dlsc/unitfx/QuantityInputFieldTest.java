@@ -0,0 +1,99 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.skins.QuantityInputFieldSkin;
+import com.dlsc.unitfx.util.QuantityFieldSpec;
+import com.dlsc.unitfx.util.Units;
+import javafx.css.PseudoClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import tech.units.indriya.function.MultiplyConverter;
+import tech.units.indriya.unit.TransformedUnit;
+
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Time;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QuantityInputFieldTest {
+
+    private static final PseudoClass INVALID = PseudoClass.getPseudoClass("invalid");
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void configureUsesTheRegisteredUnits() {
+        QuantityInputField<Length> field = new QuantityInputField<>();
+        field.configure(QuantityFieldSpec.of(Length.class, Units.KILOMETRE));
+
+        assertEquals(Units.getInstance().getUnits(Length.class), field.getAvailableUnits());
+        assertEquals(Units.KILOMETRE, field.getUnit());
+    }
+
+    @Test
+    public void configureAddsAnUnregisteredUnit() {
+        Unit<Length> yard = new TransformedUnit<>("yd", Units.METRE, MultiplyConverter.ofRational(9144, 10000));
+        QuantityInputField<Length> field = new QuantityInputField<>();
+        field.configure(QuantityFieldSpec.of(Length.class, yard));
+
+        List<Unit<Length>> expected = new ArrayList<>();
+        expected.add(yard);
+        expected.addAll(Units.getInstance().getUnits(Length.class));
+        assertEquals(expected, field.getAvailableUnits());
+        assertEquals(yard, field.getUnit());
+    }
+
+    @Test
+    public void configureWithoutRegisteredUnitsUsesTheUnitOfTheSpec() {
+        QuantityInputField<Time> field = new QuantityInputField<>();
+        field.configure(QuantityFieldSpec.of(Time.class, tech.units.indriya.unit.Units.SECOND));
+
+        assertEquals(List.of(tech.units.indriya.unit.Units.SECOND), field.getAvailableUnits());
+        assertEquals(tech.units.indriya.unit.Units.SECOND, field.getUnit());
+    }
+
+    @Test
+    public void skinFollowsThePropertiesCreatedAfterIt() {
+        QuantityInputField<Length> field = new QuantityInputField<>();
+        field.configure(QuantityFieldSpec.of(Length.class, Units.METRE));
+        field.setSkin(new QuantityInputFieldSkin<>(field));
+        DoubleInputField editor = (DoubleInputField) field.lookup(".editor");
+
+        field.setNumberOfDecimals(1);
+        field.setMaximumValue(5.0);
+        field.setAllowNegatives(true);
+        assertEquals(1, editor.getNumberOfDecimals());
+        assertEquals(5.0, editor.getMaximumValue(), 0);
+        assertTrue(editor.isAllowNegatives());
+
+        field.setReadOnly(true);
+        assertFalse(field.getChildrenUnmodifiable().contains(editor));
+        field.setReadOnly(false);
+        assertTrue(field.getChildrenUnmodifiable().contains(editor));
+    }
+
+    @Test
+    public void invalidStateFollowsTheEditor() {
+        QuantityInputField<Length> field = new QuantityInputField<>();
+        field.configure(QuantityFieldSpec.of(Length.class, Units.METRE));
+        field.setMaximumValue(10.0);
+        field.setSkin(new QuantityInputFieldSkin<>(field));
+        DoubleInputField editor = (DoubleInputField) field.lookup(".editor");
+
+        editor.setText("12");
+        assertTrue(field.isInvalid());
+        assertTrue(field.getPseudoClassStates().contains(INVALID));
+
+        editor.setText("8");
+        assertFalse(field.isInvalid());
+        assertFalse(field.getPseudoClassStates().contains(INVALID));
+    }
+
+}
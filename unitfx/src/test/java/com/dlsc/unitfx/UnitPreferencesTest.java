@@ -0,0 +1,124 @@
+package com.dlsc.unitfx;
+
+import com.dlsc.unitfx.util.Units;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.Unit;
+import javax.measure.quantity.Angle;
+import javax.measure.quantity.Length;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class UnitPreferencesTest {
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void changesOfTheSamePulseSwitchTheUnitOnce() throws Exception {
+        UnitPreferences preferences = new UnitPreferences();
+        QuantityInputField<Length> field = createField(Units.METRE);
+        field.setAutoFixValue(true);
+        AtomicInteger unitChanges = countUnitChanges(field);
+
+        FxTestSupport.runOnFxThread(() -> {
+            preferences.follow(field, Length.class);
+            preferences.follow(field, Length.class);
+            preferences.setPreferredUnit(Length.class, Units.KILOMETRE);
+            preferences.setPreferredUnit(Length.class, Units.FOOT);
+            assertEquals(Units.METRE, field.getUnit());
+        });
+        FxTestSupport.waitForFxEvents();
+
+        assertEquals(Units.FOOT, field.getUnit());
+        assertEquals(1, unitChanges.get());
+        assertEquals(1000 / 0.3048, field.getValue(), 1e-9);
+    }
+
+    @Test
+    public void followingAgainReplacesThePreviousRegistration() throws Exception {
+        UnitPreferences first = new UnitPreferences();
+        UnitPreferences second = new UnitPreferences();
+        QuantityInputField<Length> field = createField(Units.METRE);
+
+        FxTestSupport.runOnFxThread(() -> {
+            first.follow(field, Length.class);
+            second.follow(field, Length.class);
+            first.setPreferredUnit(Length.class, Units.KILOMETRE);
+        });
+        FxTestSupport.waitForFxEvents();
+
+        assertFalse(first.isFollowing(field));
+        assertTrue(second.isFollowing(field));
+        assertEquals(Units.METRE, field.getUnit());
+    }
+
+    @Test
+    public void otherTypesAreNotApplied() throws Exception {
+        UnitPreferences preferences = new UnitPreferences();
+        QuantityInputField<Length> field = createField(Units.METRE);
+
+        FxTestSupport.runOnFxThread(() -> {
+            preferences.follow(field, Length.class);
+            preferences.setPreferredUnit(Angle.class, Units.DEGREE);
+        });
+        FxTestSupport.waitForFxEvents();
+
+        assertEquals(Units.METRE, field.getUnit());
+    }
+
+    @Test
+    public void releasedFieldsStopFollowing() throws Exception {
+        UnitPreferences preferences = new UnitPreferences();
+        QuantityInputFieldPool pool = new QuantityInputFieldPool();
+
+        FxTestSupport.runOnFxThread(() -> {
+            QuantityInputField<Length> field = pool.acquire(Length.class);
+            preferences.follow(field, Length.class);
+            pool.release(field);
+            assertFalse(preferences.isFollowing(field));
+
+            preferences.setPreferredUnit(Length.class, Units.KILOMETRE);
+        });
+        FxTestSupport.waitForFxEvents();
+
+        FxTestSupport.runOnFxThread(() -> assertNull(pool.acquire(Length.class).getUnit()));
+    }
+
+    @Test
+    public void unfollowedFieldsKeepTheirUnit() throws Exception {
+        UnitPreferences preferences = new UnitPreferences();
+        QuantityInputField<Length> field = createField(Units.METRE);
+
+        FxTestSupport.runOnFxThread(() -> {
+            preferences.follow(field, Length.class);
+            preferences.unfollow(field);
+            preferences.setPreferredUnit(Length.class, Units.KILOMETRE);
+        });
+        FxTestSupport.waitForFxEvents();
+
+        assertFalse(preferences.isFollowing(field));
+        assertEquals(Units.METRE, field.getUnit());
+    }
+
+    private static QuantityInputField<Length> createField(Unit<Length> unit) {
+        QuantityInputField<Length> field = new QuantityInputField<>();
+        field.setUnit(unit);
+        field.setValue(1000.0);
+        return field;
+    }
+
+    private static AtomicInteger countUnitChanges(QuantityInputField<Length> field) {
+        AtomicInteger count = new AtomicInteger();
+        field.unitProperty().addListener((obs, oldV, newV) -> count.incrementAndGet());
+        return count;
+    }
+
+}
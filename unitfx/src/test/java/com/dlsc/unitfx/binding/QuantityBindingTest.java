@@ -0,0 +1,107 @@
+package com.dlsc.unitfx.binding;
+
+import com.dlsc.unitfx.DoubleInputField;
+import com.dlsc.unitfx.FxTestSupport;
+import com.dlsc.unitfx.QuantityInputField;
+import com.dlsc.unitfx.skins.QuantityInputFieldSkin;
+import com.dlsc.unitfx.util.Units;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QuantityBindingTest {
+
+    private QuantityInputField<Length> first;
+    private QuantityInputField<Length> second;
+    private QuantityInputField<Length> total;
+    private QuantityBinding<Length> sum;
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Before
+    public void createFields() {
+        first = createField(Units.KILOMETRE, 1.0);
+        second = createField(Units.METRE, 500.0);
+        total = createField(null, null);
+        total.setSkin(new QuantityInputFieldSkin<>(total));
+        sum = QuantityExpression.of(first).add(QuantityExpression.of(second)).to(Units.METRE);
+    }
+
+    private static QuantityInputField<Length> createField(Unit<Length> unit, Double value) {
+        QuantityInputField<Length> field = new QuantityInputField<>();
+        field.getAvailableUnits().setAll(Units.getInstance().getUnits(Length.class));
+        field.setUnit(unit);
+        field.setValue(value);
+        return field;
+    }
+
+    @Test
+    public void drivenControlFollowsTheResult() {
+        sum.drive(total);
+        assertEquals(Units.METRE, total.getUnit());
+        assertTrue(total.isReadOnly());
+        assertFalse(total.valueProperty().isBound());
+        assertEquals(1500, total.getValue(), 1e-9);
+
+        first.setValue(2.0);
+        assertEquals(2500, total.getValue(), 1e-9);
+
+        second.setValue(null);
+        assertNull(total.getValue());
+
+        second.setValue(250.0);
+        assertEquals(2250, total.getValue(), 1e-9);
+    }
+
+    @Test
+    public void drivenControlConvertsToItsUnit() {
+        sum.drive(total);
+        total.setUnit(Units.KILOMETRE);
+        assertEquals(1.5, total.getValue(), 1e-9);
+
+        first.setValue(3.0);
+        assertEquals(3.5, total.getValue(), 1e-9);
+    }
+
+    @Test
+    public void editorOfDrivenControlStaysBound() {
+        sum.drive(total);
+
+        // the editor is only shown while the control is editable
+        total.setReadOnly(false);
+        DoubleInputField editor = (DoubleInputField) total.lookupAll(".editor").stream()
+                .filter(DoubleInputField.class::isInstance)
+                .findFirst()
+                .orElseThrow();
+
+        // used to fail with "A bound value cannot be set" while the value of the control was bound
+        editor.setText("7");
+        assertEquals(7, total.getValue(), 1e-9);
+
+        first.setValue(4.0);
+        assertEquals(4500, total.getValue(), 1e-9);
+        assertEquals(4500, editor.getValue(), 1e-9);
+    }
+
+    @Test
+    public void stopDrivingRestoresTheControl() {
+        sum.drive(total);
+        sum.stopDriving(total);
+        assertFalse(total.isReadOnly());
+
+        first.setValue(5.0);
+        assertEquals(1500, total.getValue(), 1e-9);
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.dlsc.unitfx.binding;
+
+import com.dlsc.unitfx.FxTestSupport;
+import com.dlsc.unitfx.QuantityInputField;
+import com.dlsc.unitfx.util.Units;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QuantityPublisherTest {
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void publishesTheLatestQuantities() throws Exception {
+        QuantityInputField<Length> field = createField();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        QuantityPublisher.of(List.of(field), Runnable::run).subscribe(subscriber);
+
+        FxTestSupport.runOnFxThread(() -> {
+            field.setValue(1.0);
+            field.setValue(2.0);
+        });
+
+        assertEquals(List.of(1.0, 2.0), subscriber.values());
+        assertEquals(0, subscriber.errors.get());
+    }
+
+    @Test
+    public void deliversOnlyTheRequestedQuantities() throws Exception {
+        QuantityInputField<Length> field = createField();
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        QuantityPublisher.of(List.of(field), Runnable::run).subscribe(subscriber);
+
+        FxTestSupport.runOnFxThread(() -> {
+            field.setValue(1.0);
+            field.setValue(2.0);
+            field.setValue(3.0);
+        });
+        assertEquals(List.of(1.0), subscriber.values());
+
+        // intermediate values are skipped, only the latest one is kept
+        subscriber.subscription.request(1);
+        assertEquals(List.of(1.0, 3.0), subscriber.values());
+    }
+
+    @Test
+    public void rejectedDeliveryIsReportedOnceThroughTheDrain() throws Exception {
+        QuantityInputField<Length> field = createField();
+        Executor rejecting = runnable -> {
+            throw new RejectedExecutionException("shut down");
+        };
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        QuantityPublisher.of(List.of(field), rejecting).subscribe(subscriber);
+
+        FxTestSupport.runOnFxThread(() -> {
+            field.setValue(1.0);
+            field.setValue(2.0);
+        });
+
+        assertEquals(1, subscriber.errors.get());
+        assertTrue(subscriber.error instanceof RejectedExecutionException);
+        assertTrue(subscriber.values().isEmpty());
+        assertEquals(0, subscriber.concurrentCalls.get());
+    }
+
+    private static QuantityInputField<Length> createField() {
+        QuantityInputField<Length> field = new QuantityInputField<>();
+        field.getAvailableUnits().setAll(Units.getInstance().getUnits(Length.class));
+        field.setUnit(Units.METRE);
+        return field;
+    }
+
+    private static final class RecordingSubscriber implements Flow.Subscriber<Quantity<Length>> {
+
+        private final long initialDemand;
+        private final List<Quantity<Length>> quantities = new CopyOnWriteArrayList<>();
+        private final AtomicInteger errors = new AtomicInteger();
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger concurrentCalls = new AtomicInteger();
+        private volatile Throwable error;
+        private Flow.Subscription subscription;
+
+        RecordingSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        List<Double> values() {
+            return quantities.stream().map(q -> q.getValue().doubleValue()).collect(Collectors.toList());
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(Quantity<Length> item) {
+            enter();
+            quantities.add(item);
+            active.decrementAndGet();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            enter();
+            error = throwable;
+            errors.incrementAndGet();
+            active.decrementAndGet();
+        }
+
+        @Override
+        public void onComplete() {
+            // never completes
+        }
+
+        private void enter() {
+            if (active.incrementAndGet() > 1) {
+                concurrentCalls.incrementAndGet();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.dlsc.unitfx.fxml;
+
+import com.dlsc.unitfx.FxTestSupport;
+import com.dlsc.unitfx.QuantityInputField;
+import javafx.fxml.FXMLLoader;
+import javafx.fxml.JavaFXBuilderFactory;
+import javafx.scene.layout.VBox;
+import javafx.util.BuilderFactory;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Measures the time to load a form of quantity fields with the {@link UnitFXBuilderFactory} and with the default
+ * {@link JavaFXBuilderFactory}, which sets the properties by reflection.  The attributes are the ones both can
+ * convert, the times are printed and only the results are checked, timings are not reliable enough for assertions.
+ */
+public class UnitFXBuilderFactoryBenchmarkTest {
+
+    private static final int FIELDS = 500;
+    private static final int WARM_UP = 20;
+    private static final int RUNS = 20;
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void loadTimes() throws IOException {
+        byte[] fxml = createFxml();
+
+        for (int i = 0; i < WARM_UP; i++) {
+            load(fxml, new JavaFXBuilderFactory());
+            load(fxml, new UnitFXBuilderFactory());
+        }
+
+        long reflection = 0;
+        long builders = 0;
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            load(fxml, new JavaFXBuilderFactory());
+            reflection += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            load(fxml, new UnitFXBuilderFactory());
+            builders += System.nanoTime() - start;
+        }
+
+        System.out.printf("FXML form of %d quantity fields: %.1f ms with JavaFXBuilderFactory, %.1f ms with UnitFXBuilderFactory%n",
+                FIELDS, reflection / 1e6 / RUNS, builders / 1e6 / RUNS);
+    }
+
+    private static void load(byte[] fxml, BuilderFactory factory) throws IOException {
+        FXMLLoader loader = new FXMLLoader(null, null, factory);
+        VBox form = loader.load(new ByteArrayInputStream(fxml));
+
+        assertEquals(FIELDS, form.getChildren().size());
+        QuantityInputField<?> last = (QuantityInputField<?>) form.getChildren().get(FIELDS - 1);
+        assertEquals(2, last.getNumberOfDecimals());
+        assertEquals(FIELDS - 1.0, last.getValue(), 0);
+    }
+
+    private static byte[] createFxml() {
+        StringBuilder fxml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<?import javafx.scene.layout.VBox?>\n"
+                + "<?import com.dlsc.unitfx.QuantityInputField?>\n"
+                + "<VBox xmlns:fx=\"http://javafx.com/fxml\">\n");
+        for (int i = 0; i < FIELDS; i++) {
+            fxml.append("    <QuantityInputField fx:id=\"field").append(i).append("\" styleClass=\"row\" value=\"").append(i)
+                    .append("\" numberOfIntegers=\"6\" numberOfDecimals=\"2\" allowNegatives=\"false\" autoFixValue=\"true\""
+                            + " prefWidth=\"120\"/>\n");
+        }
+        return fxml.append("</VBox>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+}
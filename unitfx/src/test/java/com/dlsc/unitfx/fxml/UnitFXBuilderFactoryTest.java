@@ -0,0 +1,93 @@
+package com.dlsc.unitfx.fxml;
+
+import com.dlsc.unitfx.DoubleInputField;
+import com.dlsc.unitfx.FxTestSupport;
+import com.dlsc.unitfx.IntegerInputField;
+import com.dlsc.unitfx.QuantityInputField;
+import com.dlsc.unitfx.util.Units;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.layout.VBox;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.quantity.Mass;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UnitFXBuilderFactoryTest {
+
+    private static final String FXML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<?import javafx.scene.layout.VBox?>\n"
+            + "<?import com.dlsc.unitfx.QuantityInputField?>\n"
+            + "<?import com.dlsc.unitfx.DoubleInputField?>\n"
+            + "<?import com.dlsc.unitfx.IntegerInputField?>\n"
+            + "<VBox xmlns:fx=\"http://javafx.com/fxml\">\n"
+            + "    <QuantityInputField fx:id=\"distance\" styleClass=\"route, wide\" unit=\"km\" availableUnits=\"km, nm\"\n"
+            + "                        maximumQuantity=\"100 nm\" value=\"12.5\" numberOfDecimals=\"1\" allowNegatives=\"true\"/>\n"
+            + "    <QuantityInputField fx:id=\"weight\" unit=\"kg\"/>\n"
+            + "    <DoubleInputField fx:id=\"ratio\" value=\"0.5\" maximumValue=\"1\" disable=\"true\"/>\n"
+            + "    <IntegerInputField fx:id=\"count\" value=\"7\" prefWidth=\"80\"/>\n"
+            + "</VBox>\n";
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void quantityFieldProperties() throws IOException {
+        FXMLLoader loader = load();
+        QuantityInputField<?> distance = (QuantityInputField<?>) loader.getNamespace().get("distance");
+
+        assertEquals("distance", distance.getId());
+        assertTrue(distance.getStyleClass().containsAll(List.of("quantity-input-field", "route", "wide")));
+        assertSame(Units.KILOMETRE, distance.getUnit());
+        assertEquals(List.of(Units.KILOMETRE, Units.NAUTICAL_MILE), distance.getAvailableUnits());
+        assertEquals(Units.NAUTICAL_MILE, distance.getMaximumQuantity().getUnit());
+        assertEquals(100, distance.getMaximumQuantity().getValue().doubleValue(), 0);
+        assertEquals(12.5, distance.getValue(), 0);
+        assertEquals(1, distance.getNumberOfDecimals());
+        assertTrue(distance.isAllowNegatives());
+    }
+
+    @Test
+    public void quantityFieldWithoutAvailableUnitsGetsTheRegisteredOnes() throws IOException {
+        QuantityInputField<?> weight = (QuantityInputField<?>) load().getNamespace().get("weight");
+
+        assertSame(Units.KILOGRAM, weight.getUnit());
+        assertEquals(Units.getInstance().getUnits(Mass.class), weight.getAvailableUnits());
+    }
+
+    @Test
+    public void numberFieldProperties() throws IOException {
+        FXMLLoader loader = load();
+        DoubleInputField ratio = (DoubleInputField) loader.getNamespace().get("ratio");
+        IntegerInputField count = (IntegerInputField) loader.getNamespace().get("count");
+
+        assertEquals("ratio", ratio.getId());
+        assertEquals(0.5, ratio.getValue(), 0);
+        assertEquals(1, ratio.getMaximumValue(), 0);
+        assertTrue(ratio.isDisable());
+
+        assertEquals(7, (int) count.getValue());
+        assertEquals(80, count.getPrefWidth(), 0);
+        assertFalse(count.isDisable());
+
+        VBox root = loader.getRoot();
+        assertEquals(List.of(loader.getNamespace().get("distance"), loader.getNamespace().get("weight"), ratio, count), root.getChildren());
+    }
+
+    private static FXMLLoader load() throws IOException {
+        FXMLLoader loader = new FXMLLoader(null, null, new UnitFXBuilderFactory());
+        loader.load(new ByteArrayInputStream(FXML.getBytes(StandardCharsets.UTF_8)));
+        return loader;
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.dlsc.unitfx.skins;
+
+import com.dlsc.unitfx.FxTestSupport;
+import com.dlsc.unitfx.QuantityInputField;
+import com.dlsc.unitfx.util.QuantityFieldSpec;
+import com.dlsc.unitfx.util.Units;
+import javafx.event.Event;
+import javafx.event.EventType;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.skin.ButtonSkin;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Mass;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * The windows are not shown, the toolkit used by the tests cannot lay out text, so the tests check the chooser the
+ * fields attach to instead of the popup on screen.
+ */
+public class UnitChooserPopupTest {
+
+    @BeforeClass
+    public static void startToolkit() {
+        FxTestSupport.startToolkit();
+    }
+
+    @Test
+    public void oneChooserIsSharedByTheFieldsOfAWindow() throws Exception {
+        FxTestSupport.runOnFxThread(() -> {
+            QuantityInputField<Length> length = createField(QuantityFieldSpec.of(Length.class, Units.METRE));
+            QuantityInputField<Mass> mass = createField(QuantityFieldSpec.of(Mass.class, Units.KILOGRAM));
+            Stage window = createWindow(length, mass);
+            assertNull(UnitChooserPopup.get(window));
+
+            press(switcher(length), KeyCode.DOWN);
+            UnitChooserPopup chooser = UnitChooserPopup.get(window);
+            assertNotNull(chooser);
+            assertSame(length, chooser.getField());
+            assertEquals(length.getAvailableUnits(), chooser.getListView().getItems());
+            assertEquals(Units.METRE, chooser.getListView().getSelectionModel().getSelectedItem());
+
+            press(switcher(mass), KeyCode.UP);
+            assertSame(chooser, UnitChooserPopup.get(window));
+            assertSame(mass, chooser.getField());
+            assertEquals(mass.getAvailableUnits(), chooser.getListView().getItems());
+            assertEquals(Units.KILOGRAM, chooser.getListView().getSelectionModel().getSelectedItem());
+
+            // the unit of the previous field no longer moves the selection
+            length.setUnit(Units.KILOMETRE);
+            assertEquals(Units.KILOGRAM, chooser.getListView().getSelectionModel().getSelectedItem());
+
+            QuantityInputField<Length> other = createField(QuantityFieldSpec.of(Length.class, Units.METRE));
+            Stage otherWindow = createWindow(other);
+            press(switcher(other), KeyCode.F4);
+            assertNotSame(chooser, UnitChooserPopup.get(otherWindow));
+            assertSame(mass, chooser.getField());
+        });
+    }
+
+    @Test
+    public void chooserFollowsTheUnitsOfTheField() throws Exception {
+        FxTestSupport.runOnFxThread(() -> {
+            QuantityInputField<Length> field = createField(QuantityFieldSpec.of(Length.class, Units.METRE));
+            Stage window = createWindow(field);
+            switcher(field).fire();
+            UnitChooserPopup chooser = UnitChooserPopup.get(window);
+
+            field.setUnit(Units.KILOMETRE);
+            assertEquals(Units.KILOMETRE, chooser.getListView().getSelectionModel().getSelectedItem());
+
+            field.getAvailableUnits().setAll(Units.METRE, Units.FOOT);
+            assertEquals(field.getAvailableUnits(), chooser.getListView().getItems());
+        });
+    }
+
+    @Test
+    public void spaceOpensTheChooserAndEnterSelects() throws Exception {
+        FxTestSupport.runOnFxThread(() -> {
+            QuantityInputField<Length> field = createField(QuantityFieldSpec.of(Length.class, Units.METRE));
+            Stage window = createWindow(field);
+            // the skin of the button, which handles the space key, is created by the CSS pass the tests never run
+            Button switcher = switcher(field);
+            switcher.setSkin(new ButtonSkin(switcher));
+
+            press(switcher, KeyCode.SPACE);
+            Event.fireEvent(switcher, keyEvent(KeyEvent.KEY_RELEASED, KeyCode.SPACE));
+            UnitChooserPopup chooser = UnitChooserPopup.get(window);
+            assertSame(field, chooser.getField());
+
+            chooser.getListView().getSelectionModel().select(Units.KILOMETRE);
+            press(chooser.getListView(), KeyCode.ENTER);
+            assertEquals(Units.KILOMETRE, field.getUnit());
+        });
+    }
+
+    private static <Q extends Quantity<Q>> QuantityInputField<Q> createField(QuantityFieldSpec<Q> spec) {
+        QuantityInputField<Q> field = new QuantityInputField<>();
+        field.configure(spec);
+        field.setSkin(new QuantityInputFieldSkin<>(field));
+        return field;
+    }
+
+    private static Stage createWindow(Node... nodes) {
+        Stage window = new Stage();
+        window.setScene(new Scene(new VBox(nodes)));
+        return window;
+    }
+
+    private static Button switcher(QuantityInputField<?> field) {
+        return (Button) field.lookup(".unit-switcher");
+    }
+
+    private static void press(Node node, KeyCode code) {
+        Event.fireEvent(node, keyEvent(KeyEvent.KEY_PRESSED, code));
+    }
+
+    private static KeyEvent keyEvent(EventType<KeyEvent> type, KeyCode code) {
+        return new KeyEvent(type, "", "", code, false, false, false, false);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.dlsc.unitfx.util;
+
+import com.sun.management.ThreadMXBean;
+import javafx.geometry.Point2D;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks that the batch angle math does not allocate and prints its throughput next to the single value methods.
+ * Allocations are measured per thread by the JVM, timings are only printed, they are not reliable enough for
+ * assertions.
+ */
+public class ControlsUtilBenchmarkTest {
+
+    private static final int COUNT = 4096;
+    private static final int WARM_UP = 2000;
+    private static final int RUNS = 2000;
+
+    // a few allocations of the measurement itself are tolerated, far less than one object per angle
+    private static final long ALLOCATION_TOLERANCE = 1024;
+
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final double[] alphas = new double[COUNT];
+    private final double[] betas = new double[COUNT];
+    private final double[] result = new double[COUNT];
+    private final double[] xs = new double[COUNT];
+    private final double[] ys = new double[COUNT];
+    private final SinCosTable table = new SinCosTable(3600);
+
+    // keep the results of the single value methods and the allocated arrays alive
+    private double sink;
+    private double[] garbage;
+
+    public ControlsUtilBenchmarkTest() {
+        Random random = new Random(28);
+        for (int i = 0; i < COUNT; i++) {
+            alphas[i] = random.nextDouble() * 360;
+            betas[i] = random.nextDouble() * 360;
+        }
+    }
+
+    @Test
+    public void batchMethodsDoNotAllocate() {
+        assertTrue(THREADS.isThreadAllocatedMemorySupported());
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        // the measurement sees allocations that escape
+        long arrays = allocatedBytes(() -> garbage = new double[COUNT], 10);
+        assertTrue(arrays + " bytes", arrays >= 10L * COUNT * Double.BYTES);
+
+        Runnable[] batches = {
+                () -> ControlsUtil.distance(alphas, betas, result, COUNT),
+                () -> ControlsUtil.rotation(alphas, betas, result, COUNT),
+                () -> ControlsUtil.calculatePointsOnCircle(50, 50, 40, alphas, xs, ys, COUNT),
+                () -> ControlsUtil.calculatePointsOnCircle(50, 50, 40, alphas, table, xs, ys, COUNT)
+        };
+        String[] names = {"distance", "rotation", "points", "points with table"};
+        for (int i = 0; i < batches.length; i++) {
+            run(batches[i], WARM_UP);
+            long allocated = allocatedBytes(batches[i], RUNS);
+            assertTrue(names[i] + " allocated " + allocated + " bytes", allocated < ALLOCATION_TOLERANCE);
+        }
+    }
+
+    @Test
+    public void throughput() {
+        Runnable batchPoints = () -> ControlsUtil.calculatePointsOnCircle(50, 50, 40, alphas, xs, ys, COUNT);
+        Runnable tablePoints = () -> ControlsUtil.calculatePointsOnCircle(50, 50, 40, alphas, table, xs, ys, COUNT);
+        Runnable singlePoints = () -> {
+            Point2D middle = new Point2D(50, 50);
+            double sum = 0;
+            for (int i = 0; i < COUNT; i++) {
+                Point2D point = ControlsUtil.calculatePointOnCircle(middle, 40, alphas[i]);
+                sum += point.getX() + point.getY();
+            }
+            sink += sum;
+        };
+        Runnable batchDistances = () -> ControlsUtil.distance(alphas, betas, result, COUNT);
+        Runnable singleDistances = () -> {
+            double sum = 0;
+            for (int i = 0; i < COUNT; i++) {
+                sum += ControlsUtil.distance(alphas[i], betas[i]);
+            }
+            sink += sum;
+        };
+
+        Runnable[] benchmarks = {singlePoints, batchPoints, tablePoints, singleDistances, batchDistances};
+        String[] names = {"points, Point2D", "points, batch", "points, batch with table", "distances, single", "distances, batch"};
+        for (int i = 0; i < benchmarks.length; i++) {
+            run(benchmarks[i], WARM_UP);
+            long allocated = allocatedBytes(benchmarks[i], RUNS);
+            long start = System.nanoTime();
+            run(benchmarks[i], RUNS);
+            double nanosPerAngle = (System.nanoTime() - start) / (double) RUNS / COUNT;
+            System.out.printf("ControlsUtil %s: %.2f ns and %.1f bytes per angle%n", names[i], nanosPerAngle,
+                    allocated / (double) RUNS / COUNT);
+        }
+        assertTrue(Double.isFinite(sink));
+    }
+
+    private static long allocatedBytes(Runnable runnable, int runs) {
+        long threadId = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        run(runnable, runs);
+        return THREADS.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    private static void run(Runnable runnable, int runs) {
+        for (int i = 0; i < runs; i++) {
+            runnable.run();
+        }
+    }
+
+}
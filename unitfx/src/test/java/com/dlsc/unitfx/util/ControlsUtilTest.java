@@ -0,0 +1,81 @@
+package com.dlsc.unitfx.util;
+
+import javafx.geometry.Point2D;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class ControlsUtilTest {
+
+    private static final int COUNT = 10_000;
+
+    private final double[] alphas = new double[COUNT];
+    private final double[] betas = new double[COUNT];
+
+    public ControlsUtilTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < COUNT; i++) {
+            alphas[i] = (random.nextDouble() - 0.5) * 1440;
+            betas[i] = (random.nextDouble() - 0.5) * 1440;
+        }
+        // exact cardinal angles and opposite angles
+        alphas[0] = 0;
+        betas[0] = 180;
+        alphas[1] = 90;
+        betas[1] = -270;
+    }
+
+    @Test
+    public void batchDistanceMatchesSingleDistance() {
+        double[] result = new double[COUNT];
+        ControlsUtil.distance(alphas, betas, result, COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(ControlsUtil.distance(alphas[i], betas[i]), result[i], 1e-9);
+        }
+    }
+
+    @Test
+    public void batchRotationMatchesSingleRotation() {
+        double[] result = new double[COUNT];
+        ControlsUtil.rotation(alphas, betas, result, COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(ControlsUtil.rotation(alphas[i], betas[i]), result[i], 0);
+        }
+    }
+
+    @Test
+    public void batchPointsMatchSinglePoints() {
+        double[] xs = new double[COUNT];
+        double[] ys = new double[COUNT];
+        double[] point = new double[2];
+        ControlsUtil.calculatePointsOnCircle(50, 60, 40, alphas, xs, ys, COUNT);
+        for (int i = 0; i < COUNT; i++) {
+            Point2D expected = ControlsUtil.calculatePointOnCircle(new Point2D(50, 60), 40, alphas[i]);
+            assertEquals(expected.getX(), xs[i], 0);
+            assertEquals(expected.getY(), ys[i], 0);
+
+            ControlsUtil.calculatePointOnCircle(50, 60, 40, alphas[i], point);
+            assertEquals(expected.getX(), point[0], 0);
+            assertEquals(expected.getY(), point[1], 0);
+        }
+    }
+
+    @Test
+    public void tablePointsAreWithinTheTableError() {
+        SinCosTable table = new SinCosTable(360);
+        double[] xs = new double[COUNT];
+        double[] ys = new double[COUNT];
+        double[] exactXs = new double[COUNT];
+        double[] exactYs = new double[COUNT];
+        ControlsUtil.calculatePointsOnCircle(50, 60, 40, alphas, table, xs, ys, COUNT);
+        ControlsUtil.calculatePointsOnCircle(50, 60, 40, alphas, exactXs, exactYs, COUNT);
+        double maxError = 40 * table.getMaxError() + 1e-9;
+        for (int i = 0; i < COUNT; i++) {
+            assertEquals(exactXs[i], xs[i], maxError);
+            assertEquals(exactYs[i], ys[i], maxError);
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class DecimalFormatterTest {
+
+    private static final double[] VALUES = createValues();
+
+    @Test
+    public void formatsLikeDecimalFormatInAllLocales() {
+        for (Locale locale : Locale.getAvailableLocales()) {
+            DecimalFormatter formatter = new DecimalFormatter(locale);
+            for (int decimals = 0; decimals <= 6; decimals++) {
+                DecimalFormat format = createFormat(locale, decimals, false);
+                DecimalFormat fixedFormat = createFormat(locale, decimals, true);
+                for (double value : VALUES) {
+                    assertEquals(locale + ", " + decimals + " decimals, " + value,
+                            unsignedZero(format.format(value)), formatter.format(value, decimals));
+                    assertEquals(locale + ", " + decimals + " fixed decimals, " + value,
+                            unsignedZero(fixedFormat.format(value)), formatter.formatFixed(value, decimals));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void writesZeroWithoutSign() {
+        DecimalFormatter formatter = new DecimalFormatter(Locale.US);
+
+        assertEquals("0", formatter.format(-0.0, 2));
+        assertEquals("0", formatter.format(-0.4, 0));
+        assertEquals("0", formatter.format(-5.0E-4, 3));
+        assertEquals("0.000", formatter.formatFixed(-0.0001, 3));
+        assertEquals("-0.001", formatter.format(-0.0006, 3));
+    }
+
+    @Test
+    public void roundsTiesLikeDecimalFormat() {
+        DecimalFormatter formatter = new DecimalFormatter(Locale.US);
+
+        // 0.05 and 0.005 are slightly above the tie in binary, 0.0005 is decided by its shortest representation
+        assertEquals("0.1", formatter.format(0.05, 1));
+        assertEquals("0.01", formatter.format(0.005, 2));
+        assertEquals("0", formatter.format(0.0005, 3));
+        assertEquals("0.002", formatter.format(0.0015, 3));
+        assertEquals("2", formatter.format(2.5, 0));
+        assertEquals("4", formatter.format(3.5, 0));
+    }
+
+    @Test
+    public void parsesWithTheSeparatorOfTheLocale() {
+        DecimalFormatter german = new DecimalFormatter(Locale.GERMANY);
+
+        assertEquals(1.5, german.parse("1,5"), 0);
+        assertEquals(-2.0, german.parse(" -2 "), 0);
+        assertNull(german.parse("1.5"));
+        assertNull(german.parse("-"));
+        assertNull(german.parse(""));
+        assertEquals("1,25", german.format(1.25, 2));
+    }
+
+    /*
+     * The formatter always writes ASCII digits and '-', the characters the fields accept, so the expected text is
+     * taken from a DecimalFormat with the symbols of the locale and those characters.
+     */
+    private static DecimalFormat createFormat(Locale locale, int decimals, boolean fixed) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        symbols.setZeroDigit('0');
+        symbols.setMinusSign('-');
+        DecimalFormat format = new DecimalFormat("0", symbols);
+        format.setGroupingUsed(false);
+        format.setRoundingMode(RoundingMode.HALF_EVEN);
+        format.setMaximumFractionDigits(decimals);
+        format.setMinimumFractionDigits(fixed ? decimals : 0);
+        return format;
+    }
+
+    private static String unsignedZero(String text) {
+        for (int i = 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= '1' && c <= '9') {
+                return text;
+            }
+        }
+        return text.startsWith("-") ? text.substring(1) : text;
+    }
+
+    private static double[] createValues() {
+        List<Double> values = new ArrayList<>(List.of(0.0, -0.0, 0.5, -0.5, 1.5, 2.5, -2.5, 0.05, 0.005, 0.0005, -0.0005,
+                0.0015, 1e-7, 123456789.123456789, 1e15, 1e20, -1e20, Double.MAX_VALUE, Double.MIN_VALUE));
+        Random random = new Random(45);
+        for (int i = 0; i < 50; i++) {
+            // any magnitude, few decimals, and values on or near the ties of every number of decimals
+            values.add((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(26) - 8));
+            values.add(Math.round((random.nextDouble() - 0.5) * 1e6) / Math.pow(10, random.nextInt(7)));
+            values.add((random.nextInt(200_001) - 100_000) / (2 * Math.pow(10, random.nextInt(7))));
+        }
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+import tech.units.indriya.ComparableQuantity;
+import tech.units.indriya.quantity.Quantities;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleQuantityTest {
+
+    private final DoubleQuantity<Length> oneKilometre = DoubleQuantity.of(1, Units.KILOMETRE);
+    private final DoubleQuantity<Length> thousandMetres = DoubleQuantity.of(1000, Units.METRE);
+    private final DoubleQuantity<Length> oneFoot = DoubleQuantity.of(1, Units.FOOT);
+
+    @Test
+    public void comparesAcrossUnits() {
+        assertEquals(0, oneKilometre.compareTo(thousandMetres));
+        assertTrue(oneKilometre.compareTo(oneFoot) > 0);
+        assertTrue(oneFoot.compareTo(oneKilometre) < 0);
+
+        assertTrue(oneKilometre.isGreaterThan(oneFoot));
+        assertTrue(oneKilometre.isGreaterThanOrEqualTo(thousandMetres));
+        assertTrue(oneFoot.isLessThan(thousandMetres));
+        assertTrue(thousandMetres.isLessThanOrEqualTo(oneKilometre));
+        assertFalse(oneFoot.isGreaterThan(oneKilometre));
+    }
+
+    @Test
+    public void equivalentAcrossUnitsAndImplementations() {
+        assertTrue(oneKilometre.isEquivalentTo(thousandMetres));
+        assertFalse(oneKilometre.isEquivalentTo(oneFoot));
+
+        ComparableQuantity<Length> indriya = Quantities.getQuantity(1000, Units.METRE);
+        assertTrue(oneKilometre.isEquivalentTo(indriya));
+        assertTrue(indriya.isEquivalentTo(oneKilometre));
+        assertEquals(0, indriya.compareTo(oneKilometre));
+        assertTrue(Quantities.getQuantity(1, Units.METRE).isLessThan(oneKilometre));
+    }
+
+    @Test
+    public void equalsAndHashCodeMatchIndriya() {
+        for (double value : new double[] {0, 1, 1.5, -3, 1e20, 0.1}) {
+            DoubleQuantity<Length> quantity = DoubleQuantity.of(value, Units.METRE);
+            Quantity<Length> indriya = Quantities.getQuantity(value, Units.METRE);
+
+            assertEquals(indriya, quantity);
+            assertEquals(quantity, indriya);
+            assertEquals(indriya.hashCode(), quantity.hashCode());
+            assertEquals(indriya.getValue(), quantity.getValue());
+        }
+        assertFalse(oneKilometre.equals(thousandMetres));
+    }
+
+    @Test
+    public void equalsIsReflexiveForNaN() {
+        DoubleQuantity<Length> nan = DoubleQuantity.of(Double.NaN, Units.METRE);
+
+        assertEquals(nan, nan);
+        assertEquals(nan, DoubleQuantity.of(Double.NaN, Units.METRE));
+        assertEquals(nan.hashCode(), DoubleQuantity.of(0.0 / 0.0, Units.METRE).hashCode());
+        assertFalse(nan.equals(DoubleQuantity.of(Double.NaN, Units.KILOMETRE)));
+        assertTrue(new HashSet<>(List.of(nan)).contains(DoubleQuantity.of(Double.NaN, Units.METRE)));
+
+        DoubleQuantity<Length> infinity = DoubleQuantity.of(Double.POSITIVE_INFINITY, Units.METRE);
+        assertEquals(infinity, DoubleQuantity.of(Double.POSITIVE_INFINITY, Units.METRE));
+        assertFalse(infinity.equals(DoubleQuantity.of(Double.NEGATIVE_INFINITY, Units.METRE)));
+        assertEquals(Double.POSITIVE_INFINITY, infinity.getValue());
+    }
+
+    @Test
+    public void signedZerosAreEqual() {
+        DoubleQuantity<Length> zero = DoubleQuantity.of(0.0, Units.METRE);
+        DoubleQuantity<Length> negativeZero = DoubleQuantity.of(-0.0, Units.METRE);
+
+        assertEquals(zero, negativeZero);
+        assertEquals(negativeZero, zero);
+        assertEquals(zero.hashCode(), negativeZero.hashCode());
+        assertEquals(Quantities.getQuantity(0, Units.METRE), negativeZero);
+        assertEquals(-0.0, negativeZero.doubleValue(), 0);
+        assertTrue(1 / negativeZero.doubleValue() < 0);
+    }
+
+    @Test
+    public void sortsWithOtherQuantities() {
+        List<ComparableQuantity<Length>> quantities = new ArrayList<>(List.of(oneKilometre, oneFoot,
+                Quantities.getQuantity(2, Units.METRE), DoubleQuantity.of(1, Units.NAUTICAL_MILE)));
+        quantities.sort(null);
+
+        assertSame(oneFoot, quantities.get(0));
+        assertEquals(Quantities.getQuantity(2, Units.METRE), quantities.get(1));
+        assertSame(oneKilometre, quantities.get(2));
+    }
+
+    @Test
+    public void convertsWithThePrimitiveConverters() {
+        assertSame(oneKilometre, oneKilometre.to(Units.KILOMETRE));
+
+        Quantity<Length> converted = oneKilometre.to(Units.METRE);
+        assertTrue(converted instanceof DoubleQuantity);
+        assertEquals(1000, ((DoubleQuantity<Length>) converted).doubleValue(), 0);
+        assertEquals(oneKilometre.getUnit(), oneKilometre.asType(Length.class).getUnit());
+    }
+
+    @Test
+    public void arithmeticIsDelegatedToIndriya() {
+        assertTrue(oneKilometre.add(thousandMetres).isEquivalentTo(Quantities.getQuantity(2, Units.KILOMETRE)));
+        assertTrue(oneKilometre.subtract(thousandMetres).isEquivalentTo(Quantities.getQuantity(0, Units.METRE)));
+        assertTrue(oneKilometre.multiply(3).isEquivalentTo(Quantities.getQuantity(3000, Units.METRE)));
+        assertTrue(oneKilometre.divide(4).isEquivalentTo(Quantities.getQuantity(250, Units.METRE)));
+        assertEquals(Quantities.getQuantity(-1, Units.KILOMETRE), oneKilometre.negate());
+    }
+
+}
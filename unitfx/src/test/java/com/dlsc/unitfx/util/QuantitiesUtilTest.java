@@ -0,0 +1,101 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+import java.lang.ref.WeakReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class QuantitiesUtilTest {
+
+    @Test
+    public void roundsDecimalQuotientsExactly() {
+        // 9.415 / 0.005 is 1882.9999999999998 in double
+        assertRounded(9.415, Units.METRE, 9.415, Units.METRE, 0.005, Units.METRE);
+        assertTruncated(9.415, Units.METRE, 9.415, Units.METRE, 0.005, Units.METRE);
+        assertRounded(9.4125, Units.METRE, 9.415, Units.METRE, 0.005, Units.METRE);
+        assertTruncated(9.4149, Units.METRE, 9.41, Units.METRE, 0.005, Units.METRE);
+    }
+
+    @Test
+    public void roundsAcrossUnits() {
+        // 120 ft expressed in metres, the precision in feet
+        assertTruncated(36.576, Units.METRE, 36.576, Units.METRE, 0.5, Units.FOOT);
+        assertRounded(36.576, Units.METRE, 36.576, Units.METRE, 0.5, Units.FOOT);
+        assertTruncated(120, Units.FOOT, 120, Units.FOOT, 0.5, Units.FOOT);
+        assertTruncated(119.99, Units.FOOT, 119.5, Units.FOOT, 0.5, Units.FOOT);
+        assertRounded(119.76, Units.FOOT, 120, Units.FOOT, 0.5, Units.FOOT);
+    }
+
+    @Test
+    public void roundsTheDocumentedExamples() {
+        assertTruncated(115, Units.METRE, 110, Units.METRE, 10, Units.METRE);
+        assertTruncated(88, Units.METRE, 85, Units.METRE, 5, Units.METRE);
+        assertRounded(115, Units.METRE, 120, Units.METRE, 10, Units.METRE);
+        assertRounded(88, Units.METRE, 90, Units.METRE, 5, Units.METRE);
+        assertRounded(52, Units.METRE, 50, Units.METRE, 5, Units.METRE);
+    }
+
+    @Test
+    public void multipliesThePrecisionInDecimal() {
+        assertRounded(0.3, Units.METRE, 0.3, Units.METRE, 0.1, Units.METRE);
+        assertTruncated(0.7, Units.METRE, 0.7, Units.METRE, 0.1, Units.METRE);
+    }
+
+    @Test
+    public void keepsLargeQuotients() {
+        assertTruncated(1e12, Units.METRE, 1e12, Units.METRE, 1, Units.METRE);
+        assertRounded(1e12 + 0.6, Units.METRE, 1e12 + 1, Units.METRE, 1, Units.METRE);
+    }
+
+    private static void assertTruncated(double value, Unit<Length> unit, double expected, Unit<Length> expectedUnit,
+                                        double precision, Unit<Length> precisionUnit) {
+        Quantity<Length> truncated = QuantitiesUtil.truncateQuantity(QuantitiesUtil.createQuantity(value, unit),
+                QuantitiesUtil.createQuantity(precision, precisionUnit));
+        assertEquals(expectedUnit, truncated.getUnit());
+        assertEquals(expected, truncated.getValue().doubleValue(), 0);
+    }
+
+    private static void assertRounded(double value, Unit<Length> unit, double expected, Unit<Length> expectedUnit,
+                                      double precision, Unit<Length> precisionUnit) {
+        Quantity<Length> rounded = QuantitiesUtil.roundQuantity(QuantitiesUtil.createQuantity(value, unit),
+                QuantitiesUtil.createQuantity(precision, precisionUnit));
+        assertEquals(expectedUnit, rounded.getUnit());
+        assertEquals(expected, rounded.getValue().doubleValue(), 0);
+    }
+
+    @Test
+    public void cachesConvertersOfRegisteredUnits() {
+        assertSame(QuantitiesUtil.getConverter(Units.KILOMETRE, Units.FOOT), QuantitiesUtil.getConverter(Units.KILOMETRE, Units.FOOT));
+        assertSame(QuantitiesUtil.getDoubleConverter(Units.KILOMETRE, Units.FOOT),
+                QuantitiesUtil.getDoubleConverter(Units.KILOMETRE, Units.FOOT));
+        assertEquals(1000 / 0.3048, QuantitiesUtil.getDoubleConverter(Units.KILOMETRE, Units.FOOT).convert(1), 1e-9);
+    }
+
+    @Test
+    public void doesNotRetainUnregisteredUnits() throws InterruptedException {
+        Unit<Length> unit = Units.METRE.multiply(7);
+        assertEquals(14, QuantitiesUtil.getDoubleConverter(unit, Units.METRE).convert(2), 0);
+        WeakReference<Unit<Length>> reference = new WeakReference<>(unit);
+        unit = null;
+
+        // more unregistered units than the cache keeps, all converted correctly
+        for (int i = 1; i <= 1000; i++) {
+            Unit<Length> other = Units.METRE.multiply(i + 0.5);
+            assertEquals(2, QuantitiesUtil.getDoubleConverter(Units.METRE.multiply(2), other).convert(i + 0.5), 1e-9);
+            assertEquals(i + 0.5, QuantitiesUtil.getConverter(other, Units.METRE).convert(1.0), 1e-9);
+        }
+
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+    }
+
+}
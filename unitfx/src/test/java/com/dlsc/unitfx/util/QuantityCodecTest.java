@@ -0,0 +1,239 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+import tech.units.indriya.function.MultiplyConverter;
+import tech.units.indriya.unit.TransformedUnit;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class QuantityCodecTest {
+
+    // values with up to 6 decimals are written as fixed-point numbers by the default codec
+    private static final double[] FIXED_POINT_VALUES = {0, 1, -1, 12.5, -3.25, 0.000001, 123456.789, 1e6, -987654.321};
+
+    private static final double[] RAW_VALUES = {-0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Math.PI, 0.1234567, 1e-10, 1e300, -Double.MAX_VALUE, Double.MIN_VALUE, 0x1p53};
+
+    private final QuantityCodec codec = new QuantityCodec();
+
+    @Test
+    public void roundTripsAllUnitsThroughByteBuffers() {
+        for (Unit<?> unit : Units.getInstance().getUnits()) {
+            for (double value : values()) {
+                ByteBuffer buffer = ByteBuffer.allocate(32);
+                codec.write(buffer, value, unit);
+                int size = buffer.position();
+                buffer.flip();
+
+                assertQuantity(value, unit, codec.read(buffer));
+                assertEquals(size, buffer.position());
+                assertFalse(buffer.hasRemaining());
+            }
+        }
+    }
+
+    @Test
+    public void roundTripsAllUnitsThroughStreams() throws IOException {
+        for (Unit<?> unit : Units.getInstance().getUnits()) {
+            for (double value : values()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                codec.write(out, value, unit);
+                byte[] bytes = out.toByteArray();
+
+                ByteArrayInputStream in = new ByteArrayInputStream(bytes);
+                assertQuantity(value, unit, codec.read(in));
+                assertEquals(0, in.available());
+
+                // both paths write the same bytes
+                ByteBuffer buffer = ByteBuffer.allocate(32);
+                codec.write(buffer, value, unit);
+                assertArrayEquals(bytes, Arrays.copyOf(buffer.array(), buffer.position()));
+            }
+        }
+    }
+
+    @Test
+    public void fixedPointValuesAreCompact() {
+        for (double value : FIXED_POINT_VALUES) {
+            assertTrue("value " + value, encodedSize(value) < 1 + 8);
+        }
+        for (double value : RAW_VALUES) {
+            assertEquals("value " + value, 1 + 8, encodedSize(value));
+        }
+        assertEquals(5, encodedSize(codec, 12.5));
+        assertEquals(6, encodedSize(codec, 1234.5));
+        assertEquals(3, encodedSize(new QuantityCodec(2), 12.5));
+        assertEquals(4, encodedSize(new QuantityCodec(2), 1234.5));
+    }
+
+    @Test
+    public void roundTripsNullQuantities() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1);
+        codec.write(buffer, null);
+        buffer.flip();
+        assertNull(codec.read(buffer));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, null);
+        assertArrayEquals(new byte[] {0}, out.toByteArray());
+        assertNull(codec.read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void roundTripsQuantities() throws IOException {
+        Quantity<?> quantity = QuantitiesUtil.createQuantity(42.125, Units.KNOT);
+
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        codec.write(buffer, quantity);
+        buffer.flip();
+        assertQuantity(42.125, Units.KNOT, codec.read(buffer));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, quantity);
+        assertQuantity(42.125, Units.KNOT, codec.read(new ByteArrayInputStream(out.toByteArray())));
+    }
+
+    @Test
+    public void encodesSnapshots() {
+        List<Quantity<?>> quantities = new ArrayList<>();
+        quantities.add(QuantitiesUtil.createQuantity(1.5, Units.METRE));
+        quantities.add(null);
+        quantities.add(QuantitiesUtil.createQuantity(Math.E, Units.CELSIUS));
+        quantities.add(DoubleQuantity.of(-0.0, Units.DEGREE));
+
+        List<Quantity<?>> decoded = QuantityCodec.decode(new QuantityCodec(2).encode(quantities));
+
+        assertEquals(4, decoded.size());
+        assertQuantity(1.5, Units.METRE, decoded.get(0));
+        assertNull(decoded.get(1));
+        assertQuantity(Math.E, Units.CELSIUS, decoded.get(2));
+        assertQuantity(-0.0, Units.DEGREE, decoded.get(3));
+    }
+
+    @Test
+    public void readsTheDecimalsFromTheHeader() throws IOException {
+        for (int decimals = 0; decimals <= 9; decimals++) {
+            QuantityCodec writer = new QuantityCodec(decimals);
+
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            writer.writeHeader(buffer);
+            writer.write(buffer, 0.123456789, Units.METRE);
+            buffer.flip();
+            QuantityCodec reader = QuantityCodec.readHeader(buffer);
+            assertEquals(decimals, reader.getDecimals());
+            assertQuantity(0.123456789, Units.METRE, reader.read(buffer));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            writer.writeHeader(out);
+            writer.write(out, 0.123456789, Units.METRE);
+            ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+            reader = QuantityCodec.readHeader(in);
+            assertEquals(decimals, reader.getDecimals());
+            assertQuantity(0.123456789, Units.METRE, reader.read(in));
+        }
+    }
+
+    @Test
+    public void rejectsBadHeaders() throws IOException {
+        byte[] badMagic = {'U', 'X', QuantityCodec.VERSION, 6};
+        byte[] badVersion = {'U', 'Q', QuantityCodec.VERSION + 1, 6};
+        byte[] badDecimals = {'U', 'Q', QuantityCodec.VERSION, 10};
+
+        for (byte[] header : List.of(badMagic, badVersion, badDecimals)) {
+            try {
+                QuantityCodec.readHeader(ByteBuffer.wrap(header));
+                fail("Header accepted: " + Arrays.toString(header));
+            }
+            catch (IllegalArgumentException ex) {
+                // expected
+            }
+            try {
+                QuantityCodec.readHeader(new ByteArrayInputStream(header));
+                fail("Header accepted: " + Arrays.toString(header));
+            }
+            catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void rejectsUnknownUnitIds() throws IOException {
+        // varint((100000 << 1) | 1) followed by the fixed-point value 0
+        byte[] bytes = {(byte) 0xC1, (byte) 0x9A, 0x0C, 0};
+        try {
+            codec.read(ByteBuffer.wrap(bytes));
+            fail("Unknown unit id accepted.");
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+        try {
+            codec.read(new ByteArrayInputStream(bytes));
+            fail("Unknown unit id accepted.");
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnregisteredUnits() {
+        Unit<?> unit = new TransformedUnit<>("yd", Units.METRE, MultiplyConverter.ofRational(9144, 10000));
+        codec.write(ByteBuffer.allocate(16), 1, unit);
+    }
+
+    @Test(expected = EOFException.class)
+    public void rejectsTruncatedStreams() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        codec.write(out, Math.PI, Units.METRE);
+        byte[] bytes = out.toByteArray();
+        codec.read(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    private int encodedSize(double value) {
+        return encodedSize(codec, value);
+    }
+
+    private static int encodedSize(QuantityCodec codec, double value) {
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        codec.write(buffer, value, Units.METRE);
+        return buffer.position();
+    }
+
+    private static double[] values() {
+        double[] values = Arrays.copyOf(FIXED_POINT_VALUES, FIXED_POINT_VALUES.length + RAW_VALUES.length);
+        System.arraycopy(RAW_VALUES, 0, values, FIXED_POINT_VALUES.length, RAW_VALUES.length);
+        return values;
+    }
+
+    private static void assertQuantity(double value, Unit<?> unit, Quantity<?> quantity) {
+        assertSame(unit, quantity.getUnit());
+        double actual = ((DoubleQuantity<?>) quantity).doubleValue();
+        if (Double.isNaN(value)) {
+            assertTrue(Double.isNaN(actual));
+        }
+        else {
+            // exact, including the sign of zero
+            assertEquals(Double.doubleToLongBits(value), Double.doubleToLongBits(actual));
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.measure.quantity.Length;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QuantityColumnTest {
+
+    private static final int SIZE = 10_000;
+    private static final int THREADS = 4;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void bulkCopiesRoundTrip() {
+        QuantityColumn<Length> column = QuantityColumn.allocate(SIZE, Units.METRE);
+        double[] source = sequence(SIZE);
+        column.set(0, source, 0, SIZE);
+
+        double[] target = new double[SIZE + 2];
+        column.get(0, target, 1, SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            assertEquals(source[i], target[i + 1], 0);
+        }
+        assertEquals(0, target[0], 0);
+        assertEquals(0, target[SIZE + 1], 0);
+    }
+
+    @Test
+    public void viewsConvertTheBulkCopies() {
+        QuantityColumn<Length> column = QuantityColumn.allocate(4, Units.METRE);
+        QuantityColumn<Length> kilometres = column.view(Units.KILOMETRE);
+
+        kilometres.set(1, new double[] {1, 2.5}, 0, 2);
+        assertEquals(1000, column.get(1), 0);
+        assertEquals(2500, column.get(2), 0);
+        assertTrue(column.isMissing(0));
+        assertTrue(column.isMissing(3));
+
+        double[] values = new double[2];
+        kilometres.get(1, values, 0, 2);
+        assertArrayEquals(new double[] {1, 2.5}, values, 0);
+    }
+
+    @Test
+    public void bulkCopiesDoNotAffectEachOther() {
+        QuantityColumn<Length> column = QuantityColumn.allocate(SIZE, Units.METRE);
+        QuantityColumn<Length> view = column.view(Units.METRE);
+        column.set(0, sequence(SIZE), 0, SIZE);
+
+        // a copy of the view in between must not move the start of the next copy of the column
+        double[] first = new double[10];
+        double[] second = new double[10];
+        column.get(100, first, 0, 5);
+        view.get(7_000, second, 0, 10);
+        column.get(105, first, 5, 5);
+
+        assertArrayEquals(sequence(100, 10), first, 0);
+        assertArrayEquals(sequence(7_000, 10), second, 0);
+    }
+
+    @Test
+    public void concurrentReadersGetTheirOwnRanges() throws Exception {
+        QuantityColumn<Length> column = QuantityColumn.allocate(SIZE, Units.METRE);
+        column.set(0, sequence(SIZE), 0, SIZE);
+
+        // short copies in a tight loop, so the threads often copy at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int start = thread * 1000;
+                futures.add(executor.submit(() -> {
+                    double[] expected = sequence(start, 4);
+                    double[] values = new double[4];
+                    for (int i = 0; i < 200_000; i++) {
+                        column.get(start, values, 0, values.length);
+                        assertArrayEquals(expected, values, 0);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void mappedColumnsKeepTheirValues() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("depths.col");
+        QuantityColumn<Length> column = QuantityColumn.map(file, SIZE, Units.METRE);
+        column.set(0, sequence(SIZE), 0, SIZE);
+        column.fill(10, 20, Double.NaN);
+        column.force();
+
+        QuantityColumn<Length> reopened = QuantityColumn.map(file, SIZE, Units.METRE);
+        assertEquals(SIZE, reopened.size());
+        assertEquals(9, reopened.get(9), 0);
+        assertTrue(reopened.isMissing(15));
+        assertNull(reopened.getQuantity(15));
+        assertEquals(20, reopened.getQuantity(20).getValue().doubleValue(), 0);
+    }
+
+    private static double[] sequence(int length) {
+        return sequence(0, length);
+    }
+
+    private static double[] sequence(int start, int length) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = start + i;
+        }
+        return values;
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Temperature;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class QuantityComparatorTest {
+
+    private final QuantityComparator<Length> lengths = QuantityComparator.getInstance();
+    private final QuantityComparator<Temperature> temperatures = QuantityComparator.getInstance();
+
+    @Test
+    public void comparesAcrossUnits() {
+        assertTrue(lengths.compare(length(1, Units.KILOMETRE), length(999, Units.METRE)) > 0);
+        assertTrue(lengths.compare(length(999, Units.METRE), length(1, Units.KILOMETRE)) < 0);
+        assertTrue(lengths.compare(length(1, Units.NAUTICAL_MILE), length(1.8, Units.KILOMETRE)) > 0);
+        assertTrue(lengths.compare(length(1, Units.FOOT), length(11, Units.INCH)) > 0);
+        assertTrue(lengths.compare(length(-1, Units.KILOMETRE), length(-1, Units.METRE)) < 0);
+    }
+
+    @Test
+    public void comparesAffineUnits() {
+        assertEquals(0, temperatures.compare(temperature(0, Units.CELSIUS), temperature(273.15, Units.KELVIN)));
+        assertTrue(temperatures.compare(temperature(1, Units.CELSIUS), temperature(1, Units.KELVIN)) > 0);
+        assertTrue(temperatures.compare(temperature(-274, Units.CELSIUS), temperature(0, Units.KELVIN)) < 0);
+        assertTrue(temperatures.compare(temperature(300, Units.KELVIN), temperature(26, Units.CELSIUS)) > 0);
+    }
+
+    @Test
+    public void equalValuesInDifferentUnitsAreEqual() {
+        assertEquals(0, lengths.compare(length(1, Units.KILOMETRE), length(1000, Units.METRE)));
+        assertEquals(0, lengths.compare(length(1000, Units.METRE), QuantitiesUtil.createQuantity(1, Units.KILOMETRE)));
+        assertEquals(0, lengths.compare(length(2.5, Units.METRE), length(250, Units.CENTIMETRE)));
+        assertEquals(0, lengths.compare(length(-0.0, Units.KILOMETRE), length(0, Units.METRE)));
+        assertEquals(0, lengths.compare(length(0, Units.METRE), length(-0.0, Units.MILLIMETRE)));
+    }
+
+    @Test
+    public void nullAndNaNGoLast() {
+        Quantity<Length> nan = length(Double.NaN, Units.METRE);
+        assertTrue(lengths.compare(null, length(1e300, Units.KILOMETRE)) > 0);
+        assertTrue(lengths.compare(length(Double.POSITIVE_INFINITY, Units.METRE), null) < 0);
+        assertTrue(lengths.compare(nan, length(Double.POSITIVE_INFINITY, Units.METRE)) > 0);
+        assertEquals(0, lengths.compare(null, null));
+        assertEquals(0, lengths.compare(nan, null));
+        assertEquals(0, lengths.compare(nan, length(Double.NaN, Units.KILOMETRE)));
+
+        List<Quantity<Length>> quantities = new ArrayList<>(Arrays.asList(null, length(2, Units.KILOMETRE), nan,
+                length(500, Units.METRE), length(Double.NEGATIVE_INFINITY, Units.FOOT), length(1, Units.NAUTICAL_MILE)));
+        quantities.sort(lengths);
+        assertEquals(Arrays.asList(length(Double.NEGATIVE_INFINITY, Units.FOOT), length(500, Units.METRE),
+                length(1, Units.NAUTICAL_MILE), length(2, Units.KILOMETRE), null, nan), quantities);
+    }
+
+    @Test
+    public void sortedIndicesOfSmallArrays() {
+        double[] keys = {3, Double.NaN, 1, 3, -0.0, 0.0, 1, Double.NaN, -2};
+        assertArrayEquals(new int[] {8, 4, 5, 2, 6, 0, 3, 1, 7}, QuantityComparator.sortedIndices(keys));
+    }
+
+    @Test
+    public void sortedIndicesOfAnEmptyArray() {
+        assertEquals(0, QuantityComparator.sortedIndices(new double[0]).length);
+    }
+
+    @Test
+    public void sortedIndicesAreStable() {
+        // large enough to be sorted in parallel, with many equal keys to check the stability of the merges
+        for (int size : new int[] {31, 100, 8_192, 50_000, 100_003}) {
+            double[] keys = new double[size];
+            Random random = new Random(size);
+            for (int i = 0; i < size; i++) {
+                keys[i] = random.nextInt(10) == 0 ? Double.NaN : random.nextInt(50) * 0.5;
+            }
+            double[] copy = keys.clone();
+
+            assertArrayEquals("size " + size, expectedIndices(keys), QuantityComparator.sortedIndices(keys));
+            assertArrayEquals(copy, keys, 0);
+        }
+    }
+
+    private static Quantity<Length> length(double value, Unit<Length> unit) {
+        return DoubleQuantity.of(value, unit);
+    }
+
+    private static Quantity<Temperature> temperature(double value, Unit<Temperature> unit) {
+        return DoubleQuantity.of(value, unit);
+    }
+
+    private static int[] expectedIndices(double[] keys) {
+        // the sort of the collections is stable
+        Integer[] indices = new Integer[keys.length];
+        Arrays.setAll(indices, i -> i);
+        Arrays.sort(indices, Comparator.comparingDouble(i -> keys[i]));
+        return Arrays.stream(indices).mapToInt(Integer::intValue).toArray();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+
+import javax.measure.Quantity;
+import javax.measure.quantity.Length;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class QuantityFieldSpecTest {
+
+    @Test
+    public void normalizeMultipliesThePrecisionInDecimal() {
+        // enough decimals to keep the product as it is
+        QuantityFieldSpec<Length> spec = QuantityFieldSpec.of(Length.class, Units.METRE)
+                .withPrecision(QuantitiesUtil.createQuantity(0.1, Units.METRE))
+                .withDigits(10, 20);
+
+        assertEquals(0.3, spec.normalize(0.31), 0);
+        assertEquals(0.7, spec.normalize(0.66), 0);
+    }
+
+    @Test
+    public void normalizeRoundsLikeTheField() {
+        for (Quantity<Length> precision : List.of(QuantitiesUtil.createQuantity(0.1, Units.METRE),
+                QuantitiesUtil.createQuantity(0.005, Units.METRE), QuantitiesUtil.createQuantity(0.5, Units.FOOT))) {
+            QuantityFieldSpec<Length> spec = QuantityFieldSpec.of(Length.class, Units.METRE)
+                    .withPrecision(precision)
+                    .withDigits(10, 20);
+
+            Random random = new Random(7);
+            for (int i = 0; i < 10_000; i++) {
+                double value = Math.round(random.nextDouble() * 1_000_000) / 1000.0;
+                double expected = QuantitiesUtil.roundQuantity(DoubleQuantity.of(value, Units.METRE), precision).getValue().doubleValue();
+                assertEquals(precision + " " + value, expected, spec.normalize(value), 0);
+            }
+        }
+    }
+
+    @Test
+    public void normalizeRoundsToTheDecimals() {
+        QuantityFieldSpec<Length> spec = QuantityFieldSpec.of(Length.class, Units.METRE).withDigits(10, 2);
+
+        assertEquals(1.23, spec.normalize(1.234), 0);
+        assertEquals(-1.24, spec.normalize(-1.235), 0);
+        assertEquals(1e300, spec.normalize(1e300), 0);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+
+import javax.measure.Quantity;
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Temperature;
+import javax.measure.quantity.Time;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class QuantityRangeIndexTest {
+
+    private final QuantityRangeIndex<Length> index = new QuantityRangeIndex<>(Length.class);
+
+    @Test
+    public void findsAcrossUnits() {
+        index.add(0, length(10, Units.METRE));
+        index.add(1, length(30, Units.FOOT));
+        index.add(2, length(1, Units.KILOMETRE));
+        index.add(3, length(2000, Units.CENTIMETRE));
+        index.add(4, null);
+        index.add(5, 500, Units.MILLIMETRE);
+
+        assertSame(Units.METRE, index.getSystemUnit());
+        assertEquals(5, index.size());
+
+        // 30 ft = 9.144 m
+        assertArrayEquals(new int[] {1, 0, 3}, index.find(length(9, Units.METRE), length(0.02, Units.KILOMETRE)));
+        assertArrayEquals(new int[] {1, 0, 3}, index.find(length(0.02, Units.KILOMETRE), length(9, Units.METRE)));
+        assertArrayEquals(new int[] {5, 1, 0}, index.find(null, length(10, Units.METRE)));
+        assertArrayEquals(new int[] {3, 2}, index.find(length(12, Units.METRE), null));
+        assertArrayEquals(new int[] {5, 1, 0, 3, 2}, index.find(null, null));
+        assertEquals(3, index.count(length(30, Units.FOOT), length(2000, Units.CENTIMETRE)));
+        assertEquals(0, index.count(length(21, Units.METRE), length(999, Units.METRE)));
+    }
+
+    @Test
+    public void includesBothEnds() {
+        index.add(0, length(1, Units.KILOMETRE));
+        index.add(1, length(1, Units.NAUTICAL_MILE));
+        index.add(2, length(2, Units.KILOMETRE));
+
+        assertArrayEquals(new int[] {0, 1}, index.find(length(1000, Units.METRE), length(1852, Units.METRE)));
+        assertArrayEquals(new int[] {0}, index.find(length(1, Units.KILOMETRE), length(1, Units.KILOMETRE)));
+        assertArrayEquals(new int[0], index.find(length(1000.001, Units.METRE), length(1851.999, Units.METRE)));
+
+        List<Integer> ids = new ArrayList<>();
+        index.forEach(length(1852, Units.METRE), length(2, Units.KILOMETRE), ids::add);
+        assertEquals(List.of(1, 2), ids);
+    }
+
+    @Test
+    public void keepsDuplicatesInInsertionOrder() {
+        index.add(7, length(1, Units.KILOMETRE));
+        index.add(3, length(5, Units.METRE));
+        index.add(5, length(1000, Units.METRE));
+        index.add(1, length(100000, Units.CENTIMETRE));
+        index.add(9, length(1000, Units.METRE));
+
+        assertArrayEquals(new int[] {7, 5, 1, 9}, index.find(length(1, Units.KILOMETRE), length(1, Units.KILOMETRE)));
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    public void removesTheGivenId() {
+        index.add(1, length(1, Units.KILOMETRE));
+        index.add(2, length(1000, Units.METRE));
+        index.add(3, length(2, Units.METRE));
+
+        assertFalse(index.remove(3, length(1, Units.KILOMETRE)));
+        assertFalse(index.remove(1, length(2, Units.METRE)));
+        assertFalse(index.remove(1, null));
+        assertTrue(index.remove(2, length(1, Units.KILOMETRE)));
+        assertFalse(index.remove(2, length(1, Units.KILOMETRE)));
+        assertArrayEquals(new int[] {3, 1}, index.find(null, null));
+
+        assertTrue(index.remove(1, length(100000, Units.CENTIMETRE)));
+        assertTrue(index.remove(3, length(2, Units.METRE)));
+        assertEquals(0, index.size());
+
+        index.add(4, length(1, Units.METRE));
+        index.clear();
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[0], index.find(null, null));
+    }
+
+    @Test
+    public void addAllMergesWithTheExistingQuantities() {
+        index.add(100, length(1.5, Units.KILOMETRE));
+        index.add(101, length(5, Units.METRE));
+        index.addAll(new int[] {0, 1, 2, 3}, new double[] {2, Double.NaN, 0.5, 1.5}, Units.KILOMETRE);
+
+        assertEquals(5, index.size());
+        assertArrayEquals(new int[] {101, 2, 100, 3, 0}, index.find(null, null));
+
+        // single adds still work after a bulk add
+        index.add(4, length(1, Units.KILOMETRE));
+        assertArrayEquals(new int[] {2, 4, 100, 3}, index.find(length(500, Units.METRE), length(1500, Units.METRE)));
+    }
+
+    @Test
+    public void addAllMatchesSingleAdds() {
+        Random random = new Random(39);
+        int[] ids = new int[20_000];
+        double[] values = new double[ids.length];
+        QuantityRangeIndex<Length> single = new QuantityRangeIndex<>(Length.class);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+            values[i] = random.nextInt(500) * 0.25;
+            single.add(i, values[i], Units.FOOT);
+        }
+        index.addAll(ids, values, Units.FOOT);
+
+        for (int i = 0; i < 100; i++) {
+            Quantity<Length> low = length(random.nextInt(40), Units.METRE);
+            Quantity<Length> high = length(random.nextInt(40), Units.METRE);
+            assertArrayEquals(single.find(low, high), index.find(low, high));
+        }
+    }
+
+    @Test
+    public void treatsSignedZerosAsEqual() {
+        index.add(0, length(-0.0, Units.METRE));
+        index.add(1, length(0.0, Units.KILOMETRE));
+        index.add(2, -0.0, Units.FOOT);
+        index.addAll(new int[] {3, 4}, new double[] {-0.0, -1}, Units.METRE);
+
+        assertArrayEquals(new int[] {0, 1, 2, 3}, index.find(length(0, Units.METRE), length(0, Units.METRE)));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, index.find(length(-0.0, Units.METRE), length(-0.0, Units.METRE)));
+        assertArrayEquals(new int[] {4, 0, 1, 2, 3}, index.find(null, length(0, Units.METRE)));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, index.find(length(0, Units.METRE), null));
+
+        assertTrue(index.remove(0, length(0.0, Units.METRE)));
+        assertTrue(index.remove(1, length(-0.0, Units.KILOMETRE)));
+        assertTrue(index.remove(3, length(0.0, Units.METRE)));
+        assertArrayEquals(new int[] {4, 2}, index.find(null, null));
+    }
+
+    @Test
+    public void convertsAffineUnits() {
+        QuantityRangeIndex<Temperature> temperatures = new QuantityRangeIndex<>(Temperature.class);
+        temperatures.add(0, DoubleQuantity.of(20, Units.CELSIUS));
+        temperatures.add(1, DoubleQuantity.of(280, Units.KELVIN));
+        temperatures.add(2, DoubleQuantity.of(-5, Units.CELSIUS));
+
+        assertSame(Units.KELVIN, temperatures.getSystemUnit());
+        assertArrayEquals(new int[] {1, 0}, temperatures.find(DoubleQuantity.of(0, Units.CELSIUS), DoubleQuantity.of(300, Units.KELVIN)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnregisteredTypes() {
+        new QuantityRangeIndex<>(Time.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDifferentNumbersOfIdsAndValues() {
+        index.addAll(new int[2], new double[3], Units.METRE);
+    }
+
+    private static Quantity<Length> length(double value, Unit<Length> unit) {
+        return DoubleQuantity.of(value, unit);
+    }
+
+}
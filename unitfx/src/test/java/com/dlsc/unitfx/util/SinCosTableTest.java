@@ -0,0 +1,63 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SinCosTableTest {
+
+    @Test
+    public void entriesAreExact() {
+        SinCosTable table = new SinCosTable(72);
+        for (int i = -144; i <= 144; i++) {
+            double radians = Math.toRadians(Math.floorMod(i, 72) * 5.0);
+            assertEquals(Math.sin(radians), table.sinAt(i), 0);
+            assertEquals(Math.cos(radians), table.cosAt(i), 0);
+            assertEquals(Math.sin(radians), table.sin(i * 5.0), 0);
+            assertEquals(Math.cos(radians), table.cos(i * 5.0), 0);
+        }
+    }
+
+    @Test
+    public void errorIsWithinTheDocumentedBound() {
+        for (int resolution : new int[] {1, 7, 72, 360, 3600}) {
+            SinCosTable table = new SinCosTable(resolution);
+            double maxError = table.getMaxError();
+            double observedError = 0;
+
+            // sweep densely around a full turn, including the points halfway between entries
+            for (int i = 0; i <= resolution * 64; i++) {
+                double degrees = i * table.getStep() / 64;
+                observedError = Math.max(observedError, error(table, degrees));
+            }
+            Random random = new Random(resolution);
+            for (int i = 0; i < 100_000; i++) {
+                double degrees = (random.nextDouble() - 0.5) * 20_000;
+                observedError = Math.max(observedError, error(table, degrees));
+            }
+
+            assertTrue("Resolution " + resolution + ": " + observedError + " > " + maxError, observedError <= maxError + 1e-12);
+        }
+    }
+
+    @Test
+    public void documentedErrors() {
+        assertTrue(new SinCosTable(72).getMaxError() <= 0.0437);
+        assertTrue(new SinCosTable(360).getMaxError() <= 0.00873);
+        assertTrue(new SinCosTable(3600).getMaxError() <= 0.000873);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void resolutionMustBePositive() {
+        new SinCosTable(0);
+    }
+
+    private static double error(SinCosTable table, double degrees) {
+        double radians = Math.toRadians(degrees);
+        return Math.max(Math.abs(table.sin(degrees) - Math.sin(radians)), Math.abs(table.cos(degrees) - Math.cos(radians)));
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+import javax.measure.quantity.Speed;
+import javax.measure.quantity.Temperature;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class UnitCatalogTest {
+
+    @Test
+    public void parsesUnits() throws IOException {
+        UnitCatalog catalog = parse(
+                "# id  type         symbol  base  factor    [offset]   [default]",
+                "",
+                "3101  Length       tmi     m     1609.344  # statute mile",
+                "3102  Length       tyd     tmi   1/1760",
+                "3103  Temperature  tdegF   K     5/9       45967/180",
+                "3104  Speed        tmph    km/h  1.609344  0          default");
+
+        List<Units.Registration<?>> registrations = catalog.getRegistrations();
+        assertEquals(4, registrations.size());
+
+        Units.Registration<?> mile = registrations.get(0);
+        assertEquals(3101, mile.getId());
+        assertSame(Length.class, mile.getType());
+        assertEquals("tmi", mile.getSymbol());
+        assertFalse(mile.isBaseUnit());
+        assertEquals(1609.344, convert(mile.getUnit(), Units.METRE, 1), 1e-9);
+
+        // a base defined earlier in the catalog
+        assertEquals(0.9144, convert(registrations.get(1).getUnit(), Units.METRE, 1), 1e-12);
+
+        // with an offset
+        Units.Registration<?> fahrenheit = registrations.get(2);
+        assertSame(Temperature.class, fahrenheit.getType());
+        assertEquals(273.15, convert(fahrenheit.getUnit(), Units.KELVIN, 32), 1e-9);
+        assertEquals(373.15, convert(fahrenheit.getUnit(), Units.KELVIN, 212), 1e-9);
+
+        Units.Registration<?> mph = registrations.get(3);
+        assertSame(Speed.class, mph.getType());
+        assertTrue(mph.isBaseUnit());
+        assertEquals(1.609344, convert(mph.getUnit(), Units.KILOMETRE_PER_HOUR, 1), 1e-12);
+    }
+
+    @Test
+    public void registersAllUnits() throws IOException {
+        UnitCatalog catalog = parse(
+                "3111  Length  tlea  m     4828.032",
+                "3112  Length  tfur  tlea  1/24");
+        catalog.register();
+
+        Units units = Units.getInstance();
+        Unit<?> league = units.getUnitBySymbol("tlea");
+        assertSame(catalog.getRegistrations().get(0).getUnit(), league);
+        assertSame(league, units.getUnitById(3111));
+        assertSame(Length.class, units.getQuantityType(league));
+        assertSame(catalog.getRegistrations().get(1).getUnit(), units.getUnitById(3112));
+        assertTrue(units.getUnits(Length.class).contains(league));
+    }
+
+    @Test
+    public void rejectsForwardBaseReferences() {
+        assertInvalid(2, "Unknown base unit tbar",
+                "3121  Length  tfoo  m     2",
+                "3122  Length  tbaz  tbar  2",
+                "3123  Length  tbar  m     3");
+    }
+
+    @Test
+    public void rejectsDuplicates() {
+        assertInvalid(2, "Unit id 3131 is already defined.",
+                "3131  Length  tdup1  m  2",
+                "3131  Length  tdup2  m  3");
+        assertInvalid(3, "Unit symbol tdup3 is already defined.",
+                "3132  Length  tdup3  m  2",
+                "",
+                "3133  Length  tdup3  m  3");
+    }
+
+    @Test
+    public void rejectsIdsOutOfRange() {
+        assertInvalid(1, "Unit ids must be between 1 and " + Units.Registration.MAX_ID, "0  Length  tid0  m  2");
+        assertInvalid(1, "Unit ids must be between 1 and " + Units.Registration.MAX_ID,
+                (Units.Registration.MAX_ID + 1) + "  Length  tid1  m  2");
+        assertInvalid(1, "Unit ids must be between 1 and " + Units.Registration.MAX_ID, "2147483647  Length  tid2  m  2");
+        assertInvalid(1, "Invalid id 2147483648", "2147483648  Length  tid3  m  2");
+    }
+
+    @Test
+    public void rejectsBadNumbers() {
+        assertInvalid(1, "Invalid number 1.2.3", "3141  Length  tnum1  m  1.2.3");
+        assertInvalid(1, "Invalid number 1/x", "3142  Length  tnum2  m  1/x");
+        assertInvalid(1, "Division by zero in 1/0", "3143  Length  tnum3  m  1/0");
+        assertInvalid(2, "Division by zero in 5/0", "# offset", "3144  Length  tnum4  m  1  5/0");
+    }
+
+    @Test
+    public void rejectsBadLines() {
+        assertInvalid(1, "Expected id", "3151  Length  tbad1  m");
+        assertInvalid(1, "Unknown quantity type Lenght", "3152  Lenght  tbad2  m  1");
+        assertInvalid(1, "Base unit kg is not a Length unit.", "3153  Length  tbad3  kg  1");
+    }
+
+    private static UnitCatalog parse(String... lines) throws IOException {
+        return UnitCatalog.parse(new StringReader(String.join("\n", lines)));
+    }
+
+    private static void assertInvalid(int lineNumber, String message, String... lines) {
+        try {
+            parse(lines);
+            fail("Catalog accepted: " + String.join(" | ", lines));
+        }
+        catch (IllegalArgumentException ex) {
+            String prefix = "Invalid unit at line " + lineNumber + ": " + message;
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith(prefix));
+        }
+        catch (IOException ex) {
+            throw new AssertionError(ex);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static double convert(Unit unit, Unit target, double value) {
+        return unit.getConverterTo(target).convert(value);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.dlsc.unitfx.util;
+
+import org.junit.Test;
+import tech.units.indriya.format.SimpleUnitFormat;
+
+import javax.measure.Unit;
+import javax.measure.quantity.Length;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class UnitsTest {
+
+    private final Units units = Units.getInstance();
+
+    @Test
+    public void rejectedBatchesRegisterAndNameNothing() {
+        Unit<Length> unit = Units.METRE.multiply(3);
+        try {
+            units.registerAll(List.of(
+                    Units.Registration.of(3001, Length.class, unit, "m3x", false),
+                    Units.Registration.of(units.getUnitId(Units.METRE), Length.class, Units.METRE.multiply(4), "m4x", false)));
+            fail("Batch with a used id accepted.");
+        }
+        catch (IllegalArgumentException ex) {
+            // expected
+        }
+
+        assertNull(units.getUnitById(3001));
+        assertNull(units.getUnitBySymbol("m3x"));
+        assertNotEquals("m3x", SimpleUnitFormat.getInstance().format(unit));
+
+        units.register(Units.Registration.of(3001, Length.class, unit, "m3x", false));
+        assertSame(unit, units.getUnitById(3001));
+        assertSame(unit, units.getUnitBySymbol("m3x"));
+        assertEquals("m3x", SimpleUnitFormat.getInstance().format(unit));
+    }
+
+    @Test
+    public void idsAreLimited() {
+        Unit<Length> unit = Units.METRE.multiply(5);
+        units.register(Units.Registration.of(Units.Registration.MAX_ID, Length.class, unit, "m5x", false));
+
+        assertSame(unit, units.getUnitById(Units.Registration.MAX_ID));
+        assertEquals(Units.Registration.MAX_ID, units.getUnitId(unit));
+        assertNull(units.getUnitById(Units.Registration.MAX_ID + 1));
+        assertNull(units.getUnitById(Integer.MAX_VALUE));
+        assertNull(units.getUnitById(-1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void idsAboveTheLimitAreRejected() {
+        Units.Registration.of(Units.Registration.MAX_ID + 1, Length.class, Units.METRE.multiply(6), "m6x", false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void idZeroIsRejected() {
+        Units.Registration.of(0, Length.class, Units.METRE.multiply(7), "m7x", false);
+    }
+
+}